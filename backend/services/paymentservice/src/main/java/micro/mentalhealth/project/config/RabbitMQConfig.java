@@ -13,6 +13,8 @@ public class RabbitMQConfig {
     public static final String NOTIFICATION_QUEUE = "notification.queue";
     public static final String NOTIFICATION_EXCHANGE = "notification.exchange";
     public static final String NOTIFICATION_ROUTING_KEY = "notification.routing.key";
+    public static final String PAYMENT_EXCHANGE = "payment.exchange";
+    public static final String PAYMENT_SUCCEEDED_ROUTING_KEY = "payment.succeeded";
 
     @Bean
     public Queue queue() {
@@ -32,6 +34,11 @@ public class RabbitMQConfig {
                 .with(NOTIFICATION_ROUTING_KEY);
     }
 
+    @Bean
+    public TopicExchange paymentExchange() {
+        return new TopicExchange(PAYMENT_EXCHANGE);
+    }
+
     @Bean
     public MessageConverter messageConverter() {
         return new Jackson2JsonMessageConverter();
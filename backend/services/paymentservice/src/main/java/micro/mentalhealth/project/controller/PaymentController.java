@@ -25,8 +25,12 @@ public class PaymentController {
     // Create a payment
     @PostMapping
     public ResponseEntity<PaymentDTO> createPayment(@RequestBody CreatePaymentRequest request) {
-        PaymentDTO createdPayment = paymentService.createPayment(request);
-        return ResponseEntity.ok(createdPayment);
+        try {
+            PaymentDTO createdPayment = paymentService.createPayment(request);
+            return ResponseEntity.ok(createdPayment);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     // Get payment by ID
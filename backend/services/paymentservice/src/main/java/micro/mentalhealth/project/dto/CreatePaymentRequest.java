@@ -8,6 +8,8 @@ public class CreatePaymentRequest {
     private UUID seanceId;
     private Float amount;
     private String paymentMethod;
+    // Signed by session-service's price preview; the amount charged is the one it quotes
+    private String quoteToken;
 
     public CreatePaymentRequest() {}
 
@@ -58,4 +60,12 @@ public class CreatePaymentRequest {
     public void setPaymentMethod(String paymentMethod) {
         this.paymentMethod = paymentMethod;
     }
+
+    public String getQuoteToken() {
+        return quoteToken;
+    }
+
+    public void setQuoteToken(String quoteToken) {
+        this.quoteToken = quoteToken;
+    }
 }
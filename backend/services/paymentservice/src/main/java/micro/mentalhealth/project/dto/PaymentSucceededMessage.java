@@ -0,0 +1,24 @@
+package micro.mentalhealth.project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Published once a payment attached to a séance has succeeded, so session-service can confirm the
+ * booking without calling back.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentSucceededMessage {
+    private UUID paymentId;
+    private UUID seanceId;
+    private UUID patientId;
+    private UUID therapistId;
+    private Float amount;
+    private LocalDateTime paidAt;
+}
@@ -7,5 +7,8 @@ public enum NotificationType {
     PAYMENT_CONFIRMED,
     PAYMENT_REFUNDED,
     FEEDBACK_SUBMITTED,
-    SYSTEM_ALERT
+    SYSTEM_ALERT,
+    SEANCE_REMINDER,
+    SEANCE_RESCHEDULED,
+    WAITLIST_OFFER
 }
\ No newline at end of file
@@ -7,7 +7,9 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "payments")
+// A séance is paid once, by the patient who booked it: group places are not paid through here
+@Table(name = "payments",
+        uniqueConstraints = @UniqueConstraint(name = "uk_payments_seance", columnNames = "seance_id"))
 public class Payment {
 
     @Id
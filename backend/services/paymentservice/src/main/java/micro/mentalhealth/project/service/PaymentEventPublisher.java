@@ -0,0 +1,26 @@
+package micro.mentalhealth.project.service;
+
+import micro.mentalhealth.project.config.RabbitMQConfig;
+import micro.mentalhealth.project.dto.PaymentSucceededMessage;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Relays {@link PaymentSucceededMessage}s to RabbitMQ once the payment is committed.
+ */
+@Service
+public class PaymentEventPublisher {
+    @Autowired
+    private RabbitTemplate rabbitTemplate;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPaymentSucceeded(PaymentSucceededMessage message) {
+        rabbitTemplate.convertAndSend(
+                RabbitMQConfig.PAYMENT_EXCHANGE,
+                RabbitMQConfig.PAYMENT_SUCCEEDED_ROUTING_KEY,
+                message
+        );
+    }
+}
@@ -18,9 +18,12 @@ import java.io.IOException;
 
 import micro.mentalhealth.project.repository.TherapistEarningsRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -34,15 +37,28 @@ public class PaymentService {
     private  RemboursementRepository remboursementRepository;
     @Autowired
     private NotificationProducer notificationProducer;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private PriceQuoteVerifier priceQuoteVerifier;
 
     private final TherapistEarningsRepository therapistEarningsRepository;
 
     // ------------------ PAYMENT ------------------
 
     public PaymentDTO createPayment(CreatePaymentRequest request) {
+        // Charge the quoted amount, whatever amount the client sent
+        request.setAmount(priceQuoteVerifier.verify(request.getQuoteToken(), request.getSeanceId(),
+                request.getPatientId(), request.getTherapistId()));
         Payment payment = PaymentMapper.toEntity(request);
         payment.setPaymentStatus(PaymentStatus.REUSSI); // For manual project, assume always successful
-        Payment saved = paymentRepository.save(payment);
+        Payment saved;
+        try {
+            // The unique séance id makes two concurrent submits of one quote charge once
+            saved = paymentRepository.saveAndFlush(payment);
+        } catch (DataIntegrityViolationException ex) {
+            throw new IllegalArgumentException("Cette séance est déjà payée");
+        }
         // Add notification
         String patientMsg = "Payment of " + request.getAmount() + " confirmed";
         NotificationRequest notification = new NotificationRequest(
@@ -53,6 +69,7 @@ public class PaymentService {
         );
         notificationProducer.sendNotification(notification);
         updateTherapistEarnings(request.getTherapistId(), request.getAmount());
+        publishIfSucceeded(saved);
         return PaymentMapper.toDTO(saved);
     }
 
@@ -74,6 +91,15 @@ public class PaymentService {
 
         payment.setSeanceId(seanceId);
         paymentRepository.save(payment); // optional with @Transactional if entity is managed
+        publishIfSucceeded(payment);
+    }
+
+    // session-service confirms the séance when it receives this, once the payment is committed
+    private void publishIfSucceeded(Payment payment) {
+        if (payment.getPaymentStatus() == PaymentStatus.REUSSI && payment.getSeanceId() != null) {
+            eventPublisher.publishEvent(new PaymentSucceededMessage(payment.getId(), payment.getSeanceId(),
+                    payment.getPatientId(), payment.getTherapistId(), payment.getAmount(), LocalDateTime.now()));
+        }
     }
 
     public PaymentDTO getPayment(UUID id) {
@@ -152,6 +178,10 @@ public class PaymentService {
         if (request.getMontant() > payment.getAmount()) {
             throw new IllegalArgumentException("Montant du remboursement > montant du paiement");
         }
+        // session-service may ask again when a payment event is redelivered
+        if (payment.getPaymentStatus() == PaymentStatus.REMBOURSE) {
+            throw new IllegalArgumentException("Paiement déjà remboursé");
+        }
 
         // Create refund
         Remboursement remboursement = RemboursementMapper.toEntity(request);
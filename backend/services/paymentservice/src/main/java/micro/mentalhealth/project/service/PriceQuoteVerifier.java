@@ -0,0 +1,88 @@
+package micro.mentalhealth.project.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Checks the price quotes signed by session-service and returns the amount they commit to, so a
+ * payment is charged what the patient was quoted without asking session-service or
+ * therapeute-service again.
+ * <p>
+ * A token is {@code base64url(payload) + "." + base64url(HMAC-SHA256(payload))}, where the payload
+ * is {@code v3|seanceId|patientId|therapistId|dureeMinutes|amount|expiresAtEpochSeconds}. Quotes are
+ * issued to the patient of one pending séance, at the duration it was booked with, so they cannot
+ * pay for another séance nor be used by another patient.
+ */
+@Service
+public class PriceQuoteVerifier {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final String VERSION = "v3";
+
+    @Value("${pricing.quote.secret}")
+    private String secret;
+
+    /**
+     * @return the quoted amount
+     * @throws IllegalArgumentException if the token is missing, tampered with, expired, or quotes another séance,
+     *                                  patient or therapist
+     */
+    public float verify(String token, UUID seanceId, UUID patientId, UUID therapistId) {
+        if (token == null || token.isBlank()) {
+            throw new IllegalArgumentException("Devis de prix requis");
+        }
+        String[] parts = token.split("\\.");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Devis de prix invalide");
+        }
+        byte[] payloadBytes;
+        byte[] signature;
+        try {
+            Base64.Decoder base64 = Base64.getUrlDecoder();
+            payloadBytes = base64.decode(parts[0]);
+            signature = base64.decode(parts[1]);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Devis de prix invalide");
+        }
+        if (!MessageDigest.isEqual(sign(payloadBytes), signature)) {
+            throw new IllegalArgumentException("Devis de prix invalide");
+        }
+
+        String[] fields = new String(payloadBytes, StandardCharsets.UTF_8).split("\\|");
+        if (fields.length != 7 || !VERSION.equals(fields[0])) {
+            throw new IllegalArgumentException("Devis de prix invalide");
+        }
+        if (!fields[1].equals(String.valueOf(seanceId))) {
+            throw new IllegalArgumentException("Le devis ne concerne pas cette séance");
+        }
+        if (!fields[2].equals(String.valueOf(patientId))) {
+            throw new IllegalArgumentException("Le devis ne concerne pas ce patient");
+        }
+        if (!fields[3].equals(String.valueOf(therapistId))) {
+            throw new IllegalArgumentException("Le devis ne concerne pas ce thérapeute");
+        }
+        if (Instant.now().getEpochSecond() > Long.parseLong(fields[6])) {
+            throw new IllegalArgumentException("Le devis a expiré");
+        }
+        return Float.parseFloat(fields[5]);
+    }
+
+    private byte[] sign(byte[] payload) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM));
+            return mac.doFinal(payload);
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("Impossible de vérifier le devis", ex);
+        }
+    }
+}
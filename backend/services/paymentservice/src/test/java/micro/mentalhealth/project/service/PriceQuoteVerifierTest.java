@@ -0,0 +1,121 @@
+package micro.mentalhealth.project.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Quotes are accepted only as signed by session-service, unexpired, and for the séance, patient and
+ * therapist they were issued for.
+ */
+class PriceQuoteVerifierTest {
+
+    private static final String SECRET = "test-secret";
+
+    private final UUID seanceId = UUID.randomUUID();
+    private final UUID patientId = UUID.randomUUID();
+    private final UUID therapistId = UUID.randomUUID();
+    private final long inOneHour = Instant.now().plusSeconds(3600).getEpochSecond();
+    private PriceQuoteVerifier verifier;
+
+    @BeforeEach
+    void setUp() {
+        verifier = new PriceQuoteVerifier();
+        ReflectionTestUtils.setField(verifier, "secret", SECRET);
+    }
+
+    @Test
+    void aValidQuoteGivesItsAmount() {
+        String token = token(payload("v3", seanceId, patientId, therapistId, 60, 450.0f, inOneHour), SECRET);
+
+        assertEquals(450.0f, verifier.verify(token, seanceId, patientId, therapistId));
+    }
+
+    @Test
+    void aTamperedAmountIsRejected() {
+        String token = token(payload("v3", seanceId, patientId, therapistId, 60, 450.0f, inOneHour), SECRET);
+        String cheaper = base64(payload("v3", seanceId, patientId, therapistId, 60, 1.0f, inOneHour))
+                + token.substring(token.indexOf('.'));
+
+        assertRejected(cheaper, seanceId, patientId, therapistId);
+    }
+
+    @Test
+    void aQuoteSignedWithAnotherKeyIsRejected() {
+        String token = token(payload("v3", seanceId, patientId, therapistId, 60, 450.0f, inOneHour), "other-secret");
+
+        assertRejected(token, seanceId, patientId, therapistId);
+    }
+
+    @Test
+    void anExpiredQuoteIsRejected() {
+        long anHourAgo = Instant.now().minusSeconds(3600).getEpochSecond();
+        String token = token(payload("v3", seanceId, patientId, therapistId, 60, 450.0f, anHourAgo), SECRET);
+
+        assertRejected(token, seanceId, patientId, therapistId);
+    }
+
+    @Test
+    void aQuoteOnlyPaysForItsSeancePatientAndTherapist() {
+        String token = token(payload("v3", seanceId, patientId, therapistId, 60, 450.0f, inOneHour), SECRET);
+
+        assertRejected(token, UUID.randomUUID(), patientId, therapistId);
+        assertRejected(token, seanceId, UUID.randomUUID(), therapistId);
+        assertRejected(token, seanceId, patientId, UUID.randomUUID());
+    }
+
+    @Test
+    void quotesWithoutThePatientAreNoLongerAccepted() {
+        String v2 = token(String.join("|", "v2", seanceId.toString(), therapistId.toString(), "60", "450.0",
+                Long.toString(inOneHour)), SECRET);
+
+        assertRejected(v2, seanceId, patientId, therapistId);
+    }
+
+    @Test
+    void missingOrMalformedTokensAreRejected() {
+        assertRejected(null, seanceId, patientId, therapistId);
+        assertRejected(" ", seanceId, patientId, therapistId);
+        assertRejected("no-signature", seanceId, patientId, therapistId);
+        assertRejected("not base64!.x", seanceId, patientId, therapistId);
+    }
+
+    private void assertRejected(String token, UUID seance, UUID patient, UUID therapist) {
+        assertThrows(IllegalArgumentException.class, () -> verifier.verify(token, seance, patient, therapist));
+    }
+
+    // Same layout as session-service's PriceQuoteService
+    private static String payload(String version, UUID seance, UUID patient, UUID therapist, int duree,
+                                  float amount, long expiresAt) {
+        return String.join("|", version, seance.toString(), patient.toString(), therapist.toString(),
+                Integer.toString(duree), Float.toString(amount), Long.toString(expiresAt));
+    }
+
+    private static String token(String payload, String secret) {
+        return base64(payload) + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(hmac(payload, secret));
+    }
+
+    private static String base64(String payload) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static byte[] hmac(String payload, String secret) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
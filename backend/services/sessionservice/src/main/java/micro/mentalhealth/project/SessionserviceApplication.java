@@ -2,8 +2,10 @@ package micro.mentalhealth.project;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class SessionserviceApplication {
 
 	public static void main(String[] args) {
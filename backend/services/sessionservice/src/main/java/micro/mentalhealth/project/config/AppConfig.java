@@ -1,16 +1,62 @@
 package micro.mentalhealth.project.config;
 
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
 @Configuration
 public class AppConfig {
 
+    // One client per downstream service, each with its own connection pool and timeouts,
+    // so a stalled service cannot use up the connections or the patience meant for the other.
+
     @Bean
     @LoadBalanced  // Needed for service discovery (Eureka)
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate therapeuteRestTemplate(
+            @Value("${clients.therapeute-service.connect-timeout-ms:1000}") long connectTimeoutMs,
+            @Value("${clients.therapeute-service.read-timeout-ms:2000}") long readTimeoutMs,
+            @Value("${clients.therapeute-service.max-connections:50}") int maxConnections) {
+        return pooledRestTemplate(connectTimeoutMs, readTimeoutMs, maxConnections);
+    }
+
+    @Bean
+    @LoadBalanced
+    public RestTemplate paymentRestTemplate(
+            @Value("${clients.payment-service.connect-timeout-ms:1000}") long connectTimeoutMs,
+            @Value("${clients.payment-service.read-timeout-ms:3000}") long readTimeoutMs,
+            @Value("${clients.payment-service.max-connections:50}") int maxConnections) {
+        return pooledRestTemplate(connectTimeoutMs, readTimeoutMs, maxConnections);
+    }
+
+    private static RestTemplate pooledRestTemplate(long connectTimeoutMs, long readTimeoutMs, int maxConnections) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .build())
+                .build();
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        // Waiting for a free pooled connection is bounded too
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .build())
+                .evictIdleConnections(TimeValue.ofSeconds(30))
+                .build();
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
     }
-}
\ No newline at end of file
+}
@@ -1,10 +1,12 @@
 package micro.mentalhealth.project.config;
 
 import org.springframework.amqp.core.*;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -13,6 +15,13 @@ public class RabbitMQConfig {
     public static final String NOTIFICATION_QUEUE = "notification.queue";
     public static final String NOTIFICATION_EXCHANGE = "notification.exchange";
     public static final String NOTIFICATION_ROUTING_KEY = "notification.routing.key";
+    public static final String THERAPEUTE_EXCHANGE = "therapeute.exchange";
+    public static final String DISPONIBILITE_ROUTING_KEY = "therapeute.disponibilite.changed";
+    public static final String PROFIL_ROUTING_KEY = "therapeute.profil.changed";
+    public static final String PAYMENT_EXCHANGE = "payment.exchange";
+    public static final String PAYMENT_SUCCEEDED_ROUTING_KEY = "payment.succeeded";
+    public static final String PAYMENT_SUCCEEDED_QUEUE = "session.payment-succeeded.queue";
+    public static final String SEANCE_CHANGED_EXCHANGE = "session.seance-changed.exchange";
 
     @Bean
     public Queue queue() {
@@ -32,6 +41,96 @@ public class RabbitMQConfig {
                 .with(NOTIFICATION_ROUTING_KEY);
     }
 
+    // Every instance keeps its own availability replica, so each one gets its own queue.
+    @Bean
+    public Queue disponibiliteQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public TopicExchange therapeuteExchange() {
+        return new TopicExchange(THERAPEUTE_EXCHANGE);
+    }
+
+    @Bean
+    public Binding disponibiliteBinding() {
+        return BindingBuilder
+                .bind(disponibiliteQueue())
+                .to(therapeuteExchange())
+                .with(DISPONIBILITE_ROUTING_KEY);
+    }
+
+    // Same for the replica of the therapists' profiles used by matching
+    @Bean
+    public Queue profilQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding profilBinding() {
+        return BindingBuilder
+                .bind(profilQueue())
+                .to(therapeuteExchange())
+                .with(PROFIL_ROUTING_KEY);
+    }
+
+    // Every instance keeps its own interval index, so each one gets every séance change made on the others
+    @Bean
+    public Queue seanceChangedQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public FanoutExchange seanceChangedExchange() {
+        return new FanoutExchange(SEANCE_CHANGED_EXCHANGE);
+    }
+
+    @Bean
+    public Binding seanceChangedBinding() {
+        return BindingBuilder
+                .bind(seanceChangedQueue())
+                .to(seanceChangedExchange());
+    }
+
+    // Shared by every instance: each payment confirms its séance once, whichever node receives it
+    @Bean
+    public Queue paymentSucceededQueue() {
+        return new Queue(PAYMENT_SUCCEEDED_QUEUE);
+    }
+
+    @Bean
+    public TopicExchange paymentExchange() {
+        return new TopicExchange(PAYMENT_EXCHANGE);
+    }
+
+    @Bean
+    public Binding paymentSucceededBinding() {
+        return BindingBuilder
+                .bind(paymentSucceededQueue())
+                .to(paymentExchange())
+                .with(PAYMENT_SUCCEEDED_ROUTING_KEY);
+    }
+
+    /**
+     * Hands listeners up to {@code payment.listener.batch-size} messages at once, or whatever has
+     * arrived after {@code payment.listener.receive-timeout-ms}.
+     */
+    @Bean
+    public SimpleRabbitListenerContainerFactory paymentBatchListenerFactory(
+            ConnectionFactory connectionFactory,
+            @Value("${payment.listener.batch-size:50}") int batchSize,
+            @Value("${payment.listener.receive-timeout-ms:200}") long receiveTimeout) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setMessageConverter(messageConverter());
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setPrefetchCount(batchSize);
+        factory.setReceiveTimeout(receiveTimeout);
+        return factory;
+    }
+
     @Bean
     public MessageConverter messageConverter() {
         return new Jackson2JsonMessageConverter();
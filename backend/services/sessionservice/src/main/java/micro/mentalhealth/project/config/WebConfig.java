@@ -1,7 +1,11 @@
 package micro.mentalhealth.project.config;
 
+import micro.mentalhealth.project.controller.RecordingController;
+import micro.mentalhealth.project.controller.SeanceController;
+import micro.mentalhealth.project.service.IdempotencyService;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
@@ -40,6 +44,11 @@ public class WebConfig implements WebMvcConfigurer {
         // Autorise tous les en-têtes
         configuration.setAllowedHeaders(List.of("*"));
 
+        // Lets the frontend read the cursor of the next page on list endpoints, tell replayed bookings apart,
+        // resume recording uploads and seek in recordings
+        configuration.setExposedHeaders(List.of(SeanceController.NEXT_CURSOR_HEADER, IdempotencyService.REPLAYED_HEADER,
+                RecordingController.UPLOAD_OFFSET_HEADER, HttpHeaders.CONTENT_RANGE, HttpHeaders.ACCEPT_RANGES));
+
         // Autorise les cookies si nécessaire
         configuration.setAllowCredentials(true);
 
@@ -0,0 +1,167 @@
+package micro.mentalhealth.project.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import micro.mentalhealth.project.dto.RecordingUploadDTO;
+import micro.mentalhealth.project.service.RecordingService;
+import micro.mentalhealth.project.service.RecordingService.OffsetConflictException;
+import micro.mentalhealth.project.service.RecordingService.Recording;
+import org.apache.catalina.Globals;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.UUID;
+
+/**
+ * Resumable upload and ranged playback of session recordings.
+ */
+@RestController
+@RequestMapping("/api/seances")
+public class RecordingController {
+    public static final String UPLOAD_OFFSET_HEADER = "Upload-Offset";
+
+    @Autowired
+    private RecordingService recordingService;
+
+    /**
+     * Start uploading a recording of {@code totalSize} bytes; the chunks are then sent to the returned upload.
+     */
+    @PostMapping("/{id}/recording/uploads")
+    public ResponseEntity<RecordingUploadDTO> demarrerUpload(
+            @PathVariable UUID id,
+            @RequestParam long totalSize,
+            @RequestParam String contentType
+    ) {
+        try {
+            return ResponseEntity.ok(recordingService.demarrerUpload(id, totalSize, contentType));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(null);
+        }
+    }
+
+    /**
+     * Where an interrupted upload should resume.
+     */
+    @GetMapping("/recording/uploads/{uploadId}")
+    public ResponseEntity<RecordingUploadDTO> getUpload(@PathVariable UUID uploadId) {
+        try {
+            return ResponseEntity.ok(recordingService.getUpload(uploadId));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Append the raw request body to the upload at the {@value #UPLOAD_OFFSET_HEADER} offset. A chunk sent at
+     * the wrong offset gets 409 with the offset to resume from in the same header.
+     */
+    @PutMapping("/recording/uploads/{uploadId}")
+    public ResponseEntity<RecordingUploadDTO> ecrireMorceau(
+            @PathVariable UUID uploadId,
+            @RequestHeader(UPLOAD_OFFSET_HEADER) long offset,
+            HttpServletRequest request
+    ) throws IOException {
+        try {
+            return ResponseEntity.ok(recordingService.ecrireMorceau(uploadId, offset, request.getInputStream()));
+        } catch (OffsetConflictException ex) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .header(UPLOAD_OFFSET_HEADER, String.valueOf(ex.getCurrentOffset()))
+                    .build();
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(null);
+        } catch (IllegalStateException ex) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    /**
+     * Play the recording, whole or a single {@code Range} of it. The file is handed to the connector's
+     * sendfile when it supports it, and otherwise copied with {@link FileChannel#transferTo}.
+     */
+    @GetMapping("/{id}/recording")
+    public void lireEnregistrement(@PathVariable UUID id, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        Recording recording;
+        try {
+            recording = recordingService.ouvrirEnregistrement(id);
+        } catch (IllegalArgumentException ex) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        } catch (IllegalStateException ex) {
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            return;
+        }
+        long size = recording.size();
+        long start = 0;
+        long end = size - 1;
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setContentType(recording.contentType());
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null) {
+            long[] bounds = parseRange(range, size);
+            if (bounds == null) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            start = bounds[0];
+            end = bounds[1];
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+        }
+        long length = end - start + 1;
+        response.setContentLengthLong(length);
+        if ("HEAD".equals(request.getMethod())) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(Globals.SENDFILE_SUPPORTED_ATTR))) {
+            // The connector writes the file to the socket itself once this method returns
+            request.setAttribute(Globals.SENDFILE_FILENAME_ATTR, recording.file().toString());
+            request.setAttribute(Globals.SENDFILE_FILE_START_ATTR, start);
+            request.setAttribute(Globals.SENDFILE_FILE_END_ATTR, end + 1);
+            return;
+        }
+        try (FileChannel file = FileChannel.open(recording.file())) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position <= end) {
+                position += file.transferTo(position, end + 1 - position, out);
+            }
+        }
+    }
+
+    // Bounds of a single "bytes=" range, inclusive, or null if it cannot be served; several ranges are not supported
+    static long[] parseRange(String header, long size) {
+        if (!header.startsWith("bytes=") || header.contains(",") || size == 0) {
+            return null;
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                // "bytes=-n": the last n bytes
+                long suffix = Long.parseLong(last);
+                return suffix > 0 ? new long[]{Math.max(0, size - suffix), size - 1} : null;
+            }
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? size - 1 : Math.min(Long.parseLong(last), size - 1);
+            return start <= end && start < size ? new long[]{start, end} : null;
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+}
@@ -1,28 +1,81 @@
 package micro.mentalhealth.project.controller;
 
 import lombok.RequiredArgsConstructor;
+import micro.mentalhealth.project.dto.AvailabilityMatrixDTO;
+import micro.mentalhealth.project.dto.AvailabilityMatrixRequest;
+import micro.mentalhealth.project.dto.CursorPage;
+import micro.mentalhealth.project.dto.MatchDTO;
+import micro.mentalhealth.project.dto.MatchingRequest;
+import micro.mentalhealth.project.dto.NoteSearchResultDTO;
+import micro.mentalhealth.project.dto.PriceQuoteDTO;
+import micro.mentalhealth.project.dto.SeanceListFilter;
+import micro.mentalhealth.project.dto.SeanceSummaryDTO;
+import micro.mentalhealth.project.dto.SeriesBookingRequest;
+import micro.mentalhealth.project.dto.SeriesOccurrenceResult;
 import micro.mentalhealth.project.dto.SeanceDTO;
+import micro.mentalhealth.project.dto.TherapistStatsDTO;
+import micro.mentalhealth.project.model.StatutSeance;
 import micro.mentalhealth.project.model.TypeSeance;
+import micro.mentalhealth.project.service.FreeSlotService;
+import micro.mentalhealth.project.service.MatchingService;
+import micro.mentalhealth.project.service.GroupSeanceService;
+import micro.mentalhealth.project.service.IdempotencyService;
+import micro.mentalhealth.project.service.PriceQuoteService;
+import micro.mentalhealth.project.service.SeanceNoteService;
 import micro.mentalhealth.project.service.SeanceService;
+import micro.mentalhealth.project.service.SeriesBookingService;
+import micro.mentalhealth.project.service.TherapistStatsService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/seances")
 @RequiredArgsConstructor
 public class SeanceController {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     @Autowired
     private  SeanceService seanceService;
+    @Autowired
+    private FreeSlotService freeSlotService;
+    @Autowired
+    private MatchingService matchingService;
+    @Autowired
+    private SeriesBookingService seriesBookingService;
+    @Autowired
+    private TherapistStatsService therapistStatsService;
+    @Autowired
+    private PriceQuoteService priceQuoteService;
+    @Autowired
+    private IdempotencyService idempotencyService;
+    @Autowired
+    private GroupSeanceService groupSeanceService;
+    @Autowired
+    private SeanceNoteService seanceNoteService;
 
+    /**
+     * Séances page by page, without notes, optionally filtered by status and by a start-time window. The body is
+     * the page itself; the cursor of the next page, if any, comes in the {@value #NEXT_CURSOR_HEADER} header.
+     * Pages hold {@code limit} séances, {@value SeanceService#DEFAULT_PAGE_SIZE} by default.
+     */
     @GetMapping
-    public List<SeanceDTO> getAllSeances() {
-        return seanceService.getAllSeances();
+    public ResponseEntity<List<SeanceSummaryDTO>> getAllSeances(
+            @RequestParam(required = false) StatutSeance statut,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return listSeances(new SeanceListFilter(null, null, statut, from, to), cursor, limit);
     }
 
     @GetMapping("/{id}")
@@ -33,8 +86,15 @@ public class SeanceController {
     }
 
     @GetMapping("/therapeute/{therapeuteId}")
-    public List<SeanceDTO> getSeancesByTherapeuteId(@PathVariable UUID therapeuteId) {
-        return seanceService.getSeancesByTherapeuteId(therapeuteId);
+    public ResponseEntity<List<SeanceSummaryDTO>> getSeancesByTherapeuteId(
+            @PathVariable UUID therapeuteId,
+            @RequestParam(required = false) StatutSeance statut,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return listSeances(new SeanceListFilter(therapeuteId, null, statut, from, to), cursor, limit);
     }
 
     @GetMapping("/therapeute/{therapistId}/patient-count")
@@ -43,9 +103,107 @@ public class SeanceController {
         return ResponseEntity.ok(count);
     }
 
+    /**
+     * Dashboard counters of the therapist, read from the maintained statistics row.
+     */
+    @GetMapping("/therapeute/{therapistId}/stats")
+    public ResponseEntity<TherapistStatsDTO> getTherapistStats(@PathVariable UUID therapistId) {
+        return ResponseEntity.ok(therapistStatsService.getStats(therapistId));
+    }
+
+    /**
+     * Séances of the therapist whose note contains every word of {@code q}, most recent first, each with an excerpt.
+     */
+    @GetMapping("/therapeute/{therapistId}/notes/search")
+    public ResponseEntity<List<NoteSearchResultDTO>> searchNotes(
+            @PathVariable UUID therapistId,
+            @RequestParam String q,
+            @RequestParam(defaultValue = "" + SeanceNoteService.DEFAULT_SEARCH_LIMIT) int limit
+    ) {
+        try {
+            return ResponseEntity.ok(seanceNoteService.rechercher(therapistId, q, limit));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(null);
+        }
+    }
+
+    /**
+     * The notes of the given séances, keyed by séance, for list views that show them: the lists themselves omit notes.
+     */
+    @PostMapping("/notes/batch")
+    public ResponseEntity<Map<UUID, String>> getNotes(@RequestBody List<UUID> seanceIds) {
+        try {
+            return ResponseEntity.ok(seanceNoteService.getNotes(seanceIds));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(null);
+        }
+    }
+
+    /**
+     * Bookable start times for the therapist between {@code from} and {@code to}.
+     */
+    @GetMapping("/therapeute/{therapistId}/free-slots")
+    public ResponseEntity<List<LocalDateTime>> getFreeSlots(
+            @PathVariable UUID therapistId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam int duration,
+            @RequestParam(defaultValue = "" + FreeSlotService.DEFAULT_STEP_MINUTES) int step
+    ) {
+        try {
+            return ResponseEntity.ok(freeSlotService.findFreeSlots(therapistId, from, to, duration, step));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(null);
+        }
+    }
+
+    /**
+     * Availability bitmaps and next available slot for a page of therapists at once.
+     */
+    @PostMapping("/availability/batch")
+    public ResponseEntity<AvailabilityMatrixDTO> getAvailabilityMatrix(@RequestBody AvailabilityMatrixRequest request) {
+        try {
+            return ResponseEntity.ok(freeSlotService.buildAvailabilityMatrix(request));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(null);
+        }
+    }
+
+    /**
+     * The best therapists for the patient's criteria, each with the earliest time they can be booked.
+     */
+    @PostMapping("/matching")
+    public ResponseEntity<List<MatchDTO>> match(@RequestBody MatchingRequest request) {
+        try {
+            return ResponseEntity.ok(matchingService.match(request));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(null);
+        }
+    }
+
     @GetMapping("/patient/{patientId}")
-    public List<SeanceDTO> getSeancesByPatientId(@PathVariable UUID patientId) {
-        return seanceService.getSeancesByPatientId(patientId);
+    public ResponseEntity<List<SeanceSummaryDTO>> getSeancesByPatientId(
+            @PathVariable UUID patientId,
+            @RequestParam(required = false) StatutSeance statut,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return listSeances(new SeanceListFilter(null, patientId, statut, from, to), cursor, limit);
+    }
+
+    private ResponseEntity<List<SeanceSummaryDTO>> listSeances(SeanceListFilter filter, String cursor, Integer limit) {
+        try {
+            CursorPage<SeanceSummaryDTO> page = seanceService.listSeances(filter, cursor, limit);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.getNextCursor() != null) {
+                response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+            }
+            return response.body(page.getItems());
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(null);
+        }
     }
 
     @PostMapping
@@ -63,16 +221,38 @@ public class SeanceController {
         seanceService.deleteSeance(id);
     }
 
+    /**
+     * Price of a séance before it is booked. It cannot be paid with: see {@link #quotePendingSeance}.
+     */
     @GetMapping("/preview-price")
-    public ResponseEntity<Float> previewPrice(
+    public ResponseEntity<PriceQuoteDTO> previewPrice(
             @RequestParam UUID therapistId,
             @RequestParam int dureeMinutes) {
-        float amount = seanceService.calculateAmount(therapistId, dureeMinutes);
-        return ResponseEntity.ok(amount);
+        try {
+            return ResponseEntity.ok(priceQuoteService.estimate(therapistId, dureeMinutes));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(null);
+        }
+    }
+
+    /**
+     * Price of a séance awaiting payment with a signed, short-lived quote token to hand to payment-service,
+     * for holds made without {@code /pending} (waitlist offers, series occurrences): {@code /pending}
+     * already returns the quote with the séance.
+     */
+    @GetMapping("/{id}/price-quote")
+    public ResponseEntity<PriceQuoteDTO> quotePendingSeance(@PathVariable UUID id) {
+        try {
+            return ResponseEntity.ok(priceQuoteService.quote(id));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(null);
+        }
     }
 
     /**
      * Create a pending seance before payment (you should expose this endpoint to create the seance in EN_ATTENTE_PAIEMENT status).
+     * The response carries the signed price quote to pay it with.
+     * Retries sent with the same {@value #IDEMPOTENCY_KEY_HEADER} get the first response back instead of booking again.
      */
     @PostMapping("/pending")
     public ResponseEntity<SeanceDTO> createPendingSeance(
@@ -80,35 +260,103 @@ public class SeanceController {
             @RequestParam UUID patientId,
             @RequestParam String dateTime,
             @RequestParam int dureeMinutes,
-            @RequestParam TypeSeance typeSeance
+            @RequestParam TypeSeance typeSeance,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey
     ) {
+        return idempotencyService.execute("pending", idempotencyKey, SeanceDTO.class, () -> {
+            try {
+                LocalDateTime dt = LocalDateTime.parse(dateTime);
+                SeanceDTO seanceDTO = priceQuoteService.reserve(therapistId, patientId, dt, dureeMinutes, typeSeance);
+                return ResponseEntity.ok(seanceDTO);
+            } catch (IllegalArgumentException | DateTimeParseException ex) {
+                return ResponseEntity.badRequest().body(null);
+            } catch (RuntimeException ex) {
+                // Lock timeout, open breaker or therapeute-service down: a 5xx is not stored, so a retry runs again
+                return ResponseEntity.status(503).body(null);
+            }
+        }, therapistId, patientId, dateTime, dureeMinutes, typeSeance);
+    }
+
+    /**
+     * Reserve a recurring series of pending séances in one call; each occurrence reports whether it was reserved.
+     */
+    @PostMapping("/series")
+    public ResponseEntity<List<SeriesOccurrenceResult>> bookSeries(@RequestBody SeriesBookingRequest request) {
         try {
-            LocalDateTime dt = LocalDateTime.parse(dateTime);
-            SeanceDTO seanceDTO = seanceService.createPendingSeance(therapistId, patientId, dt, dureeMinutes, typeSeance);
-            return ResponseEntity.ok(seanceDTO);
+            return ResponseEntity.ok(seriesBookingService.bookSeries(request));
         } catch (RuntimeException ex) {
             return ResponseEntity.badRequest().body(null);
         }
     }
 
     /**
-     * Confirm seance after payment is done (only needs seanceId and paymentId now).
+     * Open a group séance of {@code capacite} places in a free slot of the therapist.
      */
-    @PostMapping("/confirm")
-    public ResponseEntity<SeanceDTO> confirmSeance(
-            @RequestParam UUID seanceId,
-            @RequestParam UUID paymentId
+    @PostMapping("/groupes")
+    public ResponseEntity<SeanceDTO> creerSeanceGroupe(
+            @RequestParam UUID therapistId,
+            @RequestParam String dateTime,
+            @RequestParam int dureeMinutes,
+            @RequestParam TypeSeance typeSeance,
+            @RequestParam int capacite
     ) {
         try {
-            SeanceDTO seanceDTO = seanceService.confirmSeanceAfterPayment(seanceId, paymentId);
-            return ResponseEntity.ok(seanceDTO);
-        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            return ResponseEntity.ok(groupSeanceService.creerSeanceGroupe(
+                    therapistId, LocalDateTime.parse(dateTime), dureeMinutes, typeSeance, capacite));
+        } catch (RuntimeException ex) {
             return ResponseEntity.badRequest().body(null);
-        } catch (Exception ex) {
-            return ResponseEntity.status(500).body(null);
         }
     }
 
+    @GetMapping("/{id}/participants")
+    public ResponseEntity<List<UUID>> getParticipants(@PathVariable UUID id) {
+        return ResponseEntity.ok(groupSeanceService.getParticipants(id));
+    }
+
+    /**
+     * Take a place in a group séance; refused once it is full.
+     */
+    @PostMapping("/{id}/participants")
+    public ResponseEntity<SeanceDTO> reserverPlace(@PathVariable UUID id, @RequestParam UUID patientId) {
+        try {
+            return ResponseEntity.ok(groupSeanceService.reserverPlace(id, patientId));
+        } catch (RuntimeException ex) {
+            return ResponseEntity.badRequest().body(null);
+        }
+    }
+
+    @DeleteMapping("/{id}/participants/{patientId}")
+    public ResponseEntity<Void> annulerPlace(@PathVariable UUID id, @PathVariable UUID patientId) {
+        try {
+            groupSeanceService.annulerPlace(id, patientId);
+            return ResponseEntity.noContent().build();
+        } catch (RuntimeException ex) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Confirm seance after payment is done (only needs seanceId and paymentId now). Retries sent with the
+     * same {@value #IDEMPOTENCY_KEY_HEADER} get the first response back.
+     */
+    @PostMapping("/confirm")
+    public ResponseEntity<SeanceDTO> confirmSeance(
+            @RequestParam UUID seanceId,
+            @RequestParam UUID paymentId,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey
+    ) {
+        return idempotencyService.execute("confirm", idempotencyKey, SeanceDTO.class, () -> {
+            try {
+                SeanceDTO seanceDTO = seanceService.confirmSeanceAfterPayment(seanceId, paymentId);
+                return ResponseEntity.ok(seanceDTO);
+            } catch (IllegalArgumentException | DateTimeParseException ex) {
+                return ResponseEntity.badRequest().body(null);
+            } catch (Exception ex) {
+                return ResponseEntity.status(500).body(null);
+            }
+        }, seanceId, paymentId);
+    }
+
     @PutMapping("/{id}/note")
     public SeanceDTO ajouterNoteTherapeute(@PathVariable UUID id, @RequestBody String note) {
         return seanceService.ajouterNote(id, note);
@@ -119,6 +367,18 @@ public class SeanceController {
         return seanceService.annulerSeance(id, motif);
     }
 
+    /**
+     * Move a planned séance to another free slot of the same therapist, keeping its payment.
+     */
+    @PutMapping("/{id}/reschedule")
+    public ResponseEntity<SeanceDTO> replanifierSeance(@PathVariable UUID id, @RequestParam String dateTime) {
+        try {
+            return ResponseEntity.ok(seanceService.replanifierSeance(id, LocalDateTime.parse(dateTime)));
+        } catch (RuntimeException ex) {
+            return ResponseEntity.badRequest().body(null);
+        }
+    }
+
     @PutMapping("/{id}/terminer")
     public SeanceDTO terminerSeance(@PathVariable UUID id) {
         return seanceService.terminerSeance(id);
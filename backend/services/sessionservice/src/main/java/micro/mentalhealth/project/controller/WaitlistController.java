@@ -0,0 +1,46 @@
+package micro.mentalhealth.project.controller;
+
+import micro.mentalhealth.project.dto.WaitlistEntryDTO;
+import micro.mentalhealth.project.dto.WaitlistRequest;
+import micro.mentalhealth.project.service.WaitlistService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Waitlists of fully booked therapists: patients are offered a freed slot instead of polling for one.
+ */
+@RestController
+@RequestMapping("/api/seances/waitlist")
+public class WaitlistController {
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    @PostMapping
+    public ResponseEntity<WaitlistEntryDTO> inscrire(@RequestBody WaitlistRequest request) {
+        try {
+            return ResponseEntity.ok(waitlistService.inscrire(request));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(null);
+        }
+    }
+
+    @GetMapping("/patient/{patientId}")
+    public ResponseEntity<List<WaitlistEntryDTO>> getEntriesForPatient(@PathVariable UUID patientId) {
+        return ResponseEntity.ok(waitlistService.getEntriesForPatient(patientId));
+    }
+
+    @DeleteMapping("/{entryId}")
+    public ResponseEntity<Void> quitter(@PathVariable UUID entryId) {
+        try {
+            waitlistService.quitter(entryId);
+            return ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package micro.mentalhealth.project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Availability of several therapists over the same window, one bit per cell of
+ * {@code granularityMinutes}: bit {@code i} (word {@code i / 64}, bit {@code i % 64}) is set when
+ * {@code [from + i * granularity, from + (i + 1) * granularity)} is free.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityMatrixDTO {
+    private LocalDateTime from;
+    private int granularityMinutes;
+    private int slotCount;
+    private Map<UUID, long[]> bitmaps;
+    private Map<UUID, LocalDateTime> nextAvailable;
+}
@@ -0,0 +1,19 @@
+package micro.mentalhealth.project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityMatrixRequest {
+    private List<UUID> therapistIds;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private int dureeMinutes; // optional, used to compute the next available slot of each therapist
+}
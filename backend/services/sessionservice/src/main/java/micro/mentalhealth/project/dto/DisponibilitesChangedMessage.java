@@ -0,0 +1,18 @@
+package micro.mentalhealth.project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DisponibilitesChangedMessage {
+    private UUID therapeuteId;
+    private List<DisponibiliteDTO> disponibilites;
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,17 @@
+package micro.mentalhealth.project.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A proposed therapist and the earliest time they can be booked in the patient's windows.
+ * {@code score} is between 0 and 1, higher is better.
+ */
+public record MatchDTO(
+        UUID therapistId,
+        LocalDateTime debut,
+        int dureeMinutes,
+        float prix,
+        double score
+) {
+}
@@ -0,0 +1,28 @@
+package micro.mentalhealth.project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MatchingRequest {
+    private String specialite; // optional
+    private String langue; // optional
+    private Float budget; // optional, maximum price of the séance
+    private int dureeMinutes;
+    private List<TimeWindow> fenetres; // preferred times, at least one
+    private Integer k; // optional, number of proposals
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TimeWindow {
+        private LocalDateTime from;
+        private LocalDateTime to;
+    }
+}
@@ -0,0 +1,15 @@
+package micro.mentalhealth.project.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A séance whose note matched a search, with the passage of the note around the first match.
+ */
+public record NoteSearchResultDTO(
+        UUID seanceId,
+        UUID patientId,
+        LocalDateTime dateHeure,
+        String extrait
+) {
+}
@@ -0,0 +1,23 @@
+package micro.mentalhealth.project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Sent by payment-service once the payment of a séance has succeeded.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentSucceededMessage {
+    private UUID paymentId;
+    private UUID seanceId;
+    private UUID patientId;
+    private UUID therapistId;
+    private Float amount;
+    private LocalDateTime paidAt;
+}
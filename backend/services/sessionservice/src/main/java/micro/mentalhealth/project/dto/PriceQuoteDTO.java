@@ -0,0 +1,19 @@
+package micro.mentalhealth.project.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Price of a séance as quoted to the patient. {@code token} signs the other fields and is what
+ * payment-service accepts as the amount to charge for {@code seanceId}, until {@code expiresAt}.
+ * A price estimate made before any séance is booked has neither a séance nor a token.
+ */
+public record PriceQuoteDTO(
+        UUID seanceId,
+        UUID therapistId,
+        int dureeMinutes,
+        float amount,
+        Instant expiresAt,
+        String token
+) {
+}
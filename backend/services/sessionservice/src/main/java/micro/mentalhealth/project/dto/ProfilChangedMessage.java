@@ -0,0 +1,22 @@
+package micro.mentalhealth.project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProfilChangedMessage {
+    private UUID therapeuteId;
+    private List<String> specialites;
+    private List<String> languesParlees;
+    private Double prixParHeure;
+    private Integer anneesExperience;
+    private boolean actif;
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,17 @@
+package micro.mentalhealth.project.dto;
+
+import micro.mentalhealth.project.model.StatutEnregistrement;
+
+import java.util.UUID;
+
+/**
+ * Progress of a recording upload. The next chunk must start at {@code receivedBytes}.
+ */
+public record RecordingUploadDTO(
+        UUID uploadId,
+        UUID seanceId,
+        long totalSize,
+        long receivedBytes,
+        StatutEnregistrement statut
+) {
+}
@@ -15,8 +15,11 @@ public class SeanceDTO {
     private String lienVisio;
     private String urlEnregistrement;
     private String noteTherapeute;
+    private Integer capacite;
+    private int placesReservees;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private PriceQuoteDTO quote; // only when the séance has just been reserved for payment
 
     public SeanceDTO() {}
 
@@ -120,6 +123,22 @@ public class SeanceDTO {
         this.noteTherapeute = noteTherapeute;
     }
 
+    public Integer getCapacite() {
+        return capacite;
+    }
+
+    public void setCapacite(Integer capacite) {
+        this.capacite = capacite;
+    }
+
+    public int getPlacesReservees() {
+        return placesReservees;
+    }
+
+    public void setPlacesReservees(int placesReservees) {
+        this.placesReservees = placesReservees;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -135,4 +154,12 @@ public class SeanceDTO {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+
+    public PriceQuoteDTO getQuote() {
+        return quote;
+    }
+
+    public void setQuote(PriceQuoteDTO quote) {
+        this.quote = quote;
+    }
 }
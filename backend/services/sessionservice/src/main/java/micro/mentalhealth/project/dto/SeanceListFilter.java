@@ -0,0 +1,24 @@
+package micro.mentalhealth.project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import micro.mentalhealth.project.model.StatutSeance;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Criteria of a séance listing. Every field is optional; {@code from} is inclusive and {@code to}
+ * exclusive, both on the start time of the séance.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeanceListFilter {
+    private UUID therapeuteId;
+    private UUID patientId;
+    private StatutSeance statut;
+    private LocalDateTime from;
+    private LocalDateTime to;
+}
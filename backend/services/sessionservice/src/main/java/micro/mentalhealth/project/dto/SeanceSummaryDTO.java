@@ -0,0 +1,29 @@
+package micro.mentalhealth.project.dto;
+
+import micro.mentalhealth.project.model.StatutSeance;
+import micro.mentalhealth.project.model.TypeSeance;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Scheduling columns of a séance, as shown by list and calendar views. The therapist's note is
+ * left out; it is only returned by {@code GET /api/seances/{id}}. {@code patientId} is null for a
+ * group séance, which has a {@code capacite} instead.
+ */
+public record SeanceSummaryDTO(
+        UUID seanceId,
+        UUID therapeuteId,
+        UUID patientId,
+        LocalDateTime dateHeure,
+        int dureeMinutes,
+        TypeSeance typeSeance,
+        StatutSeance statutSeance,
+        String lienVisio,
+        String urlEnregistrement,
+        Integer capacite,
+        int placesReservees,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt
+) {
+}
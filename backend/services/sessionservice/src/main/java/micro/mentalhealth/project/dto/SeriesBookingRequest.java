@@ -0,0 +1,26 @@
+package micro.mentalhealth.project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import micro.mentalhealth.project.model.TypeSeance;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A series of {@code occurrences} séances at the same time of day, {@code intervalWeeks} weeks
+ * apart, starting at {@code firstDateTime}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeriesBookingRequest {
+    private UUID therapistId;
+    private UUID patientId;
+    private LocalDateTime firstDateTime;
+    private int dureeMinutes;
+    private TypeSeance typeSeance;
+    private int occurrences;
+    private int intervalWeeks = 1;
+}
@@ -0,0 +1,29 @@
+package micro.mentalhealth.project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Outcome of one occurrence of a series: the reserved séance, or the reason it was refused.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeriesOccurrenceResult {
+    private LocalDateTime dateHeure;
+    private boolean reserved;
+    private UUID seanceId;
+    private String motif;
+
+    public static SeriesOccurrenceResult reserved(LocalDateTime dateHeure, UUID seanceId) {
+        return new SeriesOccurrenceResult(dateHeure, true, seanceId, null);
+    }
+
+    public static SeriesOccurrenceResult refused(LocalDateTime dateHeure, String motif) {
+        return new SeriesOccurrenceResult(dateHeure, false, null, motif);
+    }
+}
@@ -0,0 +1,19 @@
+package micro.mentalhealth.project.dto;
+
+import java.util.UUID;
+
+/**
+ * Dashboard counters of a therapist. {@code upcoming} counts the PLANIFIEE séances, which the
+ * completion job moves to TERMINEE shortly after they end.
+ */
+public record TherapistStatsDTO(
+        UUID therapeuteId,
+        long enAttentePaiement,
+        long planifiees,
+        long terminees,
+        long annulees,
+        long distinctPatients,
+        long upcoming,
+        long minutesDelivered
+) {
+}
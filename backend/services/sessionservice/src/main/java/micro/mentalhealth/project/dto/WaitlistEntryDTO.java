@@ -0,0 +1,21 @@
+package micro.mentalhealth.project.dto;
+
+import micro.mentalhealth.project.model.StatutAttente;
+import micro.mentalhealth.project.model.TypeSeance;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record WaitlistEntryDTO(
+        UUID entryId,
+        UUID patientId,
+        UUID therapeuteId,
+        LocalDateTime from,
+        LocalDateTime to,
+        int dureeMinutes,
+        TypeSeance typeSeance,
+        StatutAttente statut,
+        UUID seanceOffertId,
+        LocalDateTime createdAt
+) {
+}
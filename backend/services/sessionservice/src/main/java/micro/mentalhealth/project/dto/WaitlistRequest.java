@@ -0,0 +1,21 @@
+package micro.mentalhealth.project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import micro.mentalhealth.project.model.TypeSeance;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitlistRequest {
+    private UUID therapeuteId;
+    private UUID patientId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private int dureeMinutes;
+    private TypeSeance typeSeance;
+}
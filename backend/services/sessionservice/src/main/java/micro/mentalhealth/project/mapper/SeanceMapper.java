@@ -24,10 +24,11 @@ public class SeanceMapper {
         dto.setStatutSeance(seance.getStatutSeance().name());
         dto.setLienVisio(seance.getLienVisio() != null ? seance.getLienVisio().getUrl() : null);
         dto.setUrlEnregistrement(seance.getUrlEnregistrement());
-        dto.setNoteTherapeute(seance.getNoteTherapeute());
         dto.setCreatedAt(seance.getCreatedAt());
         dto.setUpdatedAt(seance.getUpdatedAt());
         dto.setDureeMinutes(seance.getDureeMinutes()); // ajout du champ
+        dto.setCapacite(seance.getCapacite());
+        dto.setPlacesReservees(seance.getPlacesReservees());
         return dto;
     }
 
@@ -41,10 +42,10 @@ public class SeanceMapper {
                 .statutSeance(StatutSeance.valueOf(dto.getStatutSeance()))
                 .lienVisio(dto.getLienVisio() != null ? new LienVisio(dto.getLienVisio()) : null)
                 .urlEnregistrement(dto.getUrlEnregistrement())
-                .noteTherapeute(dto.getNoteTherapeute())
                 .createdAt(dto.getCreatedAt())
                 .updatedAt(dto.getUpdatedAt())
                 .dureeMinutes(dto.getDureeMinutes()) // ajout du champ
+                .capacite(dto.getCapacite())
                 .build();
     }
 
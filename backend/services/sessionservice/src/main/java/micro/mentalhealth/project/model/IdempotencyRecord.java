@@ -0,0 +1,78 @@
+package micro.mentalhealth.project.model;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outcome of a request sent with an {@code Idempotency-Key}, replayed to retries of that request
+ * until {@code expiresAt}. A row without a status is a claim: the first request is still running.
+ */
+@Entity
+@Table(name = "idempotency_records", indexes = {
+        @Index(name = "idx_idempotency_expires", columnList = "expires_at")
+})
+public class IdempotencyRecord implements Persistable<String> {
+
+    // Endpoint and client key, e.g. "pending:3f1c..."
+    @Id
+    @Column(nullable = false, length = 200)
+    private String id;
+
+    // Hash of the request parameters, so a key reused for another request is refused
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    private Integer statusCode;
+
+    @Column(columnDefinition = "TEXT")
+    private String responseBody;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    // Makes save() insert, so two claims of the same key collide on the primary key instead of merging
+    @Transient
+    private boolean isNew = true;
+
+    public IdempotencyRecord() {}
+
+    public IdempotencyRecord(String id, String fingerprint, LocalDateTime createdAt, LocalDateTime expiresAt) {
+        this.id = id;
+        this.fingerprint = fingerprint;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+    }
+
+    @Override
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getFingerprint() { return fingerprint; }
+    public void setFingerprint(String fingerprint) { this.fingerprint = fingerprint; }
+
+    public Integer getStatusCode() { return statusCode; }
+    public void setStatusCode(Integer statusCode) { this.statusCode = statusCode; }
+
+    public String getResponseBody() { return responseBody; }
+    public void setResponseBody(String responseBody) { this.responseBody = responseBody; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+
+    @Override
+    public boolean isNew() { return isNew; }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        isNew = false;
+    }
+}
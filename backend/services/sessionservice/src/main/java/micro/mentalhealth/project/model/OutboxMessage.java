@@ -0,0 +1,66 @@
+package micro.mentalhealth.project.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A RabbitMQ message written in the same transaction as the change it announces, and published by
+ * the outbox relay once that transaction has committed. Rows are deleted as soon as the broker has
+ * confirmed them.
+ */
+@Entity
+@Table(name = "outbox_messages", indexes = {
+        @Index(name = "idx_outbox_created", columnList = "created_at")
+})
+public class OutboxMessage {
+
+    @Id
+    @GeneratedValue
+    @Column(nullable = false)
+    private UUID id;
+
+    @Column(nullable = false)
+    private String exchange;
+
+    @Column(nullable = false)
+    private String routingKey;
+
+    // Type id header set by the JSON converter, so consumers see exactly what a direct send produced
+    private String payloadType;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    public OutboxMessage() {}
+
+    public OutboxMessage(String exchange, String routingKey, String payloadType, String payload) {
+        this.exchange = exchange;
+        this.routingKey = routingKey;
+        this.payloadType = payloadType;
+        this.payload = payload;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+
+    public String getExchange() { return exchange; }
+    public void setExchange(String exchange) { this.exchange = exchange; }
+
+    public String getRoutingKey() { return routingKey; }
+    public void setRoutingKey(String routingKey) { this.routingKey = routingKey; }
+
+    public String getPayloadType() { return payloadType; }
+    public void setPayloadType(String payloadType) { this.payloadType = payloadType; }
+
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
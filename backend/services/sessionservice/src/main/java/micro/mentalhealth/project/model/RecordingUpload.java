@@ -0,0 +1,86 @@
+package micro.mentalhealth.project.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A recording being uploaded for a séance, chunk by chunk. {@code receivedBytes} is what has been
+ * written to disk and flushed, so an interrupted upload resumes from there.
+ */
+@Entity
+@Table(name = "recording_uploads", indexes = {
+        @Index(name = "idx_recording_uploads_seance", columnList = "seance_id, statut"),
+        // Lets the cleanup job find abandoned uploads
+        @Index(name = "idx_recording_uploads_statut_updated", columnList = "statut, updated_at")
+})
+public class RecordingUpload {
+
+    @Id
+    @GeneratedValue
+    private UUID uploadId;
+
+    @Column(nullable = false)
+    private UUID seanceId;
+
+    @Column(nullable = false)
+    private long totalSize;
+
+    private long receivedBytes;
+
+    @Column(nullable = false, length = 100)
+    private String contentType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private StatutEnregistrement statut;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    public RecordingUpload() {}
+
+    public RecordingUpload(UUID seanceId, long totalSize, String contentType) {
+        this.seanceId = seanceId;
+        this.totalSize = totalSize;
+        this.contentType = contentType;
+        this.statut = StatutEnregistrement.EN_COURS;
+    }
+
+    public UUID getUploadId() { return uploadId; }
+    public void setUploadId(UUID uploadId) { this.uploadId = uploadId; }
+
+    public UUID getSeanceId() { return seanceId; }
+    public void setSeanceId(UUID seanceId) { this.seanceId = seanceId; }
+
+    public long getTotalSize() { return totalSize; }
+    public void setTotalSize(long totalSize) { this.totalSize = totalSize; }
+
+    public long getReceivedBytes() { return receivedBytes; }
+    public void setReceivedBytes(long receivedBytes) { this.receivedBytes = receivedBytes; }
+
+    public String getContentType() { return contentType; }
+    public void setContentType(String contentType) { this.contentType = contentType; }
+
+    public StatutEnregistrement getStatut() { return statut; }
+    public void setStatut(StatutEnregistrement statut) { this.statut = statut; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    @PrePersist
+    public void prePersist() {
+        createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+    }
+
+    @PreUpdate
+    public void preUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -6,7 +6,20 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "seances")
+@Table(name = "seances", indexes = {
+        // Lets the hold expiry job find stale EN_ATTENTE_PAIEMENT séances without a full scan
+        @Index(name = "idx_seances_statut_created", columnList = "statut_seance, created_at"),
+        // Lets the completion job range-scan PLANIFIEE séances that have already ended
+        @Index(name = "idx_seances_statut_fin", columnList = "statut_seance, date_fin"),
+        // Lets the reminder scheduler range-scan the PLANIFIEE séances of the next hours
+        @Index(name = "idx_seances_statut_debut", columnList = "statut_seance, date_heure"),
+        // Keyset pagination of the séance listings, in (date_heure, seance_id) order
+        @Index(name = "idx_seances_therapeute_keyset", columnList = "therapeute_id, date_heure, seance_id"),
+        @Index(name = "idx_seances_patient_keyset", columnList = "patient_id, date_heure, seance_id"),
+        @Index(name = "idx_seances_keyset", columnList = "date_heure, seance_id"),
+        // Overlap checks: date_heure < :fin AND date_fin > :debut for one therapist
+        @Index(name = "idx_seances_therapeute_interval", columnList = "therapeute_id, date_heure, date_fin")
+})
 public class Seance {
 
     @Id
@@ -17,7 +30,7 @@ public class Seance {
     @Column(nullable = false)
     private UUID therapeuteId;
 
-    @Column(nullable = false)
+    // Null for a group séance, whose patients are its SeanceParticipant rows
     private UUID patientId;
 
     @Column(nullable = false)
@@ -26,6 +39,9 @@ public class Seance {
     @Column(nullable = false)
     private int dureeMinutes;
 
+    // dateHeure + dureeMinutes, stored so that overlap queries compare plain columns
+    private LocalDateTime dateFin;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private TypeSeance typeSeance;
@@ -39,6 +55,7 @@ public class Seance {
 
     private String urlEnregistrement;
 
+    // Legacy inline note: notes now live in seance_notes, and SeanceNoteMigration empties this column
     @Column(columnDefinition = "TEXT")
     private String noteTherapeute;
 
@@ -46,6 +63,17 @@ public class Seance {
 
     private LocalDateTime updatedAt;
 
+    // Offset in minutes of the last reminder sent, so each reminder goes out once across instances
+    private Integer dernierRappelMinutes;
+
+    // Set only on group séances: the number of places, and how many of them are taken
+    private Integer capacite;
+
+    private int placesReservees;
+
+    // Shared by the occurrences of a recurring series; their holds wait for payment longer, see PendingSeanceExpiryJob
+    private UUID serieId;
+
     // --- Constructors ---
     public Seance() {}
 
@@ -83,6 +111,8 @@ public class Seance {
     public int getDureeMinutes() { return dureeMinutes; }
     public void setDureeMinutes(int dureeMinutes) { this.dureeMinutes = dureeMinutes; }
 
+    public LocalDateTime getDateFin() { return dateFin; }
+
     public TypeSeance getTypeSeance() { return typeSeance; }
     public void setTypeSeance(TypeSeance typeSeance) { this.typeSeance = typeSeance; }
 
@@ -104,16 +134,36 @@ public class Seance {
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
 
+    public Integer getDernierRappelMinutes() { return dernierRappelMinutes; }
+    public void setDernierRappelMinutes(Integer dernierRappelMinutes) { this.dernierRappelMinutes = dernierRappelMinutes; }
+
+    public Integer getCapacite() { return capacite; }
+    public void setCapacite(Integer capacite) { this.capacite = capacite; }
+
+    public int getPlacesReservees() { return placesReservees; }
+    public void setPlacesReservees(int placesReservees) { this.placesReservees = placesReservees; }
+
+    public boolean isGroupe() { return capacite != null; }
+
+    public UUID getSerieId() { return serieId; }
+    public void setSerieId(UUID serieId) { this.serieId = serieId; }
+
     // --- Lifecycle Callbacks ---
     @PrePersist
     public void prePersist() {
         createdAt = LocalDateTime.now();
         updatedAt = createdAt;
+        computeDateFin();
     }
 
     @PreUpdate
     public void preUpdate() {
         updatedAt = LocalDateTime.now();
+        computeDateFin();
+    }
+
+    private void computeDateFin() {
+        dateFin = dateHeure != null ? dateHeure.plusMinutes(dureeMinutes) : null;
     }
 
     // --- Manual Builder Implementation ---
@@ -121,6 +171,8 @@ public class Seance {
         private UUID seanceId;
         private UUID therapeuteId;
         private UUID patientId;
+        private Integer capacite;
+        private UUID serieId;
         private LocalDateTime dateHeure;
         private int dureeMinutes;
         private TypeSeance typeSeance;
@@ -146,6 +198,16 @@ public class Seance {
             return this;
         }
 
+        public Builder capacite(Integer capacite) {
+            this.capacite = capacite;
+            return this;
+        }
+
+        public Builder serieId(UUID serieId) {
+            this.serieId = serieId;
+            return this;
+        }
+
         public Builder dateHeure(LocalDateTime dateHeure) {
             this.dateHeure = dateHeure;
             return this;
@@ -192,9 +254,12 @@ public class Seance {
         }
 
         public Seance build() {
-            return new Seance(seanceId, therapeuteId, patientId, dateHeure,
+            Seance seance = new Seance(seanceId, therapeuteId, patientId, dateHeure,
                     dureeMinutes, typeSeance, statutSeance, lienVisio,
                     urlEnregistrement, noteTherapeute, createdAt, updatedAt);
+            seance.setCapacite(capacite);
+            seance.setSerieId(serieId);
+            return seance;
         }
     }
 
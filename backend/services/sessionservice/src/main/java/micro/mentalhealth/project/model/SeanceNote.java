@@ -0,0 +1,64 @@
+package micro.mentalhealth.project.model;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * The therapist's note on a séance, kept apart from the séance row and compressed at rest. It is
+ * only read when the note itself is asked for, and writing it never touches the séance.
+ */
+@Entity
+@Table(name = "seance_notes")
+public class SeanceNote implements Persistable<UUID> {
+
+    @Id
+    @Column(nullable = false)
+    private UUID seanceId;
+
+    @Column(nullable = false)
+    private UUID therapeuteId;
+
+    @Convert(converter = CompressedTextConverter.class)
+    @Column(nullable = false, columnDefinition = "MEDIUMBLOB")
+    private String contenu;
+
+    private LocalDateTime updatedAt;
+
+    // Makes save() insert a new note without first selecting it
+    @Transient
+    private boolean isNew = true;
+
+    public SeanceNote() {}
+
+    public SeanceNote(UUID seanceId, UUID therapeuteId) {
+        this.seanceId = seanceId;
+        this.therapeuteId = therapeuteId;
+    }
+
+    @Override
+    public UUID getId() { return seanceId; }
+
+    public UUID getSeanceId() { return seanceId; }
+    public void setSeanceId(UUID seanceId) { this.seanceId = seanceId; }
+
+    public UUID getTherapeuteId() { return therapeuteId; }
+    public void setTherapeuteId(UUID therapeuteId) { this.therapeuteId = therapeuteId; }
+
+    public String getContenu() { return contenu; }
+    public void setContenu(String contenu) { this.contenu = contenu; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    @Override
+    public boolean isNew() { return isNew; }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        isNew = false;
+    }
+}
@@ -0,0 +1,83 @@
+package micro.mentalhealth.project.model;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * One entry of the full-text index of notes: a normalized word found in the note of a séance.
+ * The primary key, led by the therapist, is the index a search scans.
+ */
+@Entity
+@Table(name = "seance_note_termes", indexes = {
+        // Lets a rewritten note drop its previous terms
+        @Index(name = "idx_note_termes_seance", columnList = "seance_id")
+})
+public class SeanceNoteTerme implements Persistable<SeanceNoteTerme.Key> {
+
+    @EmbeddedId
+    private Key id;
+
+    // Terms are only ever inserted, so save() never needs to select first
+    @Transient
+    private boolean isNew = true;
+
+    public SeanceNoteTerme() {}
+
+    public SeanceNoteTerme(UUID therapeuteId, String terme, UUID seanceId) {
+        this.id = new Key(therapeuteId, terme, seanceId);
+    }
+
+    @Override
+    public Key getId() { return id; }
+    public void setId(Key id) { this.id = id; }
+
+    @Override
+    public boolean isNew() { return isNew; }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        isNew = false;
+    }
+
+    @Embeddable
+    public static class Key implements Serializable {
+        @Column(nullable = false)
+        private UUID therapeuteId;
+
+        @Column(nullable = false, length = 64)
+        private String terme;
+
+        @Column(nullable = false)
+        private UUID seanceId;
+
+        public Key() {}
+
+        public Key(UUID therapeuteId, String terme, UUID seanceId) {
+            this.therapeuteId = therapeuteId;
+            this.terme = terme;
+            this.seanceId = seanceId;
+        }
+
+        public UUID getTherapeuteId() { return therapeuteId; }
+        public String getTerme() { return terme; }
+        public UUID getSeanceId() { return seanceId; }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other
+                    && Objects.equals(therapeuteId, other.therapeuteId)
+                    && Objects.equals(terme, other.terme)
+                    && Objects.equals(seanceId, other.seanceId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(therapeuteId, terme, seanceId);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package micro.mentalhealth.project.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A patient holding a place in a group séance. The séance's {@code placesReservees} counts these rows.
+ */
+@Entity
+@Table(name = "seance_participants",
+        uniqueConstraints = @UniqueConstraint(name = "uk_participant_seance_patient", columnNames = {"seance_id", "patient_id"}),
+        indexes = {
+                // Lets a patient's listing find the group séances they joined
+                @Index(name = "idx_participants_patient", columnList = "patient_id, seance_id")
+        })
+public class SeanceParticipant {
+
+    @Id
+    @GeneratedValue
+    private UUID id;
+
+    @Column(nullable = false)
+    private UUID seanceId;
+
+    @Column(nullable = false)
+    private UUID patientId;
+
+    private LocalDateTime inscritLe;
+
+    public SeanceParticipant() {}
+
+    public SeanceParticipant(UUID seanceId, UUID patientId) {
+        this.seanceId = seanceId;
+        this.patientId = patientId;
+        this.inscritLe = LocalDateTime.now();
+    }
+
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+
+    public UUID getSeanceId() { return seanceId; }
+    public void setSeanceId(UUID seanceId) { this.seanceId = seanceId; }
+
+    public UUID getPatientId() { return patientId; }
+    public void setPatientId(UUID patientId) { this.patientId = patientId; }
+
+    public LocalDateTime getInscritLe() { return inscritLe; }
+    public void setInscritLe(LocalDateTime inscritLe) { this.inscritLe = inscritLe; }
+}
@@ -0,0 +1,8 @@
+package micro.mentalhealth.project.model;
+
+public enum StatutAttente {
+    EN_ATTENTE, // waiting for a slot to open
+    OFFRE,      // a slot has been held for the patient
+    ANNULEE,    // the patient left the waitlist
+    EXPIREE     // the window passed without a slot opening
+}
@@ -0,0 +1,6 @@
+package micro.mentalhealth.project.model;
+
+public enum StatutEnregistrement {
+    EN_COURS,
+    TERMINE
+}
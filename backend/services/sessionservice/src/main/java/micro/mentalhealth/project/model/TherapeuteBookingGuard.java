@@ -0,0 +1,34 @@
+package micro.mentalhealth.project.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One row per therapist, locked with {@code SELECT ... FOR UPDATE} while a booking is checked and
+ * written, so that bookings for the same therapist are serialized across every sessionservice node.
+ */
+@Entity
+@Table(name = "therapeute_booking_guards")
+public class TherapeuteBookingGuard {
+
+    @Id
+    @Column(nullable = false)
+    private UUID therapeuteId;
+
+    private LocalDateTime createdAt;
+
+    public TherapeuteBookingGuard() {}
+
+    public TherapeuteBookingGuard(UUID therapeuteId) {
+        this.therapeuteId = therapeuteId;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public UUID getTherapeuteId() { return therapeuteId; }
+    public void setTherapeuteId(UUID therapeuteId) { this.therapeuteId = therapeuteId; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,65 @@
+package micro.mentalhealth.project.model;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Number of TERMINEE séances between a therapist and a patient, so that the therapist's distinct
+ * patient count only moves when this number goes from 0 to 1 or back.
+ */
+@Entity
+@Table(name = "therapist_patient_stats")
+public class TherapistPatientStats {
+
+    @EmbeddedId
+    private Key id;
+
+    private long terminees;
+
+    public TherapistPatientStats() {}
+
+    public TherapistPatientStats(UUID therapeuteId, UUID patientId, long terminees) {
+        this.id = new Key(therapeuteId, patientId);
+        this.terminees = terminees;
+    }
+
+    public Key getId() { return id; }
+    public void setId(Key id) { this.id = id; }
+
+    public long getTerminees() { return terminees; }
+    public void setTerminees(long terminees) { this.terminees = terminees; }
+
+    @Embeddable
+    public static class Key implements Serializable {
+        @Column(nullable = false)
+        private UUID therapeuteId;
+
+        @Column(nullable = false)
+        private UUID patientId;
+
+        public Key() {}
+
+        public Key(UUID therapeuteId, UUID patientId) {
+            this.therapeuteId = therapeuteId;
+            this.patientId = patientId;
+        }
+
+        public UUID getTherapeuteId() { return therapeuteId; }
+        public UUID getPatientId() { return patientId; }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other
+                    && Objects.equals(therapeuteId, other.therapeuteId)
+                    && Objects.equals(patientId, other.patientId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(therapeuteId, patientId);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package micro.mentalhealth.project.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Dashboard counters of one therapist, kept up to date as séances change status so they can be
+ * read without scanning the therapist's séances.
+ */
+@Entity
+@Table(name = "therapist_session_stats")
+public class TherapistSessionStats {
+
+    @Id
+    @Column(nullable = false)
+    private UUID therapeuteId;
+
+    private long enAttentePaiement;
+
+    private long planifiees;
+
+    private long terminees;
+
+    private long annulees;
+
+    // Patients with at least one TERMINEE séance
+    private long distinctPatients;
+
+    // Sum of the durations of the TERMINEE séances
+    private long minutesDelivered;
+
+    private LocalDateTime updatedAt;
+
+    public TherapistSessionStats() {}
+
+    public TherapistSessionStats(UUID therapeuteId) {
+        this.therapeuteId = therapeuteId;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public UUID getTherapeuteId() { return therapeuteId; }
+    public void setTherapeuteId(UUID therapeuteId) { this.therapeuteId = therapeuteId; }
+
+    public long getEnAttentePaiement() { return enAttentePaiement; }
+    public void setEnAttentePaiement(long enAttentePaiement) { this.enAttentePaiement = enAttentePaiement; }
+
+    public long getPlanifiees() { return planifiees; }
+    public void setPlanifiees(long planifiees) { this.planifiees = planifiees; }
+
+    public long getTerminees() { return terminees; }
+    public void setTerminees(long terminees) { this.terminees = terminees; }
+
+    public long getAnnulees() { return annulees; }
+    public void setAnnulees(long annulees) { this.annulees = annulees; }
+
+    public long getDistinctPatients() { return distinctPatients; }
+    public void setDistinctPatients(long distinctPatients) { this.distinctPatients = distinctPatients; }
+
+    public long getMinutesDelivered() { return minutesDelivered; }
+    public void setMinutesDelivered(long minutesDelivered) { this.minutesDelivered = minutesDelivered; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,107 @@
+package micro.mentalhealth.project.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A patient waiting for a séance of {@code dureeMinutes} with a therapist, anywhere within
+ * {@code [fenetreDebut, fenetreFin)}. Once a slot is offered, {@code seanceOffertId} is the hold
+ * created for the patient.
+ */
+@Entity
+@Table(name = "waitlist_entries", indexes = {
+        @Index(name = "idx_waitlist_statut_fin", columnList = "statut, fenetre_fin"),
+        @Index(name = "idx_waitlist_patient", columnList = "patient_id, statut")
+})
+public class WaitlistEntry {
+
+    @Id
+    @GeneratedValue
+    private UUID entryId;
+
+    @Column(nullable = false)
+    private UUID patientId;
+
+    @Column(nullable = false)
+    private UUID therapeuteId;
+
+    @Column(nullable = false)
+    private LocalDateTime fenetreDebut;
+
+    @Column(nullable = false)
+    private LocalDateTime fenetreFin;
+
+    private int dureeMinutes;
+
+    @Enumerated(EnumType.STRING)
+    private TypeSeance typeSeance;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private StatutAttente statut;
+
+    private UUID seanceOffertId;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    public WaitlistEntry() {}
+
+    public WaitlistEntry(UUID patientId, UUID therapeuteId, LocalDateTime fenetreDebut, LocalDateTime fenetreFin,
+                         int dureeMinutes, TypeSeance typeSeance) {
+        this.patientId = patientId;
+        this.therapeuteId = therapeuteId;
+        this.fenetreDebut = fenetreDebut;
+        this.fenetreFin = fenetreFin;
+        this.dureeMinutes = dureeMinutes;
+        this.typeSeance = typeSeance;
+        this.statut = StatutAttente.EN_ATTENTE;
+    }
+
+    public UUID getEntryId() { return entryId; }
+    public void setEntryId(UUID entryId) { this.entryId = entryId; }
+
+    public UUID getPatientId() { return patientId; }
+    public void setPatientId(UUID patientId) { this.patientId = patientId; }
+
+    public UUID getTherapeuteId() { return therapeuteId; }
+    public void setTherapeuteId(UUID therapeuteId) { this.therapeuteId = therapeuteId; }
+
+    public LocalDateTime getFenetreDebut() { return fenetreDebut; }
+    public void setFenetreDebut(LocalDateTime fenetreDebut) { this.fenetreDebut = fenetreDebut; }
+
+    public LocalDateTime getFenetreFin() { return fenetreFin; }
+    public void setFenetreFin(LocalDateTime fenetreFin) { this.fenetreFin = fenetreFin; }
+
+    public int getDureeMinutes() { return dureeMinutes; }
+    public void setDureeMinutes(int dureeMinutes) { this.dureeMinutes = dureeMinutes; }
+
+    public TypeSeance getTypeSeance() { return typeSeance; }
+    public void setTypeSeance(TypeSeance typeSeance) { this.typeSeance = typeSeance; }
+
+    public StatutAttente getStatut() { return statut; }
+    public void setStatut(StatutAttente statut) { this.statut = statut; }
+
+    public UUID getSeanceOffertId() { return seanceOffertId; }
+    public void setSeanceOffertId(UUID seanceOffertId) { this.seanceOffertId = seanceOffertId; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    @PrePersist
+    public void prePersist() {
+        createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+    }
+
+    @PreUpdate
+    public void preUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
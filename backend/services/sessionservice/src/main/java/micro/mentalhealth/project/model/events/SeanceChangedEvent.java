@@ -0,0 +1,55 @@
+package micro.mentalhealth.project.model.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import micro.mentalhealth.project.model.Seance;
+import micro.mentalhealth.project.model.StatutSeance;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeanceChangedEvent {
+    private UUID seanceId;
+    private UUID therapeuteId;
+    private UUID patientId;
+    private LocalDateTime dateHeure;
+    private int dureeMinutes;
+    private StatutSeance previousStatut; // null when the séance has just been created
+    private StatutSeance statut;         // null when the séance has been deleted
+    private LocalDateTime changedAt;
+
+    public SeanceChangedEvent(Seance seance, StatutSeance previousStatut) {
+        this(seance.getSeanceId(), seance.getTherapeuteId(), seance.getPatientId(), seance.getDateHeure(),
+                seance.getDureeMinutes(), previousStatut, seance.getStatutSeance(), LocalDateTime.now());
+    }
+
+    public static SeanceChangedEvent deleted(Seance seance) {
+        return new SeanceChangedEvent(seance.getSeanceId(), seance.getTherapeuteId(), seance.getPatientId(),
+                seance.getDateHeure(), seance.getDureeMinutes(), seance.getStatutSeance(), null, LocalDateTime.now());
+    }
+
+    /**
+     * A séance moved from its loaded status to {@code statut} by a bulk update, which never
+     * changes the loaded entity.
+     */
+    public static SeanceChangedEvent transitioned(Seance seance, StatutSeance statut) {
+        return new SeanceChangedEvent(seance.getSeanceId(), seance.getTherapeuteId(), seance.getPatientId(),
+                seance.getDateHeure(), seance.getDureeMinutes(), seance.getStatutSeance(),
+                statut, LocalDateTime.now());
+    }
+
+    /**
+     * An unpaid hold released by the expiry job.
+     */
+    public static SeanceChangedEvent expired(Seance seance) {
+        return transitioned(seance, StatutSeance.ANNULEE);
+    }
+
+    public boolean isDeleted() {
+        return statut == null;
+    }
+}
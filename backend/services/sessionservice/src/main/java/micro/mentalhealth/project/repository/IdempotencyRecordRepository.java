@@ -0,0 +1,38 @@
+package micro.mentalhealth.project.repository;
+
+import micro.mentalhealth.project.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    // Completes a claim; matches nothing if the claim was taken over meanwhile
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.statusCode = :statusCode, r.responseBody = :responseBody " +
+            "WHERE r.id = :id AND r.createdAt = :claimedAt AND r.statusCode IS NULL")
+    int complete(String id, LocalDateTime claimedAt, int statusCode, String responseBody);
+
+    // Takes over an expired record, or a claim whose request never completed (e.g. the node died while running it)
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.createdAt = :claimedAt, r.fingerprint = :fingerprint, " +
+            "r.expiresAt = :expiresAt, r.statusCode = NULL, r.responseBody = NULL " +
+            "WHERE r.id = :id AND (r.expiresAt < :claimedAt OR (r.statusCode IS NULL AND r.createdAt < :staleBefore))")
+    int reclaim(String id, String fingerprint, LocalDateTime claimedAt, LocalDateTime expiresAt,
+                LocalDateTime staleBefore);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.id = :id AND r.createdAt = :claimedAt AND r.statusCode IS NULL")
+    int release(String id, LocalDateTime claimedAt);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(LocalDateTime now);
+}
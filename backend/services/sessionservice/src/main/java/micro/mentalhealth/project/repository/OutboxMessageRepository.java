@@ -0,0 +1,22 @@
+package micro.mentalhealth.project.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import micro.mentalhealth.project.model.OutboxMessage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessage, UUID> {
+
+    // Oldest first; rows being relayed by another node are skipped rather than waited for
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT m FROM OutboxMessage m ORDER BY m.createdAt")
+    List<OutboxMessage> lockOldest(Pageable pageable);
+}
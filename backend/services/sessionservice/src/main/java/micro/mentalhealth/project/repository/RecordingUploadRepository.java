@@ -0,0 +1,17 @@
+package micro.mentalhealth.project.repository;
+
+import micro.mentalhealth.project.model.RecordingUpload;
+import micro.mentalhealth.project.model.StatutEnregistrement;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface RecordingUploadRepository extends JpaRepository<RecordingUpload, UUID> {
+
+    Optional<RecordingUpload> findFirstBySeanceIdAndStatutOrderByUpdatedAtDesc(UUID seanceId, StatutEnregistrement statut);
+
+    List<RecordingUpload> findByStatutAndUpdatedAtBefore(StatutEnregistrement statut, LocalDateTime updatedBefore);
+}
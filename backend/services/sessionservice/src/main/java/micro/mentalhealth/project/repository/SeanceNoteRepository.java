@@ -0,0 +1,9 @@
+package micro.mentalhealth.project.repository;
+
+import micro.mentalhealth.project.model.SeanceNote;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.UUID;
+
+public interface SeanceNoteRepository extends JpaRepository<SeanceNote, UUID> {
+}
@@ -0,0 +1,25 @@
+package micro.mentalhealth.project.repository;
+
+import micro.mentalhealth.project.model.SeanceNoteTerme;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface SeanceNoteTermeRepository extends JpaRepository<SeanceNoteTerme, SeanceNoteTerme.Key> {
+
+    @Modifying
+    @Query("DELETE FROM SeanceNoteTerme t WHERE t.id.seanceId = :seanceId")
+    int deleteBySeanceId(UUID seanceId);
+
+    // Séances of the therapist whose note contains every one of the terms, most recent first
+    @Query("SELECT t.id.seanceId FROM SeanceNoteTerme t, Seance s " +
+            "WHERE s.seanceId = t.id.seanceId AND t.id.therapeuteId = :therapeuteId AND t.id.terme IN :termes " +
+            "GROUP BY t.id.seanceId, s.dateHeure HAVING COUNT(t) = :termCount ORDER BY s.dateHeure DESC")
+    List<UUID> findSeanceIdsMatchingAll(UUID therapeuteId, Collection<String> termes, long termCount,
+                                        Pageable pageable);
+}
@@ -0,0 +1,34 @@
+package micro.mentalhealth.project.repository;
+
+import micro.mentalhealth.project.model.SeanceParticipant;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+public interface SeanceParticipantRepository extends JpaRepository<SeanceParticipant, UUID> {
+
+    List<SeanceParticipant> findBySeanceIdOrderByInscritLe(UUID seanceId);
+
+    List<SeanceParticipant> findBySeanceIdIn(Collection<UUID> seanceIds);
+
+    @Modifying
+    @Query("DELETE FROM SeanceParticipant p WHERE p.seanceId = :seanceId AND p.patientId = :patientId")
+    int deleteBySeanceIdAndPatientId(UUID seanceId, UUID patientId);
+
+    /**
+     * Patients of each of the given group séances, read with one query.
+     */
+    default Map<UUID, List<UUID>> findPatientIdsBySeance(Collection<UUID> seanceIds) {
+        if (seanceIds.isEmpty()) {
+            return Map.of();
+        }
+        return findBySeanceIdIn(seanceIds).stream().collect(Collectors.groupingBy(SeanceParticipant::getSeanceId,
+                Collectors.mapping(SeanceParticipant::getPatientId, Collectors.toList())));
+    }
+}
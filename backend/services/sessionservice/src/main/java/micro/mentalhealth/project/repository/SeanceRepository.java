@@ -2,26 +2,140 @@ package micro.mentalhealth.project.repository;
 
 import micro.mentalhealth.project.model.Seance;
 import micro.mentalhealth.project.model.StatutSeance;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
-public interface SeanceRepository extends JpaRepository<Seance, UUID> {
+public interface SeanceRepository extends JpaRepository<Seance, UUID>, JpaSpecificationExecutor<Seance>,
+        SeanceSummaryRepository {
 
-    List<Seance> findByTherapeuteId(UUID therapeuteId);
-    List<Seance> findByPatientId(UUID patientId);
-    List<Seance> findByTherapeuteIdAndStatutSeance(UUID therapeuteId, StatutSeance statut);
-    List<Seance> findByDateHeureBetween(LocalDateTime start, LocalDateTime end);
-    @Query(value = "SELECT * FROM seances s WHERE s.therapeute_id = :therapeuteId AND " +
-            "s.date_heure < :fin AND " +
-            "DATE_ADD(s.date_heure, INTERVAL s.duree_minutes MINUTE) > :debut", nativeQuery = true)
+    List<Seance> findByStatutSeanceNotAndDateHeureGreaterThanEqual(StatutSeance statut, LocalDateTime from);
+    // Both bounds compare stored columns, so the (therapeute_id, date_heure, date_fin) index serves the query
+    @Query("SELECT s FROM Seance s WHERE s.therapeuteId = :therapeuteId AND " +
+            "s.statutSeance <> micro.mentalhealth.project.model.StatutSeance.ANNULEE AND " +
+            "s.dateHeure < :fin AND s.dateFin > :debut")
     List<Seance> findConflictingSeances(UUID therapeuteId, LocalDateTime debut, LocalDateTime fin);
-    List<Seance> findByTherapeuteIdAndDateHeureBetween(UUID therapeuteId, LocalDateTime start, LocalDateTime end);
+    @Query("SELECT s FROM Seance s WHERE s.therapeuteId IN :therapeuteIds AND " +
+            "s.statutSeance <> micro.mentalhealth.project.model.StatutSeance.ANNULEE AND " +
+            "s.dateHeure < :fin AND s.dateFin > :debut")
+    List<Seance> findConflictingSeancesForTherapeutes(Collection<UUID> therapeuteIds, LocalDateTime debut, LocalDateTime fin);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM Seance s WHERE s.seanceId = :seanceId")
+    Optional<Seance> findByIdForUpdate(UUID seanceId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM Seance s WHERE s.seanceId IN :seanceIds ORDER BY s.seanceId")
+    List<Seance> findAllByIdForUpdate(Collection<UUID> seanceIds);
+
+    // Rows locked by another node (or by a payment confirmation) are skipped rather than waited for
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    // Holds of a series are only due once their occurrence starts before seriesDueBefore
+    @Query("SELECT s FROM Seance s WHERE s.statutSeance = :statut AND s.createdAt < :createdBefore " +
+            "AND (s.serieId IS NULL OR s.dateHeure < :seriesDueBefore) ORDER BY s.createdAt")
+    List<Seance> lockByStatutSeanceCreatedBefore(StatutSeance statut, LocalDateTime createdBefore,
+                                                 LocalDateTime seriesDueBefore, Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT s FROM Seance s WHERE s.statutSeance = :statut AND s.dateFin <= :endedBy ORDER BY s.dateFin")
+    List<Seance> lockByStatutSeanceEndedBy(StatutSeance statut, LocalDateTime endedBy, Pageable pageable);
+
+    /**
+     * Just what the reminder scheduler needs to place a séance on its wheel.
+     */
+    interface UpcomingSeance {
+        UUID getSeanceId();
+        LocalDateTime getDateHeure();
+        Integer getDernierRappelMinutes();
+    }
+
+    List<UpcomingSeance> findByStatutSeanceAndDateHeureGreaterThanAndDateHeureLessThanEqual(
+            StatutSeance statut, LocalDateTime after, LocalDateTime until);
+
+    // Séances still due the reminder sent offsetMinutes before they start; rows being handled elsewhere are skipped
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT s FROM Seance s WHERE s.seanceId IN :seanceIds AND " +
+            "s.statutSeance = micro.mentalhealth.project.model.StatutSeance.PLANIFIEE AND " +
+            "s.dateHeure > :now AND s.dateHeure <= :startsBy AND " +
+            "(s.dernierRappelMinutes IS NULL OR s.dernierRappelMinutes > :offsetMinutes)")
+    List<Seance> lockDueForReminder(Collection<UUID> seanceIds, int offsetMinutes, LocalDateTime now,
+                                    LocalDateTime startsBy);
+
+    @Modifying
+    @Query("UPDATE Seance s SET s.dernierRappelMinutes = :offsetMinutes WHERE s.seanceId IN :seanceIds")
+    int markReminderSent(Collection<UUID> seanceIds, int offsetMinutes);
+
+    // Takes a place in a planned, not yet started group séance; 0 when it is full, or not open to sign-ups
+    @Modifying
+    @Query("UPDATE Seance s SET s.placesReservees = s.placesReservees + 1 WHERE s.seanceId = :seanceId AND " +
+            "s.statutSeance = micro.mentalhealth.project.model.StatutSeance.PLANIFIEE AND " +
+            "s.dateHeure > :now AND s.placesReservees < s.capacite")
+    int reservePlace(UUID seanceId, LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Seance s SET s.placesReservees = s.placesReservees - 1 " +
+            "WHERE s.seanceId = :seanceId AND s.placesReservees > 0")
+    int releasePlace(UUID seanceId);
+
+    // One-off migration of rows written before date_fin existed; MySQL-specific on purpose, never on a request path
+    @Modifying
+    @Query(value = "UPDATE seances SET date_fin = DATE_ADD(date_heure, INTERVAL duree_minutes MINUTE) " +
+            "WHERE date_fin IS NULL LIMIT :batchSize", nativeQuery = true)
+    int backfillDateFin(int batchSize);
+
+    // Sets just the recording link, without rewriting the rest of the row
+    @Modifying
+    @Query("UPDATE Seance s SET s.urlEnregistrement = :url, s.updatedAt = :updatedAt WHERE s.seanceId = :seanceId")
+    int updateUrlEnregistrement(UUID seanceId, String url, LocalDateTime updatedAt);
+
+    // Séances whose note is still in the legacy inline column; rows another node is moving are skipped
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT s FROM Seance s WHERE s.noteTherapeute IS NOT NULL")
+    List<Seance> lockWithInlineNote(Pageable pageable);
+
+    @Query("SELECT s FROM Seance s WHERE s.seanceId IN :seanceIds AND s.noteTherapeute IS NOT NULL")
+    List<Seance> findWithInlineNote(Collection<UUID> seanceIds);
+
+    @Modifying
+    @Query("UPDATE Seance s SET s.noteTherapeute = NULL WHERE s.seanceId IN :seanceIds")
+    int clearInlineNotes(Collection<UUID> seanceIds);
+
+    @Modifying
+    @Query("UPDATE Seance s SET s.statutSeance = :nouveauStatut, s.updatedAt = :updatedAt " +
+            "WHERE s.seanceId IN :seanceIds AND s.statutSeance = :statut")
+    int updateStatutSeance(Collection<UUID> seanceIds, StatutSeance statut, StatutSeance nouveauStatut,
+                           LocalDateTime updatedAt);
+
+
+    interface StatutTotals {
+        StatutSeance getStatut();
+        long getCount();
+        long getMinutes();
+    }
+
+    // Seeds the dashboard counters of a therapist seen for the first time
+    @Query("SELECT s.statutSeance AS statut, COUNT(s) AS count, COALESCE(SUM(s.dureeMinutes), 0) AS minutes " +
+            "FROM Seance s WHERE s.therapeuteId = :therapeuteId GROUP BY s.statutSeance")
+    List<StatutTotals> sumByStatutForTherapeute(UUID therapeuteId);
+
+    long countByTherapeuteIdAndPatientIdAndStatutSeance(UUID therapeuteId, UUID patientId, StatutSeance statut);
 
     @Query(value = "SELECT COUNT(DISTINCT patient_id) " +
             "FROM seances " +
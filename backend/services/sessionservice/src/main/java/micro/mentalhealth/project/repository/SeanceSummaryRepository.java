@@ -0,0 +1,18 @@
+package micro.mentalhealth.project.repository;
+
+import micro.mentalhealth.project.dto.SeanceSummaryDTO;
+import micro.mentalhealth.project.model.Seance;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Queries that read {@link SeanceSummaryDTO}s straight from the table, without loading entities.
+ */
+public interface SeanceSummaryRepository {
+
+    /**
+     * The first {@code limit} séances matching {@code specification}, ordered by start time then id.
+     */
+    List<SeanceSummaryDTO> findSummaries(Specification<Seance> specification, int limit);
+}
@@ -0,0 +1,45 @@
+package micro.mentalhealth.project.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import micro.mentalhealth.project.dto.SeanceSummaryDTO;
+import micro.mentalhealth.project.model.Seance;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+class SeanceSummaryRepositoryImpl implements SeanceSummaryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<SeanceSummaryDTO> findSummaries(Specification<Seance> specification, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<SeanceSummaryDTO> query = cb.createQuery(SeanceSummaryDTO.class);
+        Root<Seance> root = query.from(Seance.class);
+
+        // Only the listed columns are selected: note_therapeute is never read nor decoded
+        query.select(cb.construct(SeanceSummaryDTO.class,
+                        root.get("seanceId"),
+                        root.get("therapeuteId"),
+                        root.get("patientId"),
+                        root.get("dateHeure"),
+                        root.get("dureeMinutes"),
+                        root.get("typeSeance"),
+                        root.get("statutSeance"),
+                        root.get("lienVisio").get("url"),
+                        root.get("urlEnregistrement"),
+                        root.get("capacite"),
+                        root.get("placesReservees"),
+                        root.get("createdAt"),
+                        root.get("updatedAt")))
+                .where(specification.toPredicate(root, query, cb))
+                .orderBy(cb.asc(root.get("dateHeure")), cb.asc(root.get("seanceId")));
+
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+}
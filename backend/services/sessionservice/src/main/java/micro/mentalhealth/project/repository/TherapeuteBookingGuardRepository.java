@@ -0,0 +1,18 @@
+package micro.mentalhealth.project.repository;
+
+import jakarta.persistence.LockModeType;
+import micro.mentalhealth.project.model.TherapeuteBookingGuard;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public interface TherapeuteBookingGuardRepository extends JpaRepository<TherapeuteBookingGuard, UUID> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT g FROM TherapeuteBookingGuard g WHERE g.therapeuteId = :therapeuteId")
+    Optional<TherapeuteBookingGuard> lockByTherapeuteId(@Param("therapeuteId") UUID therapeuteId);
+}
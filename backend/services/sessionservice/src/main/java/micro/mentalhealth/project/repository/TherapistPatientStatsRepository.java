@@ -0,0 +1,20 @@
+package micro.mentalhealth.project.repository;
+
+import micro.mentalhealth.project.model.TherapistPatientStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.UUID;
+
+public interface TherapistPatientStatsRepository extends JpaRepository<TherapistPatientStats, TherapistPatientStats.Key> {
+
+    @Modifying
+    @Query("UPDATE TherapistPatientStats p SET p.terminees = p.terminees + :delta " +
+            "WHERE p.id.therapeuteId = :therapeuteId AND p.id.patientId = :patientId")
+    int addTerminees(UUID therapeuteId, UUID patientId, long delta);
+
+    @Query("SELECT p.terminees FROM TherapistPatientStats p " +
+            "WHERE p.id.therapeuteId = :therapeuteId AND p.id.patientId = :patientId")
+    long findTerminees(UUID therapeuteId, UUID patientId);
+}
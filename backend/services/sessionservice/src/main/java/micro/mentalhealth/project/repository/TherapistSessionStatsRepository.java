@@ -0,0 +1,26 @@
+package micro.mentalhealth.project.repository;
+
+import micro.mentalhealth.project.model.TherapistSessionStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface TherapistSessionStatsRepository extends JpaRepository<TherapistSessionStats, UUID> {
+
+    // Relative update, so concurrent transitions of the same therapist add up instead of overwriting each other
+    @Modifying
+    @Query("UPDATE TherapistSessionStats s SET " +
+            "s.enAttentePaiement = s.enAttentePaiement + :enAttentePaiement, " +
+            "s.planifiees = s.planifiees + :planifiees, " +
+            "s.terminees = s.terminees + :terminees, " +
+            "s.annulees = s.annulees + :annulees, " +
+            "s.distinctPatients = s.distinctPatients + :distinctPatients, " +
+            "s.minutesDelivered = s.minutesDelivered + :minutesDelivered, " +
+            "s.updatedAt = :updatedAt " +
+            "WHERE s.therapeuteId = :therapeuteId")
+    int addDeltas(UUID therapeuteId, long enAttentePaiement, long planifiees, long terminees, long annulees,
+                  long distinctPatients, long minutesDelivered, LocalDateTime updatedAt);
+}
@@ -0,0 +1,30 @@
+package micro.mentalhealth.project.repository;
+
+import micro.mentalhealth.project.model.StatutAttente;
+import micro.mentalhealth.project.model.WaitlistEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, UUID> {
+
+    List<WaitlistEntry> findByStatutAndFenetreFinAfter(StatutAttente statut, LocalDateTime after);
+
+    List<WaitlistEntry> findByPatientIdOrderByCreatedAtDesc(UUID patientId);
+
+    // Moves the entry on only if it is still in the expected status, so that it is offered or left once
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.statut = :to, w.seanceOffertId = :seanceOffertId, w.updatedAt = :now " +
+            "WHERE w.entryId = :entryId AND w.statut = :from")
+    int transition(UUID entryId, StatutAttente from, StatutAttente to, UUID seanceOffertId, LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.statut = micro.mentalhealth.project.model.StatutAttente.EXPIREE, " +
+            "w.updatedAt = :now WHERE w.statut = micro.mentalhealth.project.model.StatutAttente.EN_ATTENTE " +
+            "AND w.fenetreFin <= :now")
+    int expirePassed(LocalDateTime now);
+}
@@ -0,0 +1,85 @@
+package micro.mentalhealth.project.service;
+
+import micro.mentalhealth.project.model.TherapeuteBookingGuard;
+import micro.mentalhealth.project.repository.TherapeuteBookingGuardRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Serializes slot reservations per therapist.
+ * <p>
+ * Within a node, requests for the same therapist queue on one of a fixed number of striped locks,
+ * so they never pile up on the database; requests for different therapists almost never share a
+ * stripe. Across nodes, the work runs in a transaction that first locks the therapist's
+ * {@link TherapeuteBookingGuard} row. The stripe is held until that transaction has committed,
+ * so post-commit listeners (such as the interval index) are up to date for the next request.
+ */
+@Component
+public class BookingLockManager {
+
+    private final ReentrantLock[] stripes;
+    private final TherapeuteBookingGuardRepository guardRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate guardCreationTemplate;
+
+    @Autowired
+    public BookingLockManager(@Value("${booking.lock.stripes:256}") int stripeCount,
+                              TherapeuteBookingGuardRepository guardRepository,
+                              PlatformTransactionManager transactionManager) {
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.guardRepository = guardRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.guardCreationTemplate = new TransactionTemplate(transactionManager);
+        this.guardCreationTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Runs {@code work} in a transaction holding both the in-node stripe and the database guard of
+     * the therapist. Anything {@code work} reads from the database is therefore stable until commit.
+     */
+    public <T> T executeLocked(UUID therapeuteId, Supplier<T> work) {
+        ReentrantLock lock = stripeFor(therapeuteId);
+        lock.lock();
+        try {
+            return transactionTemplate.execute(status -> {
+                lockGuard(therapeuteId);
+                return work.get();
+            });
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void lockGuard(UUID therapeuteId) {
+        if (guardRepository.lockByTherapeuteId(therapeuteId).isPresent()) {
+            return;
+        }
+        try {
+            guardCreationTemplate.executeWithoutResult(status ->
+                    guardRepository.saveAndFlush(new TherapeuteBookingGuard(therapeuteId)));
+        } catch (DataIntegrityViolationException ex) {
+            // Another node created the row first: it exists now, which is all we need.
+        }
+        guardRepository.lockByTherapeuteId(therapeuteId)
+                .orElseThrow(() -> new IllegalStateException("Booking guard missing for therapist " + therapeuteId));
+    }
+
+    ReentrantLock stripeFor(UUID therapeuteId) {
+        int h = therapeuteId.hashCode();
+        h ^= (h >>> 16);
+        return stripes[h & (stripes.length - 1)];
+    }
+}
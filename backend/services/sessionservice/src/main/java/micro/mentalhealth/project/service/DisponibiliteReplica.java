@@ -0,0 +1,171 @@
+package micro.mentalhealth.project.service;
+
+import lombok.extern.slf4j.Slf4j;
+import micro.mentalhealth.project.dto.DisponibiliteDTO;
+import micro.mentalhealth.project.dto.DisponibilitesChangedMessage;
+import micro.mentalhealth.project.dto.PlageHoraireDTO;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local replica of the therapists' weekly availability, compiled into sorted minute ranges per day.
+ * <p>
+ * therapeute-service broadcasts the full schedule of a therapist whenever it changes, so booking
+ * checks are answered without a network call. A therapist that has never been seen is fetched once
+ * over REST; entries older than {@code disponibilite.replica.max-age-minutes} are refreshed on read
+ * as a safety net against lost messages, and kept as-is if therapeute-service cannot be reached.
+ */
+@Slf4j
+@Component
+public class DisponibiliteReplica {
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    @Autowired
+    private TherapeuteClient therapeuteClient;
+
+    @Value("${disponibilite.replica.max-age-minutes:60}")
+    private long maxAgeMinutes;
+
+    private final Map<UUID, WeeklySchedule> schedules = new ConcurrentHashMap<>();
+
+    public WeeklySchedule getSchedule(UUID therapeuteId) {
+        WeeklySchedule schedule = schedules.get(therapeuteId);
+        if (schedule == null) {
+            // Fetched outside of the map so a slow call never blocks lookups of other therapists.
+            return schedules.merge(therapeuteId, fetch(therapeuteId), WeeklySchedule::newest);
+        }
+        if (schedule.loadedAt().isBefore(LocalDateTime.now().minusMinutes(maxAgeMinutes))) {
+            try {
+                WeeklySchedule refreshed = fetch(therapeuteId);
+                schedules.merge(therapeuteId, refreshed, WeeklySchedule::newest);
+                return refreshed;
+            } catch (RuntimeException ex) {
+                log.warn("Could not refresh availability of therapist {}, using the cached copy: {}", therapeuteId, ex.getMessage());
+            }
+        }
+        return schedule;
+    }
+
+    /**
+     * The schedule held for the therapist, whatever its age, or null; never calls therapeute-service.
+     */
+    public WeeklySchedule peekSchedule(UUID therapeuteId) {
+        return schedules.get(therapeuteId);
+    }
+
+    /**
+     * Loads the schedules of every therapist at once, as fetched by {@link TherapeuteClient#getAllDisponibilites}.
+     */
+    public void load(List<DisponibilitesChangedMessage> snapshot) {
+        snapshot.forEach(this::onDisponibilitesChanged);
+    }
+
+    @RabbitListener(queues = "#{disponibiliteQueue.name}")
+    public void onDisponibilitesChanged(DisponibilitesChangedMessage message) {
+        WeeklySchedule schedule = WeeklySchedule.compile(message.getDisponibilites(), message.getChangedAt());
+        // Messages may be redelivered out of order: keep whichever snapshot is the most recent.
+        schedules.merge(message.getTherapeuteId(), schedule, WeeklySchedule::newest);
+    }
+
+    private WeeklySchedule fetch(UUID therapeuteId) {
+        return WeeklySchedule.compile(therapeuteClient.getDisponibilites(therapeuteId), LocalDateTime.now());
+    }
+
+    /**
+     * Availability of one therapist: for each day, sorted and non-overlapping {@code [start, end)}
+     * ranges expressed in minutes since midnight.
+     */
+    public record WeeklySchedule(int[][][] rangesByDay, LocalDateTime changedAt, LocalDateTime loadedAt) {
+
+        static WeeklySchedule compile(List<DisponibiliteDTO> disponibilites, LocalDateTime changedAt) {
+            List<List<int[]>> byDay = new ArrayList<>();
+            for (int i = 0; i < 7; i++) {
+                byDay.add(new ArrayList<>());
+            }
+            if (disponibilites != null) {
+                for (DisponibiliteDTO dispo : disponibilites) {
+                    PlageHoraireDTO plage = dispo.getPlageHoraire();
+                    if (dispo.getJour() == null || plage == null
+                            || plage.getHeureDebut() == null || plage.getHeureFin() == null) {
+                        continue;
+                    }
+                    int start = plage.getHeureDebut().toSecondOfDay() / 60;
+                    int end = plage.getHeureFin().toSecondOfDay() / 60;
+                    if (end > start) {
+                        byDay.get(dispo.getJour().getValue() - 1).add(new int[]{start, end});
+                    }
+                }
+            }
+            int[][][] ranges = new int[7][][];
+            for (int i = 0; i < 7; i++) {
+                ranges[i] = merge(byDay.get(i));
+            }
+            return new WeeklySchedule(ranges, changedAt != null ? changedAt : LocalDateTime.now(), LocalDateTime.now());
+        }
+
+        // Only overlapping plages are joined: a séance must still fit in one plage, so two plages
+        // that merely touch stay apart, as they are in therapeute-service
+        private static int[][] merge(List<int[]> ranges) {
+            ranges.sort(Comparator.comparingInt(r -> r[0]));
+            List<int[]> merged = new ArrayList<>();
+            for (int[] range : ranges) {
+                int[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+                if (last != null && range[0] < last[1]) {
+                    last[1] = Math.max(last[1], range[1]);
+                } else {
+                    merged.add(new int[]{range[0], range[1]});
+                }
+            }
+            return merged.toArray(new int[0][]);
+        }
+
+        static WeeklySchedule newest(WeeklySchedule current, WeeklySchedule candidate) {
+            return candidate.changedAt().isBefore(current.changedAt()) ? current : candidate;
+        }
+
+        public int[][] ranges(DayOfWeek jour) {
+            return rangesByDay[jour.getValue() - 1];
+        }
+
+        /**
+         * Whether {@code [debut, debut + dureeMinutes)} fits inside a single availability range.
+         */
+        public boolean contains(LocalDateTime debut, int dureeMinutes) {
+            int start = debut.toLocalTime().toSecondOfDay() / 60;
+            int end = start + dureeMinutes;
+            if (end > MINUTES_PER_DAY) {
+                return false;
+            }
+            for (int[] range : ranges(debut.getDayOfWeek())) {
+                if (range[0] > start) {
+                    return false;
+                }
+                if (end <= range[1]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public boolean isEmpty() {
+            for (int[][] day : rangesByDay) {
+                if (day.length > 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
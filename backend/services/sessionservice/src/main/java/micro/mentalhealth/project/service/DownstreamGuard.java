@@ -0,0 +1,41 @@
+package micro.mentalhealth.project.service;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+
+import java.util.function.Supplier;
+
+/**
+ * Bulkhead and circuit breaker in front of one downstream service, both configured under the
+ * service name in {@code resilience4j.*} properties.
+ * <p>
+ * Calls rejected by either fail immediately with a {@link RuntimeException} instead of waiting on
+ * a service that is already known to be saturated or down.
+ */
+final class DownstreamGuard {
+
+    private final String service;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+
+    DownstreamGuard(String service, CircuitBreakerRegistry circuitBreakerRegistry, BulkheadRegistry bulkheadRegistry) {
+        this.service = service;
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(service);
+        this.bulkhead = bulkheadRegistry.bulkhead(service);
+    }
+
+    <T> T call(Supplier<T> remoteCall) {
+        // The bulkhead is outermost so that calls it turns away are not counted as failures by the breaker
+        Supplier<T> guarded = Bulkhead.decorateSupplier(bulkhead,
+                CircuitBreaker.decorateSupplier(circuitBreaker, remoteCall));
+        try {
+            return guarded.get();
+        } catch (CallNotPermittedException | BulkheadFullException ex) {
+            throw new RuntimeException("Service " + service + " indisponible, veuillez réessayer plus tard");
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package micro.mentalhealth.project.service;
+
+import lombok.extern.slf4j.Slf4j;
+import micro.mentalhealth.project.dto.AvailabilityMatrixDTO;
+import micro.mentalhealth.project.dto.AvailabilityMatrixRequest;
+import micro.mentalhealth.project.model.Seance;
+import micro.mentalhealth.project.repository.SeanceRepository;
+import micro.mentalhealth.project.service.DisponibiliteReplica.WeeklySchedule;
+import micro.mentalhealth.project.service.SeanceIntervalIndex.SeanceSlot;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Computes bookable times by subtracting booked séances from the therapists' availability.
+ */
+@Slf4j
+@Service
+public class FreeSlotService {
+
+    public static final int DEFAULT_STEP_MINUTES = 15;
+    static final int MAX_WINDOW_DAYS = 62;
+    static final int MAX_BATCH_THERAPISTS = 100;
+
+    // Stands in for a schedule that could not be loaded
+    private static final WeeklySchedule NO_AVAILABILITY =
+            new WeeklySchedule(new int[7][0][], LocalDateTime.MIN, LocalDateTime.MIN);
+
+    @Autowired
+    private DisponibiliteReplica disponibiliteReplica;
+    @Autowired
+    private SeanceIntervalIndex seanceIntervalIndex;
+    @Autowired
+    private SeanceRepository seanceRepository;
+    @Autowired
+    private TherapeuteClient therapeuteClient;
+
+    /**
+     * Start times in {@code [from, to)} at which a séance of {@code dureeMinutes} can be booked.
+     * Candidates are spaced by {@code stepMinutes} from the start of each availability range,
+     * and restart right at the end of each booked séance.
+     */
+    public List<LocalDateTime> findFreeSlots(UUID therapistId, LocalDateTime from, LocalDateTime to,
+                                             int dureeMinutes, int stepMinutes) {
+        validateWindow(from, to, dureeMinutes, stepMinutes);
+        LocalDateTime now = LocalDateTime.now();
+        if (from.isBefore(now)) {
+            from = now;
+        }
+        if (!from.isBefore(to)) {
+            return new ArrayList<>();
+        }
+
+        WeeklySchedule schedule = disponibiliteReplica.getSchedule(therapistId);
+        return scanFreeSlots(schedule, busyBlocks(therapistId, from, to), from, to, dureeMinutes, stepMinutes,
+                Integer.MAX_VALUE);
+    }
+
+    /**
+     * The first {@code limit} free start times of {@code [from, to)}, given the therapist's schedule
+     * and their merged busy blocks, as returned by {@link #busyBlocks}.
+     */
+    static List<LocalDateTime> scanFreeSlots(WeeklySchedule schedule, List<LocalDateTime[]> busy,
+                                             LocalDateTime from, LocalDateTime to,
+                                             int dureeMinutes, int stepMinutes, int limit) {
+        List<LocalDateTime> freeSlots = new ArrayList<>();
+        int next = 0;
+
+        for (LocalDate day = from.toLocalDate(); !day.atStartOfDay().isAfter(to); day = day.plusDays(1)) {
+            LocalDateTime dayStart = day.atStartOfDay();
+            for (int[] range : schedule.ranges(day.getDayOfWeek())) {
+                LocalDateTime rangeStart = dayStart.plusMinutes(range[0]);
+                LocalDateTime rangeEnd = min(dayStart.plusMinutes(range[1]), to);
+
+                LocalDateTime candidate = rangeStart;
+                if (candidate.isBefore(from)) {
+                    long minutesLate = Duration.between(rangeStart, from).toMinutes();
+                    candidate = rangeStart.plusMinutes(ceilToStep(minutesLate, stepMinutes));
+                    if (candidate.isBefore(from)) {
+                        candidate = candidate.plusMinutes(stepMinutes);
+                    }
+                }
+
+                while (!candidate.plusMinutes(dureeMinutes).isAfter(rangeEnd)) {
+                    while (next < busy.size() && !busy.get(next)[1].isAfter(candidate)) {
+                        next++;
+                    }
+                    LocalDateTime candidateEnd = candidate.plusMinutes(dureeMinutes);
+                    if (next < busy.size() && busy.get(next)[0].isBefore(candidateEnd)) {
+                        // Overlaps a booked séance: resume right where it ends.
+                        candidate = busy.get(next)[1];
+                        continue;
+                    }
+                    freeSlots.add(candidate);
+                    if (freeSlots.size() >= limit) {
+                        return freeSlots;
+                    }
+                    candidate = candidate.plusMinutes(stepMinutes);
+                }
+            }
+        }
+        return freeSlots;
+    }
+
+    /**
+     * Availability bitmaps of several therapists over the same window, with cells of
+     * {@link #DEFAULT_STEP_MINUTES}. A cell is free when it lies entirely inside an availability
+     * range, overlaps no booked séance and is not in the past. A therapist whose schedule cannot
+     * be loaded has no free cell.
+     */
+    public AvailabilityMatrixDTO buildAvailabilityMatrix(AvailabilityMatrixRequest request) {
+        List<UUID> therapistIds = request.getTherapistIds() == null ? List.of()
+                : request.getTherapistIds().stream().distinct().toList();
+        if (therapistIds.isEmpty() || therapistIds.size() > MAX_BATCH_THERAPISTS) {
+            throw new IllegalArgumentException("Between 1 and " + MAX_BATCH_THERAPISTS + " therapists are required");
+        }
+        int granularity = DEFAULT_STEP_MINUTES;
+        validateWindow(request.getFrom(), request.getTo(), Math.max(request.getDureeMinutes(), granularity), granularity);
+
+        LocalDateTime start = request.getFrom().withSecond(0).withNano(0);
+        start = start.minusMinutes(start.getMinute() % granularity);
+        int slotCount = (int) ceilToStep(Duration.between(start, request.getTo()).toMinutes(), granularity) / granularity;
+        LocalDateTime end = start.plusMinutes((long) slotCount * granularity);
+        int pastCells = (int) Math.min(slotCount,
+                Math.max(0, ceilToStep(Duration.between(start, LocalDateTime.now()).toMinutes(), granularity) / granularity));
+        int cellsNeeded = (int) ceilToStep(Math.max(request.getDureeMinutes(), 0), granularity) / granularity;
+
+        Map<UUID, WeeklySchedule> schedules = schedulesOf(therapistIds);
+        Map<UUID, List<LocalDateTime[]>> busyByTherapist = busyBlocks(therapistIds, start, end);
+        Map<UUID, long[]> bitmaps = new LinkedHashMap<>();
+        Map<UUID, LocalDateTime> nextAvailable = new LinkedHashMap<>();
+
+        for (UUID therapistId : therapistIds) {
+            WeeklySchedule schedule = schedules.getOrDefault(therapistId, NO_AVAILABILITY);
+            BitSet free = new BitSet(slotCount);
+            for (LocalDate day = start.toLocalDate(); day.atStartOfDay().isBefore(end); day = day.plusDays(1)) {
+                LocalDateTime dayStart = day.atStartOfDay();
+                for (int[] range : schedule.ranges(day.getDayOfWeek())) {
+                    long rangeStart = Duration.between(start, dayStart.plusMinutes(range[0])).toMinutes();
+                    long rangeEnd = Duration.between(start, dayStart.plusMinutes(range[1])).toMinutes();
+                    int firstCell = clamp(ceilToStep(rangeStart, granularity) / granularity, slotCount);
+                    int endCell = clamp(Math.floorDiv(rangeEnd, granularity), slotCount);
+                    if (firstCell < endCell) {
+                        free.set(firstCell, endCell);
+                    }
+                }
+            }
+            for (LocalDateTime[] block : busyByTherapist.get(therapistId)) {
+                long busyStart = Duration.between(start, block[0]).toMinutes();
+                long busyEnd = Duration.between(start, block[1]).toMinutes();
+                free.clear(clamp(Math.floorDiv(busyStart, granularity), slotCount),
+                        clamp(ceilToStep(busyEnd, granularity) / granularity, slotCount));
+            }
+            free.clear(0, pastCells);
+
+            bitmaps.put(therapistId, Arrays.copyOf(free.toLongArray(), (slotCount + 63) / 64));
+            if (cellsNeeded > 0) {
+                int first = firstRun(free, cellsNeeded, slotCount);
+                if (first >= 0) {
+                    nextAvailable.put(therapistId, start.plusMinutes((long) first * granularity));
+                }
+            }
+        }
+        return new AvailabilityMatrixDTO(start, granularity, slotCount, bitmaps, nextAvailable);
+    }
+
+    /**
+     * The replicated schedules of the therapists. Those never seen are fetched with a single bulk
+     * call rather than one call each; if it fails they are left out, and the other therapists are
+     * still answered.
+     */
+    private Map<UUID, WeeklySchedule> schedulesOf(List<UUID> therapistIds) {
+        Map<UUID, WeeklySchedule> schedules = new HashMap<>();
+        List<UUID> unknown = new ArrayList<>();
+        for (UUID therapistId : therapistIds) {
+            WeeklySchedule schedule = disponibiliteReplica.peekSchedule(therapistId);
+            if (schedule != null) {
+                schedules.put(therapistId, schedule);
+            } else {
+                unknown.add(therapistId);
+            }
+        }
+        if (unknown.isEmpty()) {
+            return schedules;
+        }
+        try {
+            disponibiliteReplica.load(therapeuteClient.getAllDisponibilites());
+        } catch (RuntimeException ex) {
+            log.warn("Could not load the schedules of {} therapists, shown as unavailable: {}", unknown.size(), ex.getMessage());
+            return schedules;
+        }
+        for (UUID therapistId : unknown) {
+            WeeklySchedule schedule = disponibiliteReplica.peekSchedule(therapistId);
+            if (schedule != null) {
+                schedules.put(therapistId, schedule);
+            }
+        }
+        return schedules;
+    }
+
+    private static int firstRun(BitSet free, int length, int limit) {
+        int from = free.nextSetBit(0);
+        while (from >= 0 && from + length <= limit) {
+            int clear = free.nextClearBit(from);
+            if (clear - from >= length) {
+                return from;
+            }
+            from = free.nextSetBit(clear);
+        }
+        return -1;
+    }
+
+    private static int clamp(long cell, int slotCount) {
+        return (int) Math.max(0, Math.min(cell, slotCount));
+    }
+
+    static void validateWindow(LocalDateTime from, LocalDateTime to, int dureeMinutes, int stepMinutes) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new IllegalArgumentException("Invalid time window");
+        }
+        if (Duration.between(from, to).toDays() > MAX_WINDOW_DAYS) {
+            throw new IllegalArgumentException("Time window cannot exceed " + MAX_WINDOW_DAYS + " days");
+        }
+        if (dureeMinutes <= 0 || stepMinutes <= 0) {
+            throw new IllegalArgumentException("Duration and step must be positive");
+        }
+    }
+
+    /**
+     * Booked intervals of the therapist overlapping {@code [from, to)}, merged into disjoint blocks
+     * sorted by start time.
+     */
+    List<LocalDateTime[]> busyBlocks(UUID therapistId, LocalDateTime from, LocalDateTime to) {
+        if (seanceIntervalIndex.covers(from)) {
+            return mergeBusy(seanceIntervalIndex.findOverlapping(therapistId, from, to));
+        }
+        return mergeBusy(toSlots(seanceRepository.findConflictingSeances(therapistId, from, to)));
+    }
+
+    /**
+     * Same as {@link #busyBlocks} for several therapists, with at most one query over the séances.
+     */
+    Map<UUID, List<LocalDateTime[]>> busyBlocks(Collection<UUID> therapistIds, LocalDateTime from, LocalDateTime to) {
+        Map<UUID, List<SeanceSlot>> slotsByTherapist = new HashMap<>();
+        if (seanceIntervalIndex.covers(from)) {
+            for (UUID therapistId : therapistIds) {
+                slotsByTherapist.put(therapistId, seanceIntervalIndex.findOverlapping(therapistId, from, to));
+            }
+        } else {
+            for (SeanceSlot slot : toSlots(seanceRepository.findConflictingSeancesForTherapeutes(therapistIds, from, to))) {
+                slotsByTherapist.computeIfAbsent(slot.therapeuteId(), id -> new ArrayList<>()).add(slot);
+            }
+        }
+        Map<UUID, List<LocalDateTime[]>> blocks = new HashMap<>();
+        for (UUID therapistId : therapistIds) {
+            blocks.put(therapistId, mergeBusy(slotsByTherapist.getOrDefault(therapistId, List.of())));
+        }
+        return blocks;
+    }
+
+    private static List<SeanceSlot> toSlots(List<Seance> seances) {
+        return seances.stream()
+                .map(s -> new SeanceSlot(s.getSeanceId(), s.getTherapeuteId(), s.getDateHeure(),
+                        s.getDateHeure().plusMinutes(s.getDureeMinutes())))
+                .sorted(Comparator.naturalOrder())
+                .toList();
+    }
+
+    private static List<LocalDateTime[]> mergeBusy(List<SeanceSlot> sortedSlots) {
+        List<LocalDateTime[]> blocks = new ArrayList<>();
+        for (SeanceSlot slot : sortedSlots) {
+            LocalDateTime[] last = blocks.isEmpty() ? null : blocks.get(blocks.size() - 1);
+            if (last != null && !slot.debut().isAfter(last[1])) {
+                last[1] = max(last[1], slot.fin());
+            } else {
+                blocks.add(new LocalDateTime[]{slot.debut(), slot.fin()});
+            }
+        }
+        return blocks;
+    }
+
+    private static long ceilToStep(long minutes, int step) {
+        return ((minutes + step - 1) / step) * step;
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+}
@@ -0,0 +1,187 @@
+package micro.mentalhealth.project.service;
+
+import lombok.extern.slf4j.Slf4j;
+import micro.mentalhealth.project.dto.NotificationRequest;
+import micro.mentalhealth.project.dto.SeanceDTO;
+import micro.mentalhealth.project.mapper.SeanceMapper;
+import micro.mentalhealth.project.model.LienVisio;
+import micro.mentalhealth.project.model.NotificationType;
+import micro.mentalhealth.project.model.Seance;
+import micro.mentalhealth.project.model.SeanceParticipant;
+import micro.mentalhealth.project.model.StatutSeance;
+import micro.mentalhealth.project.model.TypeSeance;
+import micro.mentalhealth.project.model.events.SeanceChangedEvent;
+import micro.mentalhealth.project.repository.SeanceParticipantRepository;
+import micro.mentalhealth.project.repository.SeanceRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Group séances: one therapist interval, like any séance, shared by up to {@code capacite} patients.
+ * <p>
+ * A place is taken by a conditional {@code UPDATE ... WHERE places_reservees < capacite} in a
+ * transaction that does nothing else but insert the participant row, so sign-ups never wait on the
+ * therapist's booking lock and hold the séance row only for the length of that one statement's
+ * transaction. Once a séance has been seen full, this node rejects further sign-ups from memory for
+ * {@code seance.groupe.full-cache-ms} instead of sending them to the database.
+ */
+@Slf4j
+@Service
+public class GroupSeanceService {
+
+    @Autowired
+    private SeanceRepository seanceRepository;
+    @Autowired
+    private SeanceParticipantRepository participantRepository;
+    @Autowired
+    private SeanceMapper seanceMapper;
+    @Autowired
+    private SeanceService seanceService;
+    @Autowired
+    private BookingLockManager bookingLockManager;
+    @Autowired
+    private NotificationProducer notificationProducer;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${seance.groupe.max-capacite:100}")
+    private int maxCapacite;
+
+    @Value("${seance.groupe.full-cache-ms:5000}")
+    private long fullCacheMs;
+
+    // Séances found full, with the time they were, so a burst of late sign-ups stays off the database
+    private final Map<UUID, Long> fullSince = new ConcurrentHashMap<>();
+
+    /**
+     * Schedules a group séance, directly {@link StatutSeance#PLANIFIEE}: the therapist opens it, the
+     * patients then take its places. Its slot is checked and reserved like an individual booking.
+     */
+    public SeanceDTO creerSeanceGroupe(UUID therapistId, LocalDateTime dateTime, int dureeMinutes,
+                                       TypeSeance typeSeance, int capacite) {
+        if (capacite < 2 || capacite > maxCapacite) {
+            throw new IllegalArgumentException("La capacité doit être comprise entre 2 et " + maxCapacite);
+        }
+        if (!dateTime.isAfter(LocalDateTime.now())) {
+            throw new IllegalArgumentException("La séance doit être dans le futur");
+        }
+        // Fast rejection from memory, without taking any lock
+        if (!seanceService.isTherapistAvailable(therapistId, dateTime, dureeMinutes)) {
+            throw new RuntimeException("Therapist not available");
+        }
+        return bookingLockManager.executeLocked(therapistId, () -> {
+            if (!seanceRepository.findConflictingSeances(therapistId, dateTime, dateTime.plusMinutes(dureeMinutes)).isEmpty()) {
+                throw new RuntimeException("Therapist not available");
+            }
+            Seance saved = seanceRepository.save(Seance.builder()
+                    .therapeuteId(therapistId)
+                    .capacite(capacite)
+                    .dateHeure(dateTime)
+                    .dureeMinutes(dureeMinutes)
+                    .typeSeance(typeSeance)
+                    .statutSeance(StatutSeance.PLANIFIEE)
+                    .build());
+            if (typeSeance == TypeSeance.EN_LIGNE) {
+                saved.setLienVisio(new LienVisio("https://meet.jit.si/seance-" + saved.getSeanceId()));
+            }
+            eventPublisher.publishEvent(new SeanceChangedEvent(saved, null));
+            return seanceMapper.toDTO(saved);
+        });
+    }
+
+    /**
+     * Takes a place in the group séance for the patient.
+     */
+    public SeanceDTO reserverPlace(UUID seanceId, UUID patientId) {
+        Long full = fullSince.get(seanceId);
+        if (full != null) {
+            if (System.currentTimeMillis() - full < fullCacheMs) {
+                throw new RuntimeException("La séance est complète");
+            }
+            fullSince.remove(seanceId, full);
+        }
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        boolean reserved;
+        try {
+            reserved = Boolean.TRUE.equals(transaction.execute(status -> {
+                // The participant goes first so that the séance row is locked as late, and as briefly, as possible
+                participantRepository.saveAndFlush(new SeanceParticipant(seanceId, patientId));
+                if (seanceRepository.reservePlace(seanceId, LocalDateTime.now()) == 0) {
+                    status.setRollbackOnly();
+                    return false;
+                }
+                return true;
+            }));
+        } catch (DataIntegrityViolationException ex) {
+            throw new RuntimeException("Patient déjà inscrit à cette séance");
+        }
+
+        // Read after commit, without holding anything
+        Seance seance = seanceRepository.findById(seanceId)
+                .orElseThrow(() -> new RuntimeException("Séance introuvable"));
+        if (!reserved) {
+            throw refusal(seance);
+        }
+        if (seance.getPlacesReservees() >= seance.getCapacite()) {
+            fullSince.put(seanceId, System.currentTimeMillis());
+        }
+
+        NotificationRequest request = new NotificationRequest();
+        request.setUserId(patientId);
+        request.setMessage("Your place in the group session of " + seance.getDateHeure() + " is reserved");
+        request.setType(NotificationType.SEANCE_BOOKED);
+        request.setRelatedEntityId(seanceId);
+        notificationProducer.sendNotification(request);
+        return seanceMapper.toDTO(seance);
+    }
+
+    /**
+     * Gives the patient's place back, if they held one.
+     */
+    public void annulerPlace(UUID seanceId, UUID patientId) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        boolean released = Boolean.TRUE.equals(transaction.execute(status -> {
+            if (participantRepository.deleteBySeanceIdAndPatientId(seanceId, patientId) == 0) {
+                return false;
+            }
+            seanceRepository.releasePlace(seanceId);
+            return true;
+        }));
+        if (!released) {
+            throw new RuntimeException("Aucune place réservée par ce patient pour cette séance");
+        }
+        fullSince.remove(seanceId);
+    }
+
+    public List<UUID> getParticipants(UUID seanceId) {
+        return participantRepository.findBySeanceIdOrderByInscritLe(seanceId).stream()
+                .map(SeanceParticipant::getPatientId)
+                .toList();
+    }
+
+    // Why the conditional update took no place; only failed sign-ups pay for this read
+    private RuntimeException refusal(Seance seance) {
+        if (!seance.isGroupe()) {
+            return new IllegalArgumentException("Cette séance n'est pas une séance de groupe");
+        }
+        if (seance.getStatutSeance() != StatutSeance.PLANIFIEE || !seance.getDateHeure().isAfter(LocalDateTime.now())) {
+            return new RuntimeException("La séance n'est plus ouverte aux inscriptions");
+        }
+        fullSince.put(seance.getSeanceId(), System.currentTimeMillis());
+        return new RuntimeException("La séance est complète");
+    }
+}
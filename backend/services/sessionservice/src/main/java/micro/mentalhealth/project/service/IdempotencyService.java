@@ -0,0 +1,202 @@
+package micro.mentalhealth.project.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import micro.mentalhealth.project.model.IdempotencyRecord;
+import micro.mentalhealth.project.repository.IdempotencyRecordRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Runs a request at most once per {@code Idempotency-Key} and replays its response to retries.
+ * <p>
+ * Responses are kept in the {@code idempotency_records} table for {@code idempotency.ttl-hours}, with
+ * the most recent ones also in a bounded in-memory LRU so that replays usually skip the database.
+ * The first request claims the key by inserting its row; a retry arriving while it still runs gets
+ * 409, and a key reused with different parameters gets 422. Server errors are not recorded, so the
+ * request can be retried with the same key.
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    @Autowired
+    private IdempotencyRecordRepository recordRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${idempotency.ttl-hours:24}")
+    private long ttlHours;
+
+    // A claim older than this is assumed abandoned and may be taken over
+    @Value("${idempotency.claim-timeout-seconds:60}")
+    private long claimTimeoutSeconds;
+
+    private final Map<String, StoredResponse> recent;
+
+    private record StoredResponse(String fingerprint, int statusCode, String body, LocalDateTime expiresAt) {}
+
+    public IdempotencyService(@Value("${idempotency.cache.max-entries:10000}") int maxEntries) {
+        this.recent = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Runs {@code action} unless a request with the same {@code key} on the same {@code endpoint}
+     * already did, in which case its response is returned instead.
+     *
+     * @param fingerprintParts the request parameters; a replay must carry the same ones
+     */
+    public <T> ResponseEntity<T> execute(String endpoint, String key, Class<T> bodyType,
+                                         Supplier<ResponseEntity<T>> action, Object... fingerprintParts) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        String id = endpoint + ":" + key;
+        String fingerprint = fingerprint(fingerprintParts);
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+
+        StoredResponse stored = cached(id, now);
+        if (stored == null) {
+            Optional<IdempotencyRecord> existing = recordRepository.findById(id);
+            if (existing.isPresent() && existing.get().getStatusCode() != null
+                    && existing.get().getExpiresAt().isAfter(now)) {
+                stored = remember(id, existing.get());
+            } else if (!claim(id, fingerprint, now, existing.isPresent())) {
+                // Claimed by another request meanwhile: replay it if it has completed since
+                stored = recordRepository.findById(id)
+                        .filter(r -> r.getStatusCode() != null)
+                        .map(r -> remember(id, r))
+                        .orElse(null);
+                if (stored == null) {
+                    return ResponseEntity.status(HttpStatus.CONFLICT).build();
+                }
+            } else {
+                return runClaimed(id, fingerprint, now, action);
+            }
+        }
+        if (!stored.fingerprint().equals(fingerprint)) {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).build();
+        }
+        return replay(stored, bodyType);
+    }
+
+    private <T> ResponseEntity<T> runClaimed(String id, String fingerprint, LocalDateTime claimedAt,
+                                             Supplier<ResponseEntity<T>> action) {
+        ResponseEntity<T> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException ex) {
+            recordRepository.release(id, claimedAt);
+            throw ex;
+        }
+        if (response.getStatusCode().is5xxServerError()) {
+            recordRepository.release(id, claimedAt);
+            return response;
+        }
+        String body = serialize(response.getBody());
+        LocalDateTime expiresAt = claimedAt.plusHours(ttlHours);
+        if (recordRepository.complete(id, claimedAt, response.getStatusCode().value(), body) == 0) {
+            log.warn("Idempotency claim {} was taken over before its response could be stored", id);
+        }
+        synchronized (recent) {
+            recent.put(id, new StoredResponse(fingerprint, response.getStatusCode().value(), body, expiresAt));
+        }
+        return response;
+    }
+
+    private boolean claim(String id, String fingerprint, LocalDateTime now, boolean recordExists) {
+        LocalDateTime expiresAt = now.plusHours(ttlHours);
+        if (recordExists) {
+            return recordRepository.reclaim(id, fingerprint, now, expiresAt,
+                    now.minusSeconds(claimTimeoutSeconds)) == 1;
+        }
+        try {
+            recordRepository.saveAndFlush(new IdempotencyRecord(id, fingerprint, now, expiresAt));
+            return true;
+        } catch (DataIntegrityViolationException ex) {
+            return false;
+        }
+    }
+
+    private StoredResponse cached(String id, LocalDateTime now) {
+        synchronized (recent) {
+            StoredResponse stored = recent.get(id);
+            if (stored != null && !stored.expiresAt().isAfter(now)) {
+                recent.remove(id);
+                return null;
+            }
+            return stored;
+        }
+    }
+
+    private StoredResponse remember(String id, IdempotencyRecord record) {
+        StoredResponse stored = new StoredResponse(record.getFingerprint(), record.getStatusCode(),
+                record.getResponseBody(), record.getExpiresAt());
+        synchronized (recent) {
+            recent.put(id, stored);
+        }
+        return stored;
+    }
+
+    private <T> ResponseEntity<T> replay(StoredResponse stored, Class<T> bodyType) {
+        try {
+            T body = stored.body() != null ? objectMapper.readValue(stored.body(), bodyType) : null;
+            return ResponseEntity.status(stored.statusCode()).header(REPLAYED_HEADER, "true").body(body);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Réponse enregistrée illisible", ex);
+        }
+    }
+
+    private String serialize(Object body) {
+        try {
+            return body != null ? objectMapper.writeValueAsString(body) : null;
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Réponse impossible à enregistrer", ex);
+        }
+    }
+
+    private static String fingerprint(Object... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Object part : parts) {
+                digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.cleanup-interval-ms:3600000}")
+    public void deleteExpired() {
+        int deleted = recordRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.info("Deleted {} expired idempotency records", deleted);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package micro.mentalhealth.project.service;
+
+import micro.mentalhealth.project.dto.MatchDTO;
+import micro.mentalhealth.project.dto.MatchingRequest;
+import micro.mentalhealth.project.dto.MatchingRequest.TimeWindow;
+import micro.mentalhealth.project.service.DisponibiliteReplica.WeeklySchedule;
+import micro.mentalhealth.project.service.ProfilReplica.TherapistProfile;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+
+/**
+ * Proposes the best (therapist, time) pairs for a patient.
+ * <p>
+ * Therapists are filtered on specialty, language and budget from {@link ProfilReplica}, then ranked by
+ * how early they can be booked in the patient's windows, how well their price fits and their
+ * experience. Everything but the booked séances is read from the local replicas, and those come from
+ * {@link SeanceIntervalIndex} for the near future, so a search makes no call to therapeute-service.
+ * <p>
+ * Candidates are visited by decreasing upper bound of their score, the one they would get if free at
+ * the very start of the windows; only the best {@code k} found so far are kept, and the search stops
+ * as soon as no remaining candidate can beat the worst of them.
+ */
+@Service
+public class MatchingService {
+
+    public static final int DEFAULT_K = 10;
+    static final int MAX_K = 50;
+    static final int MAX_WINDOWS = 20;
+    static final int MAX_EXPERIENCE_YEARS = 20;
+
+    static final double EARLINESS_WEIGHT = 0.5;
+    static final double PRICE_WEIGHT = 0.3;
+    static final double EXPERIENCE_WEIGHT = 0.2;
+
+    private static final Comparator<MatchDTO> WORST_FIRST = Comparator
+            .comparingDouble(MatchDTO::score)
+            .thenComparing(MatchDTO::debut, Comparator.reverseOrder());
+
+    @Autowired
+    private ProfilReplica profilReplica;
+    @Autowired
+    private DisponibiliteReplica disponibiliteReplica;
+    @Autowired
+    private FreeSlotService freeSlotService;
+
+    private record Candidate(TherapistProfile profile, WeeklySchedule schedule, float prix, double upperBound) {}
+
+    public List<MatchDTO> match(MatchingRequest request) {
+        int k = request.getK() == null ? DEFAULT_K : request.getK();
+        if (k < 1 || k > MAX_K) {
+            throw new IllegalArgumentException("k must be between 1 and " + MAX_K);
+        }
+        if (request.getBudget() != null && request.getBudget() <= 0) {
+            throw new IllegalArgumentException("Budget must be positive");
+        }
+        int dureeMinutes = request.getDureeMinutes();
+        int step = FreeSlotService.DEFAULT_STEP_MINUTES;
+        List<TimeWindow> windows = windows(request.getFenetres(), dureeMinutes, step);
+        if (windows.isEmpty()) {
+            return List.of();
+        }
+        LocalDateTime from = windows.get(0).getFrom();
+        LocalDateTime to = windows.stream().map(TimeWindow::getTo).max(Comparator.naturalOrder()).orElseThrow();
+        FreeSlotService.validateWindow(from, to, dureeMinutes, step);
+        double spanMinutes = Math.max(1, Duration.between(from, to).toMinutes());
+
+        List<Candidate> candidates = candidates(request, dureeMinutes);
+        PriorityQueue<MatchDTO> best = new PriorityQueue<>(k + 1, WORST_FIRST);
+
+        for (int start = 0; start < candidates.size(); start += FreeSlotService.MAX_BATCH_THERAPISTS) {
+            List<Candidate> batch = candidates.subList(start,
+                    Math.min(start + FreeSlotService.MAX_BATCH_THERAPISTS, candidates.size()));
+            if (best.size() == k && batch.get(0).upperBound() <= best.peek().score()) {
+                break;
+            }
+            Map<UUID, List<LocalDateTime[]>> busy = freeSlotService.busyBlocks(
+                    batch.stream().map(c -> c.profile().therapeuteId()).toList(), from, to);
+
+            for (Candidate candidate : batch) {
+                if (best.size() == k && candidate.upperBound() <= best.peek().score()) {
+                    break; // sorted by upper bound: nobody after this one can enter either
+                }
+                UUID therapistId = candidate.profile().therapeuteId();
+                LocalDateTime debut = firstFreeSlot(candidate.schedule(), busy.get(therapistId), windows, dureeMinutes, step);
+                if (debut == null) {
+                    continue;
+                }
+                double earliness = 1 - Duration.between(from, debut).toMinutes() / spanMinutes;
+                double score = candidate.upperBound() - EARLINESS_WEIGHT * (1 - earliness);
+                MatchDTO match = new MatchDTO(therapistId, debut, dureeMinutes, candidate.prix(), score);
+                if (best.size() < k) {
+                    best.add(match);
+                } else if (WORST_FIRST.compare(match, best.peek()) > 0) {
+                    best.poll();
+                    best.add(match);
+                }
+            }
+        }
+
+        List<MatchDTO> ranked = new ArrayList<>(best);
+        ranked.sort(WORST_FIRST.reversed());
+        return ranked;
+    }
+
+    // The windows that are not entirely in the past, starting no earlier than now, sorted by start
+    private static List<TimeWindow> windows(List<TimeWindow> requested, int dureeMinutes, int step) {
+        if (requested == null || requested.isEmpty() || requested.size() > MAX_WINDOWS) {
+            throw new IllegalArgumentException("Between 1 and " + MAX_WINDOWS + " time windows are required");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<TimeWindow> windows = new ArrayList<>();
+        for (TimeWindow window : requested) {
+            FreeSlotService.validateWindow(window.getFrom(), window.getTo(), dureeMinutes, step);
+            LocalDateTime from = window.getFrom().isBefore(now) ? now : window.getFrom();
+            if (from.isBefore(window.getTo())) {
+                windows.add(new TimeWindow(from, window.getTo()));
+            }
+        }
+        windows.sort(Comparator.comparing(TimeWindow::getFrom));
+        return windows;
+    }
+
+    // Therapists matching the criteria, with the best score each could get, highest first
+    private List<Candidate> candidates(MatchingRequest request, int dureeMinutes) {
+        String specialite = request.getSpecialite() == null || request.getSpecialite().isBlank()
+                ? null : TherapistProfile.normalize(request.getSpecialite());
+        String langue = request.getLangue() == null || request.getLangue().isBlank()
+                ? null : TherapistProfile.normalize(request.getLangue());
+        Float budget = request.getBudget();
+
+        List<TherapistProfile> eligible = new ArrayList<>();
+        float maxPrix = 0;
+        for (TherapistProfile profile : profilReplica.getProfiles()) {
+            if (!profile.actif() || profile.prixParHeure() == null
+                    || (specialite != null && !profile.specialites().contains(specialite))
+                    || (langue != null && !profile.langues().contains(langue))) {
+                continue;
+            }
+            float prix = prix(profile, dureeMinutes);
+            if (budget != null && prix > budget) {
+                continue;
+            }
+            eligible.add(profile);
+            maxPrix = Math.max(maxPrix, prix);
+        }
+
+        List<Candidate> candidates = new ArrayList<>(eligible.size());
+        for (TherapistProfile profile : eligible) {
+            WeeklySchedule schedule = disponibiliteReplica.peekSchedule(profile.therapeuteId());
+            if (schedule == null || schedule.isEmpty()) {
+                continue;
+            }
+            float prix = prix(profile, dureeMinutes);
+            // Without a budget, prices are compared to the most expensive of the eligible therapists
+            float reference = budget != null ? budget : maxPrix;
+            double priceFit = reference > 0 ? 1 - prix / reference : 1;
+            double experienceFit = Math.min(Math.max(profile.anneesExperience(), 0), MAX_EXPERIENCE_YEARS)
+                    / (double) MAX_EXPERIENCE_YEARS;
+            double upperBound = EARLINESS_WEIGHT + PRICE_WEIGHT * priceFit + EXPERIENCE_WEIGHT * experienceFit;
+            candidates.add(new Candidate(profile, schedule, prix, upperBound));
+        }
+        candidates.sort(Comparator.comparingDouble(Candidate::upperBound).reversed());
+        return candidates;
+    }
+
+    private static LocalDateTime firstFreeSlot(WeeklySchedule schedule, List<LocalDateTime[]> busy,
+                                               List<TimeWindow> windows, int dureeMinutes, int step) {
+        LocalDateTime first = null;
+        for (TimeWindow window : windows) {
+            if (first != null && !window.getFrom().isBefore(first)) {
+                break; // windows are sorted by start: none of the others can do better
+            }
+            List<LocalDateTime> slots = FreeSlotService.scanFreeSlots(schedule, busy, window.getFrom(), window.getTo(),
+                    dureeMinutes, step, 1);
+            if (!slots.isEmpty() && (first == null || slots.get(0).isBefore(first))) {
+                first = slots.get(0);
+            }
+        }
+        return first;
+    }
+
+    private static float prix(TherapistProfile profile, int dureeMinutes) {
+        return (float) (profile.prixParHeure() * dureeMinutes / 60.0);
+    }
+}
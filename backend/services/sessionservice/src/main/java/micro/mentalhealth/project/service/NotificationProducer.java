@@ -2,20 +2,30 @@ package micro.mentalhealth.project.service;
 
 import micro.mentalhealth.project.config.RabbitMQConfig;
 import micro.mentalhealth.project.dto.NotificationRequest;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
 public class NotificationProducer {
     @Autowired
-    private RabbitTemplate rabbitTemplate;
+    private OutboxService outboxService;
 
+    // Written to the outbox in the caller's transaction; OutboxRelay publishes it after commit
     public void sendNotification(NotificationRequest request) {
-        rabbitTemplate.convertAndSend(
+        outboxService.enqueue(
                 RabbitMQConfig.NOTIFICATION_EXCHANGE,
                 RabbitMQConfig.NOTIFICATION_ROUTING_KEY,
                 request
         );
     }
-}
\ No newline at end of file
+
+    public void sendNotifications(List<NotificationRequest> requests) {
+        outboxService.enqueueAll(
+                RabbitMQConfig.NOTIFICATION_EXCHANGE,
+                RabbitMQConfig.NOTIFICATION_ROUTING_KEY,
+                requests
+        );
+    }
+}
@@ -0,0 +1,72 @@
+package micro.mentalhealth.project.service;
+
+import lombok.extern.slf4j.Slf4j;
+import micro.mentalhealth.project.model.OutboxMessage;
+import micro.mentalhealth.project.repository.OutboxMessageRepository;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.AbstractJavaTypeMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Drains the outbox table to RabbitMQ.
+ * <p>
+ * Each tick locks the oldest batch of messages, publishes all of them on one channel, waits once
+ * for the broker to confirm the whole batch and only then deletes the rows. If the broker does not
+ * confirm in time the transaction rolls back and the batch is sent again on the next tick, so
+ * delivery is at least once; the outbox id is sent as the AMQP message id for consumers that want
+ * to drop duplicates.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+    @Autowired
+    private RabbitTemplate rabbitTemplate;
+
+    @Value("${outbox.relay.batch-size:200}")
+    private int batchSize;
+
+    @Value("${outbox.relay.confirm-timeout-ms:5000}")
+    private long confirmTimeoutMs;
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:500}")
+    @Transactional
+    public void relay() {
+        List<OutboxMessage> batch = outboxMessageRepository.lockOldest(PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return;
+        }
+        rabbitTemplate.invoke(operations -> {
+            for (OutboxMessage outboxMessage : batch) {
+                operations.send(outboxMessage.getExchange(), outboxMessage.getRoutingKey(), toMessage(outboxMessage));
+            }
+            operations.waitForConfirmsOrDie(confirmTimeoutMs);
+            return null;
+        });
+        outboxMessageRepository.deleteAllInBatch(batch);
+        log.debug("Relayed {} outbox messages", batch.size());
+    }
+
+    private static Message toMessage(OutboxMessage outboxMessage) {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        properties.setContentEncoding(StandardCharsets.UTF_8.name());
+        properties.setMessageId(outboxMessage.getId().toString());
+        if (outboxMessage.getPayloadType() != null) {
+            properties.setHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME, outboxMessage.getPayloadType());
+        }
+        return new Message(outboxMessage.getPayload().getBytes(StandardCharsets.UTF_8), properties);
+    }
+}
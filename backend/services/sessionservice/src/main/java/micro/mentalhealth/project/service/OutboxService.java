@@ -0,0 +1,54 @@
+package micro.mentalhealth.project.service;
+
+import micro.mentalhealth.project.model.OutboxMessage;
+import micro.mentalhealth.project.repository.OutboxMessageRepository;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.AbstractJavaTypeMapper;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Queues RabbitMQ messages in the outbox table instead of sending them, so that they leave only if
+ * the current transaction commits and the caller never waits on the broker.
+ */
+@Service
+public class OutboxService {
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+    @Autowired
+    private MessageConverter messageConverter;
+
+    @Transactional
+    public void enqueue(String exchange, String routingKey, Object payload) {
+        outboxMessageRepository.save(toOutboxMessage(exchange, routingKey, payload));
+    }
+
+    /**
+     * Queues several messages at once; the rows are inserted as JDBC batches.
+     */
+    @Transactional
+    public void enqueueAll(String exchange, String routingKey, List<?> payloads) {
+        List<OutboxMessage> messages = new ArrayList<>(payloads.size());
+        for (Object payload : payloads) {
+            messages.add(toOutboxMessage(exchange, routingKey, payload));
+        }
+        outboxMessageRepository.saveAll(messages);
+    }
+
+    private OutboxMessage toOutboxMessage(String exchange, String routingKey, Object payload) {
+        // Converted now with the same converter as a direct send, so the relay only copies bytes
+        Message message = messageConverter.toMessage(payload, new MessageProperties());
+        Object typeId = message.getMessageProperties().getHeaders().get(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME);
+        return new OutboxMessage(exchange, routingKey,
+                typeId != null ? typeId.toString() : null,
+                new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,174 @@
+package micro.mentalhealth.project.service;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Calls to payment-service, each running on its own virtual thread so callers can start several
+ * of them at once and only wait where they need the result.
+ * <p>
+ * Identical lookups that are in flight at the same time share a single request. Every request goes
+ * through the payment-service bulkhead and circuit breaker.
+ */
+@Component
+public class PaymentClient {
+
+    static final String SERVICE = "payment-service";
+    private static final String PAYMENT_SERVICE = "http://payment-service/api";
+
+    private final RestTemplate restTemplate;
+    private final DownstreamGuard guard;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, CompletableFuture<?>> inFlight = new ConcurrentHashMap<>();
+
+    @Autowired
+    public PaymentClient(@Qualifier("paymentRestTemplate") RestTemplate restTemplate,
+                         CircuitBreakerRegistry circuitBreakerRegistry,
+                         BulkheadRegistry bulkheadRegistry) {
+        this.restTemplate = restTemplate;
+        this.guard = new DownstreamGuard(SERVICE, circuitBreakerRegistry, bulkheadRegistry);
+    }
+
+    public CompletableFuture<PaymentResponse> getPayment(UUID paymentId) {
+        return lookup(PAYMENT_SERVICE + "/payments/" + paymentId, PaymentResponse.class);
+    }
+
+    /**
+     * The payment made for a séance, or {@code null} if there is none. The response already carries
+     * the amount, so no second lookup by payment id is needed.
+     */
+    public CompletableFuture<PaymentResponse> getPaymentBySeanceId(UUID seanceId) {
+        return lookup(PAYMENT_SERVICE + "/payments/byseance/" + seanceId, PaymentResponse.class);
+    }
+
+    public CompletableFuture<RemboursementDTO> createRemboursement(CreateRemboursementRequest request) {
+        return async(() -> {
+            ResponseEntity<RemboursementDTO> response = guard.call(() -> restTemplate.postForEntity(
+                    PAYMENT_SERVICE + "/remboursements", request, RemboursementDTO.class));
+            if (!response.getStatusCode().is2xxSuccessful()) {
+                throw new RuntimeException("Échec du remboursement");
+            }
+            return response.getBody();
+        });
+    }
+
+    /**
+     * Waits for {@code future} and rethrows its failure as it was raised on the virtual thread.
+     */
+    public static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException | CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Appel au service de paiement interrompu", ex);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> lookup(String url, Class<T> type) {
+        CompletableFuture<T> created = new CompletableFuture<>();
+        CompletableFuture<T> existing = (CompletableFuture<T>) inFlight.putIfAbsent(url, created);
+        if (existing != null) {
+            return existing;
+        }
+        executor.execute(() -> {
+            try {
+                created.complete(guard.call(() -> restTemplate.getForObject(url, type)));
+            } catch (Exception ex) {
+                created.completeExceptionally(ex);
+            } finally {
+                inFlight.remove(url, created);
+            }
+        });
+        return created;
+    }
+
+    private <T> CompletableFuture<T> async(Supplier<T> call) {
+        return CompletableFuture.supplyAsync(call, executor);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    static class PaymentResponse {
+        private UUID id;
+        private UUID seanceId;
+        private String paymentStatus;
+        private float amount;
+
+        public UUID getId() { return id; }
+        public void setId(UUID id) { this.id = id; }
+
+        public UUID getSeanceId() { return seanceId; }
+        public void setSeanceId(UUID seanceId) { this.seanceId = seanceId; }
+
+        public String getPaymentStatus() { return paymentStatus; }
+        public void setPaymentStatus(String paymentStatus) { this.paymentStatus = paymentStatus; }
+
+        public float getAmount() { return amount; }
+        public void setAmount(float amount) { this.amount = amount; }
+    }
+
+    static class CreateRemboursementRequest {
+        private UUID paiementId;
+        private String motif;
+        private float montant;
+
+        public CreateRemboursementRequest(UUID paiementId, String motif, float montant) {
+            this.paiementId = paiementId;
+            this.motif = motif;
+            this.montant = montant;
+        }
+
+        public UUID getPaiementId() { return paiementId; }
+        public void setPaiementId(UUID paiementId) { this.paiementId = paiementId; }
+
+        public String getMotif() { return motif; }
+        public void setMotif(String motif) { this.motif = motif; }
+
+        public float getMontant() { return montant; }
+        public void setMontant(float montant) { this.montant = montant; }
+    }
+
+    static class RemboursementDTO {
+        private UUID id;
+        private UUID paiementId;
+        private String motif;
+        private String statut;
+
+        public UUID getId() { return id; }
+        public void setId(UUID id) { this.id = id; }
+
+        public UUID getPaiementId() { return paiementId; }
+        public void setPaiementId(UUID paiementId) { this.paiementId = paiementId; }
+
+        public String getMotif() { return motif; }
+        public void setMotif(String motif) { this.motif = motif; }
+
+        public String getStatut() { return statut; }
+        public void setStatut(String statut) { this.statut = statut; }
+    }
+}
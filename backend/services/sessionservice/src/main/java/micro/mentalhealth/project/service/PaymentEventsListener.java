@@ -0,0 +1,92 @@
+package micro.mentalhealth.project.service;
+
+import lombok.extern.slf4j.Slf4j;
+import micro.mentalhealth.project.config.RabbitMQConfig;
+import micro.mentalhealth.project.dto.PaymentSucceededMessage;
+import micro.mentalhealth.project.service.PaymentClient.CreateRemboursementRequest;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Confirms the séances whose payment has succeeded, a batch of payment events at a time.
+ * <p>
+ * A payment that arrives once its hold has expired, and the séance is cancelled, is refunded: the
+ * slot may already have gone to someone else.
+ * <p>
+ * Delivery is at-least-once: a batch that fails is redelivered whole, and séances it already
+ * confirmed are simply skipped the second time. Payments it already refunded are refused by
+ * payment-service the second time, which is taken as done.
+ */
+@Slf4j
+@Component
+public class PaymentEventsListener {
+
+    static final String LATE_PAYMENT_MOTIF = "Paiement reçu après l'expiration de la réservation";
+
+    @Autowired
+    private SeanceService seanceService;
+    @Autowired
+    private PaymentClient paymentClient;
+
+    @RabbitListener(queues = RabbitMQConfig.PAYMENT_SUCCEEDED_QUEUE, containerFactory = "paymentBatchListenerFactory")
+    public void onPaymentsSucceeded(List<PaymentSucceededMessage> messages) {
+        List<UUID> seanceIds = messages.stream()
+                .map(PaymentSucceededMessage::getSeanceId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        if (seanceIds.isEmpty()) {
+            return;
+        }
+        List<UUID> annulees = seanceService.confirmPaidSeances(seanceIds);
+        if (!annulees.isEmpty()) {
+            refundLatePayments(messages, new HashSet<>(annulees));
+        }
+    }
+
+    // Runs once the confirmations are committed, so a failed refund only redelivers the batch
+    private void refundLatePayments(List<PaymentSucceededMessage> messages, Set<UUID> annulees) {
+        List<PaymentSucceededMessage> late = new ArrayList<>();
+        List<CompletableFuture<PaymentClient.RemboursementDTO>> refunds = new ArrayList<>();
+        for (PaymentSucceededMessage message : messages) {
+            if (message.getPaymentId() == null || message.getAmount() == null || !annulees.contains(message.getSeanceId())) {
+                continue;
+            }
+            log.warn("Payment {} of patient {} arrived after séance {} was cancelled, refunding it",
+                    message.getPaymentId(), message.getPatientId(), message.getSeanceId());
+            late.add(message);
+            refunds.add(paymentClient.createRemboursement(
+                    new CreateRemboursementRequest(message.getPaymentId(), LATE_PAYMENT_MOTIF, message.getAmount())));
+        }
+
+        RuntimeException failure = null;
+        for (int i = 0; i < refunds.size(); i++) {
+            PaymentSucceededMessage message = late.get(i);
+            try {
+                PaymentClient.await(refunds.get(i));
+                log.info("Refunded payment {} for cancelled séance {}", message.getPaymentId(), message.getSeanceId());
+            } catch (HttpClientErrorException ex) {
+                // Already refunded, by an earlier delivery or when the séance was cancelled
+                log.info("Payment {} for cancelled séance {} not refunded: {}",
+                        message.getPaymentId(), message.getSeanceId(), ex.getStatusCode());
+            } catch (RuntimeException ex) {
+                log.error("Could not refund payment {} for cancelled séance {}: {}",
+                        message.getPaymentId(), message.getSeanceId(), ex.getMessage());
+                failure = ex;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
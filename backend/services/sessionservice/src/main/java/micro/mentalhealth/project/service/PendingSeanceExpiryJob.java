@@ -0,0 +1,68 @@
+package micro.mentalhealth.project.service;
+
+import lombok.extern.slf4j.Slf4j;
+import micro.mentalhealth.project.model.Seance;
+import micro.mentalhealth.project.model.StatutSeance;
+import micro.mentalhealth.project.model.events.SeanceChangedEvent;
+import micro.mentalhealth.project.repository.SeanceRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Releases the slots of séances left in {@link StatutSeance#EN_ATTENTE_PAIEMENT} by patients who
+ * never completed checkout.
+ * <p>
+ * Every tick, the oldest holds created more than {@code seance.hold.ttl-minutes} ago are locked
+ * (skipping rows another node or a payment confirmation is working on) and cancelled with a single
+ * bulk update. The released séances are then announced so the interval index frees their slots.
+ * <p>
+ * The occurrences of a recurring series are paid one by one, like single bookings, but a patient
+ * cannot be expected to pay a whole year of séances within the TTL. Their holds are therefore
+ * exempt from it until the occurrence starts within {@code seance.hold.series-lead-hours}; from
+ * then on, an unpaid occurrence is released like any other hold.
+ */
+@Slf4j
+@Component
+public class PendingSeanceExpiryJob {
+
+    @Autowired
+    private SeanceRepository seanceRepository;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${seance.hold.ttl-minutes:15}")
+    private long ttlMinutes;
+
+    @Value("${seance.hold.expiry-batch-size:500}")
+    private int batchSize;
+
+    @Value("${seance.hold.series-lead-hours:48}")
+    private long seriesLeadHours;
+
+    @Scheduled(fixedDelayString = "${seance.hold.expiry-interval-ms:30000}")
+    @Transactional
+    public void releaseExpiredHolds() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Seance> expired = seanceRepository.lockByStatutSeanceCreatedBefore(
+                StatutSeance.EN_ATTENTE_PAIEMENT, now.minusMinutes(ttlMinutes), now.plusHours(seriesLeadHours),
+                PageRequest.of(0, batchSize));
+        if (expired.isEmpty()) {
+            return;
+        }
+        List<UUID> ids = expired.stream().map(Seance::getSeanceId).toList();
+        int released = seanceRepository.updateStatutSeance(ids, StatutSeance.EN_ATTENTE_PAIEMENT,
+                StatutSeance.ANNULEE, now);
+        // The rows are locked, so every one of them was updated and can be reported as released
+        expired.forEach(seance -> eventPublisher.publishEvent(SeanceChangedEvent.expired(seance)));
+        log.info("Released {} unpaid séance holds older than {} minutes", released, ttlMinutes);
+    }
+}
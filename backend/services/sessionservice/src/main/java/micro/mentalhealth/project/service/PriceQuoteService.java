@@ -0,0 +1,106 @@
+package micro.mentalhealth.project.service;
+
+import micro.mentalhealth.project.dto.PriceQuoteDTO;
+import micro.mentalhealth.project.dto.SeanceDTO;
+import micro.mentalhealth.project.model.Seance;
+import micro.mentalhealth.project.model.StatutSeance;
+import micro.mentalhealth.project.model.TypeSeance;
+import micro.mentalhealth.project.repository.SeanceRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Issues signed price quotes, so that payment-service can check the amount it is asked to charge
+ * without looking the price up again.
+ * <p>
+ * A quote is issued to the patient of one pending séance, at its therapist and duration, and can only
+ * pay for that séance. A token is {@code base64url(payload) + "." + base64url(HMAC-SHA256(payload))},
+ * where the payload is {@code v3|seanceId|patientId|therapistId|dureeMinutes|amount|expiresAtEpochSeconds}.
+ * The key ({@code pricing.quote.secret}) is shared with payment-service only.
+ */
+@Service
+public class PriceQuoteService {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final String VERSION = "v3";
+
+    @Autowired
+    private SeanceService seanceService;
+    @Autowired
+    private SeanceRepository seanceRepository;
+
+    @Value("${pricing.quote.secret}")
+    private String secret;
+
+    @Value("${pricing.quote.ttl-minutes:30}")
+    private long ttlMinutes;
+
+    /**
+     * Price of a séance of {@code dureeMinutes} with this therapist, for display only: it carries no token.
+     */
+    public PriceQuoteDTO estimate(UUID therapistId, int dureeMinutes) {
+        if (dureeMinutes <= 0) {
+            throw new IllegalArgumentException("Duration must be positive");
+        }
+        float amount = seanceService.calculateAmount(therapistId, dureeMinutes);
+        return new PriceQuoteDTO(null, therapistId, dureeMinutes, amount, null, null);
+    }
+
+    /**
+     * Holds the slot for the patient and returns the pending séance with its signed quote, so checkout
+     * goes straight to payment. The price is looked up once, before the hold: a failed lookup holds
+     * nothing.
+     */
+    public SeanceDTO reserve(UUID therapistId, UUID patientId, LocalDateTime dateTime, int dureeMinutes,
+                             TypeSeance typeSeance) {
+        float amount = seanceService.calculateAmount(therapistId, dureeMinutes);
+        SeanceDTO seance = seanceService.createPendingSeance(therapistId, patientId, dateTime, dureeMinutes, typeSeance);
+        seance.setQuote(sign(seance.getSeanceId(), patientId, therapistId, dureeMinutes, amount));
+        return seance;
+    }
+
+    /**
+     * Signed quote for a séance awaiting payment that was not booked through {@link #reserve}, such
+     * as a waitlist offer or a series occurrence, at the therapist and duration it was booked with.
+     */
+    public PriceQuoteDTO quote(UUID seanceId) {
+        Seance seance = seanceRepository.findById(seanceId)
+                .orElseThrow(() -> new IllegalArgumentException("Séance introuvable"));
+        if (seance.getStatutSeance() != StatutSeance.EN_ATTENTE_PAIEMENT) {
+            throw new IllegalArgumentException("La séance n'est pas en attente de paiement");
+        }
+        float amount = seanceService.calculateAmount(seance.getTherapeuteId(), seance.getDureeMinutes());
+        return sign(seanceId, seance.getPatientId(), seance.getTherapeuteId(), seance.getDureeMinutes(), amount);
+    }
+
+    private PriceQuoteDTO sign(UUID seanceId, UUID patientId, UUID therapistId, int dureeMinutes, float amount) {
+        Instant expiresAt = Instant.now().plus(ttlMinutes, ChronoUnit.MINUTES).truncatedTo(ChronoUnit.SECONDS);
+        String payload = String.join("|", VERSION, seanceId.toString(), patientId.toString(), therapistId.toString(),
+                Integer.toString(dureeMinutes), Float.toString(amount), Long.toString(expiresAt.getEpochSecond()));
+        Base64.Encoder base64 = Base64.getUrlEncoder().withoutPadding();
+        String token = base64.encodeToString(payload.getBytes(StandardCharsets.UTF_8))
+                + "." + base64.encodeToString(hmac(payload));
+        return new PriceQuoteDTO(seanceId, therapistId, dureeMinutes, amount, expiresAt, token);
+    }
+
+    private byte[] hmac(String payload) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM));
+            return mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("Impossible de signer le devis", ex);
+        }
+    }
+}
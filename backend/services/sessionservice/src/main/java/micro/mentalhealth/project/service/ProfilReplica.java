@@ -0,0 +1,111 @@
+package micro.mentalhealth.project.service;
+
+import lombok.extern.slf4j.Slf4j;
+import micro.mentalhealth.project.dto.ProfilChangedMessage;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Local replica of the therapists' profiles, as far as matching needs them.
+ * <p>
+ * At startup, and then every {@code matching.replica.refresh-interval-ms}, the profiles of every
+ * validated therapist and every weekly schedule are fetched with one call each, which also fills
+ * {@link DisponibiliteReplica}; in between, therapeute-service broadcasts each profile change.
+ * A search therefore never calls therapeute-service.
+ */
+@Slf4j
+@Component
+public class ProfilReplica {
+
+    @Autowired
+    private TherapeuteClient therapeuteClient;
+    @Autowired
+    private DisponibiliteReplica disponibiliteReplica;
+
+    private final Map<UUID, TherapistProfile> profiles = new ConcurrentHashMap<>();
+
+    public Collection<TherapistProfile> getProfiles() {
+        return profiles.values();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        refresh();
+    }
+
+    @Scheduled(initialDelayString = "${matching.replica.refresh-interval-ms:900000}",
+            fixedDelayString = "${matching.replica.refresh-interval-ms:900000}")
+    public void refresh() {
+        try {
+            List<ProfilChangedMessage> snapshot = therapeuteClient.getMatchingProfiles();
+            disponibiliteReplica.load(therapeuteClient.getAllDisponibilites());
+
+            Map<UUID, TherapistProfile> fresh = new HashMap<>();
+            for (ProfilChangedMessage message : snapshot) {
+                fresh.put(message.getTherapeuteId(), TherapistProfile.of(message));
+            }
+            // Therapists missing from the snapshot are no longer validated, unless a newer message says otherwise
+            LocalDateTime snapshotAt = snapshot.isEmpty() ? LocalDateTime.now() : snapshot.get(0).getChangedAt();
+            profiles.entrySet().removeIf(e -> !fresh.containsKey(e.getKey()) && e.getValue().changedAt().isBefore(snapshotAt));
+            fresh.forEach((id, profile) -> profiles.merge(id, profile, TherapistProfile::newest));
+            log.info("Profile replica refreshed with {} validated therapists", fresh.size());
+        } catch (RuntimeException ex) {
+            log.warn("Could not refresh the profile replica, keeping {} cached profiles: {}", profiles.size(), ex.getMessage());
+        }
+    }
+
+    @RabbitListener(queues = "#{profilQueue.name}")
+    public void onProfilChanged(ProfilChangedMessage message) {
+        // Messages may be redelivered out of order: keep whichever version is the most recent.
+        profiles.merge(message.getTherapeuteId(), TherapistProfile.of(message), TherapistProfile::newest);
+    }
+
+    /**
+     * What matching knows of a therapist. Specialties and languages are lower-cased for comparison.
+     */
+    public record TherapistProfile(UUID therapeuteId, Set<String> specialites, Set<String> langues,
+                                   Double prixParHeure, int anneesExperience, boolean actif,
+                                   LocalDateTime changedAt) {
+
+        static TherapistProfile of(ProfilChangedMessage message) {
+            return new TherapistProfile(
+                    message.getTherapeuteId(),
+                    normalize(message.getSpecialites()),
+                    normalize(message.getLanguesParlees()),
+                    message.getPrixParHeure(),
+                    message.getAnneesExperience() == null ? 0 : message.getAnneesExperience(),
+                    message.isActif(),
+                    message.getChangedAt() != null ? message.getChangedAt() : LocalDateTime.now());
+        }
+
+        static TherapistProfile newest(TherapistProfile current, TherapistProfile candidate) {
+            return candidate.changedAt().isBefore(current.changedAt()) ? current : candidate;
+        }
+
+        static String normalize(String value) {
+            return value.strip().toLowerCase(Locale.ROOT);
+        }
+
+        private static Set<String> normalize(List<String> values) {
+            return values == null ? Set.of() : values.stream()
+                    .filter(v -> v != null && !v.isBlank())
+                    .map(TherapistProfile::normalize)
+                    .collect(Collectors.toUnmodifiableSet());
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package micro.mentalhealth.project.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import micro.mentalhealth.project.dto.RecordingUploadDTO;
+import micro.mentalhealth.project.model.RecordingUpload;
+import micro.mentalhealth.project.model.Seance;
+import micro.mentalhealth.project.model.StatutEnregistrement;
+import micro.mentalhealth.project.model.StatutSeance;
+import micro.mentalhealth.project.repository.RecordingUploadRepository;
+import micro.mentalhealth.project.repository.SeanceRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Session recordings, stored as files under {@code recording.storage-dir}.
+ * <p>
+ * A recording is uploaded as a series of chunks, each sent at the offset the previous one ended at.
+ * Chunks are streamed from the request straight into the file through a {@link FileChannel}, never
+ * held in the heap, and flushed to disk before they are acknowledged: an interrupted upload resumes
+ * from the offset {@link #getUpload} reports. Once the last byte has arrived the file takes its final
+ * name and the séance's {@code urlEnregistrement} points at its playback endpoint.
+ * <p>
+ * Consecutive chunks of an upload, and its playback, may reach any instance, so
+ * {@code recording.storage-dir} must be the same shared volume on every one of them, with file locks
+ * honoured across hosts. An instance that is missing a file the database says exists answers with an
+ * {@link IllegalStateException} rather than restarting the upload at offset 0 or reporting no recording.
+ */
+@Slf4j
+@Service
+public class RecordingService {
+
+    @Autowired
+    private RecordingUploadRepository uploadRepository;
+    @Autowired
+    private SeanceRepository seanceRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${recording.storage-dir:recordings}")
+    private String storageDir;
+
+    @Value("${recording.max-size-bytes:4294967296}")
+    private long maxSizeBytes;
+
+    @Value("${recording.upload-ttl-hours:24}")
+    private long uploadTtlHours;
+
+    private Path root;
+
+    /**
+     * A complete recording, ready to be served.
+     */
+    public record Recording(Path file, long size, String contentType) {}
+
+    /**
+     * Thrown when a chunk does not start where the upload currently ends, or while another chunk of
+     * the same upload is being written. The client resumes from {@code currentOffset}.
+     */
+    public static class OffsetConflictException extends RuntimeException {
+        private final long currentOffset;
+
+        public OffsetConflictException(long currentOffset) {
+            super("Le morceau doit commencer à l'octet " + currentOffset);
+            this.currentOffset = currentOffset;
+        }
+
+        public long getCurrentOffset() {
+            return currentOffset;
+        }
+    }
+
+    @PostConstruct
+    void init() throws IOException {
+        root = Paths.get(storageDir).toAbsolutePath();
+        Files.createDirectories(root);
+    }
+
+    public RecordingUploadDTO demarrerUpload(UUID seanceId, long totalSize, String contentType) {
+        if (totalSize <= 0 || totalSize > maxSizeBytes) {
+            throw new IllegalArgumentException("La taille doit être comprise entre 1 et " + maxSizeBytes + " octets");
+        }
+        if (contentType == null || !(contentType.startsWith("video/") || contentType.startsWith("audio/"))) {
+            throw new IllegalArgumentException("Seuls les enregistrements audio ou vidéo sont acceptés");
+        }
+        Seance seance = seanceRepository.findById(seanceId)
+                .orElseThrow(() -> new IllegalArgumentException("Séance introuvable"));
+        if (seance.getStatutSeance() != StatutSeance.PLANIFIEE && seance.getStatutSeance() != StatutSeance.TERMINEE) {
+            throw new IllegalArgumentException("Seule une séance planifiée ou terminée peut avoir un enregistrement");
+        }
+        return toDTO(uploadRepository.save(new RecordingUpload(seanceId, totalSize, contentType)));
+    }
+
+    /**
+     * State of the upload; {@code receivedBytes} is the offset the next chunk must start at.
+     */
+    public RecordingUploadDTO getUpload(UUID uploadId) {
+        RecordingUpload upload = findUpload(uploadId);
+        Path part = partFile(uploadId);
+        if (upload.getStatut() == StatutEnregistrement.EN_COURS && Files.exists(part)) {
+            // A chunk cut off midway is not in the database, but what reached the disk is kept
+            try {
+                upload.setReceivedBytes(Files.size(part));
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+        return toDTO(upload);
+    }
+
+    /**
+     * Appends the bytes of {@code body} to the upload, which must currently end at {@code offset}.
+     */
+    public RecordingUploadDTO ecrireMorceau(UUID uploadId, long offset, InputStream body) throws IOException {
+        RecordingUpload upload = findUpload(uploadId);
+        if (upload.getStatut() == StatutEnregistrement.TERMINE) {
+            throw new OffsetConflictException(upload.getTotalSize());
+        }
+
+        Path part = partFile(uploadId);
+        if (upload.getReceivedBytes() > 0 && !Files.exists(part)) {
+            throw storageMissing(part);
+        }
+        long received;
+        try (FileChannel channel = FileChannel.open(part, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            FileLock lock = tryLock(channel);
+            if (lock == null) {
+                throw new OffsetConflictException(upload.getReceivedBytes());
+            }
+            try {
+                long current = channel.size();
+                if (offset != current) {
+                    throw new OffsetConflictException(current);
+                }
+                long remaining = upload.getTotalSize() - current;
+                ReadableByteChannel source = Channels.newChannel(body);
+                long written;
+                try {
+                    written = channel.transferFrom(source, current, remaining);
+                } finally {
+                    // Whatever did arrive is kept for the resume, even if the client went away
+                    channel.force(false);
+                }
+                if (written == remaining && source.read(ByteBuffer.allocate(1)) > 0) {
+                    channel.truncate(current);
+                    throw new IllegalArgumentException("Le morceau dépasse la taille annoncée");
+                }
+                received = current + written;
+            } finally {
+                lock.release();
+            }
+        }
+
+        upload.setReceivedBytes(received);
+        if (received < upload.getTotalSize()) {
+            return toDTO(uploadRepository.save(upload));
+        }
+        return terminer(upload, part);
+    }
+
+    public Recording ouvrirEnregistrement(UUID seanceId) throws IOException {
+        RecordingUpload upload = uploadRepository
+                .findFirstBySeanceIdAndStatutOrderByUpdatedAtDesc(seanceId, StatutEnregistrement.TERMINE)
+                .orElseThrow(() -> new IllegalArgumentException("Aucun enregistrement pour cette séance"));
+        Path file = recordingFile(seanceId);
+        if (!Files.isRegularFile(file)) {
+            throw storageMissing(file);
+        }
+        return new Recording(file, Files.size(file), upload.getContentType());
+    }
+
+    @Scheduled(fixedDelayString = "${recording.cleanup-interval-ms:3600000}")
+    public void supprimerUploadsAbandonnes() {
+        LocalDateTime before = LocalDateTime.now().minusHours(uploadTtlHours);
+        int deleted = 0;
+        for (RecordingUpload upload : uploadRepository.findByStatutAndUpdatedAtBefore(StatutEnregistrement.EN_COURS, before)) {
+            try {
+                Files.deleteIfExists(partFile(upload.getUploadId()));
+                uploadRepository.delete(upload);
+                deleted++;
+            } catch (IOException ex) {
+                log.warn("Could not delete abandoned recording upload {}", upload.getUploadId(), ex);
+            }
+        }
+        if (deleted > 0) {
+            log.info("Deleted {} abandoned recording uploads", deleted);
+        }
+    }
+
+    private RecordingUploadDTO terminer(RecordingUpload upload, Path part) throws IOException {
+        UUID seanceId = upload.getSeanceId();
+        Files.move(part, recordingFile(seanceId), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        upload.setStatut(StatutEnregistrement.TERMINE);
+        RecordingUpload saved = new TransactionTemplate(transactionManager).execute(status -> {
+            seanceRepository.updateUrlEnregistrement(seanceId, "/api/seances/" + seanceId + "/recording",
+                    LocalDateTime.now());
+            return uploadRepository.save(upload);
+        });
+        log.info("Recording of séance {} stored ({} bytes)", seanceId, upload.getTotalSize());
+        return toDTO(saved);
+    }
+
+    // The database knows of a file this instance cannot see: its storage-dir is not the shared one
+    private IllegalStateException storageMissing(Path file) {
+        log.error("Recording file {} is missing from {}: recording.storage-dir must be shared by every instance",
+                file.getFileName(), root);
+        return new IllegalStateException("Stockage des enregistrements inaccessible depuis cette instance");
+    }
+
+    private static FileLock tryLock(FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock();
+        } catch (OverlappingFileLockException ex) {
+            return null; // another request of this instance is writing the same upload
+        }
+    }
+
+    private RecordingUpload findUpload(UUID uploadId) {
+        return uploadRepository.findById(uploadId)
+                .orElseThrow(() -> new IllegalArgumentException("Upload introuvable"));
+    }
+
+    private Path partFile(UUID uploadId) {
+        return root.resolve(uploadId + ".part");
+    }
+
+    private Path recordingFile(UUID seanceId) {
+        return root.resolve(seanceId + ".recording");
+    }
+
+    private static RecordingUploadDTO toDTO(RecordingUpload upload) {
+        return new RecordingUploadDTO(upload.getUploadId(), upload.getSeanceId(), upload.getTotalSize(),
+                upload.getReceivedBytes(), upload.getStatut());
+    }
+}
@@ -0,0 +1,104 @@
+package micro.mentalhealth.project.service;
+
+import lombok.extern.slf4j.Slf4j;
+import micro.mentalhealth.project.dto.NotificationRequest;
+import micro.mentalhealth.project.model.NotificationType;
+import micro.mentalhealth.project.model.Seance;
+import micro.mentalhealth.project.model.StatutSeance;
+import micro.mentalhealth.project.model.events.SeanceChangedEvent;
+import micro.mentalhealth.project.repository.SeanceParticipantRepository;
+import micro.mentalhealth.project.repository.SeanceRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Marks {@link StatutSeance#PLANIFIEE} séances as {@link StatutSeance#TERMINEE} once their end time
+ * has passed, so nobody has to call the {@code terminer} endpoint for them.
+ * <p>
+ * Ended séances are read by a range scan of the {@code (statut_seance, date_fin)} index and
+ * completed in chunks of {@code seance.completion.batch-size}, each in its own short transaction:
+ * one locking select (skipping rows another node is working on), one bulk update, and one batch of
+ * outbox inserts for the notifications.
+ */
+@Slf4j
+@Component
+public class SeanceCompletionJob {
+
+    @Autowired
+    private SeanceRepository seanceRepository;
+    @Autowired
+    private SeanceParticipantRepository participantRepository;
+    @Autowired
+    private NotificationProducer notificationProducer;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${seance.completion.batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${seance.completion.interval-ms:60000}")
+    public void completeEndedSeances() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        LocalDateTime endedBy = LocalDateTime.now();
+        long total = 0;
+        int completed;
+        do {
+            completed = transaction.execute(status -> completeChunk(endedBy));
+            total += completed;
+        } while (completed == batchSize);
+        if (total > 0) {
+            log.info("Completed {} ended séances", total);
+        }
+    }
+
+    private int completeChunk(LocalDateTime endedBy) {
+        List<Seance> ended = seanceRepository.lockByStatutSeanceEndedBy(
+                StatutSeance.PLANIFIEE, endedBy, PageRequest.of(0, batchSize));
+        if (ended.isEmpty()) {
+            return 0;
+        }
+        List<UUID> ids = ended.stream().map(Seance::getSeanceId).toList();
+        seanceRepository.updateStatutSeance(ids, StatutSeance.PLANIFIEE, StatutSeance.TERMINEE, LocalDateTime.now());
+
+        Map<UUID, List<UUID>> participants = participantRepository.findPatientIdsBySeance(
+                ended.stream().filter(Seance::isGroupe).map(Seance::getSeanceId).toList());
+        List<NotificationRequest> notifications = new ArrayList<>(ended.size() * 2);
+        for (Seance seance : ended) {
+            eventPublisher.publishEvent(SeanceChangedEvent.transitioned(seance, StatutSeance.TERMINEE));
+            List<UUID> patientIds = seance.isGroupe()
+                    ? participants.getOrDefault(seance.getSeanceId(), List.of())
+                    : List.of(seance.getPatientId());
+            for (UUID patientId : patientIds) {
+                notifications.add(notification(patientId, seance.getSeanceId(),
+                        "Your session has been completed. Please provide feedback."));
+            }
+            notifications.add(notification(seance.getTherapeuteId(), seance.getSeanceId(),
+                    "Session with patient completed."));
+        }
+        notificationProducer.sendNotifications(notifications);
+        return ended.size();
+    }
+
+    private static NotificationRequest notification(UUID userId, UUID seanceId, String message) {
+        NotificationRequest request = new NotificationRequest();
+        request.setUserId(userId);
+        request.setMessage(message);
+        request.setType(NotificationType.SEANCE_COMPLETED);
+        request.setRelatedEntityId(seanceId);
+        return request;
+    }
+}
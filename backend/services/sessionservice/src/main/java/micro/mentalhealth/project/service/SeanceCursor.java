@@ -0,0 +1,35 @@
+package micro.mentalhealth.project.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in a séance listing ordered by {@code (dateHeure, seanceId)}: the key of the last séance
+ * returned. The next page starts strictly after it, so it stays correct when séances are added or
+ * removed between two requests.
+ * <p>
+ * Sent to clients as an opaque URL-safe string.
+ */
+record SeanceCursor(LocalDateTime dateHeure, UUID seanceId) {
+
+    private static final char SEPARATOR = '|';
+
+    String encode() {
+        String raw = dateHeure.toString() + SEPARATOR + seanceId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static SeanceCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            return new SeanceCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    UUID.fromString(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException ex) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
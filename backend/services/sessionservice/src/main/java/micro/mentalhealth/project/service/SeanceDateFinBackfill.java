@@ -0,0 +1,41 @@
+package micro.mentalhealth.project.service;
+
+import lombok.extern.slf4j.Slf4j;
+import micro.mentalhealth.project.repository.SeanceRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Fills {@code date_fin} for séances stored before the column existed, in short transactions so
+ * the table is never locked for long. Runs before the application reports itself ready, so
+ * overlap queries never see a missing end time. Does nothing once every row has been migrated.
+ */
+@Slf4j
+@Component
+public class SeanceDateFinBackfill implements ApplicationRunner {
+
+    private static final int BATCH_SIZE = 5000;
+
+    @Autowired
+    private SeanceRepository seanceRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        long total = 0;
+        int updated;
+        do {
+            updated = transaction.execute(status -> seanceRepository.backfillDateFin(BATCH_SIZE));
+            total += updated;
+        } while (updated == BATCH_SIZE);
+        if (total > 0) {
+            log.info("Filled date_fin for {} séances", total);
+        }
+    }
+}
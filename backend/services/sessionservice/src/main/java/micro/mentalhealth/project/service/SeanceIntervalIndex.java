@@ -0,0 +1,273 @@
+package micro.mentalhealth.project.service;
+
+import lombok.extern.slf4j.Slf4j;
+import micro.mentalhealth.project.config.RabbitMQConfig;
+import micro.mentalhealth.project.model.Seance;
+import micro.mentalhealth.project.model.StatutSeance;
+import micro.mentalhealth.project.model.events.SeanceChangedEvent;
+import micro.mentalhealth.project.repository.SeanceRepository;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.AmqpTemplate;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * In-memory, per-therapist index of the time intervals occupied by non-cancelled séances.
+ * <p>
+ * Each therapist owns a set of intervals sorted by start time. Because the longest interval of a
+ * therapist is tracked, an overlap query only has to walk the intervals starting in
+ * {@code [debut - longest, fin)}, which answers conflict checks in O(log n) without a database
+ * round trip. The index is loaded at startup and kept current from {@link SeanceChangedEvent}s,
+ * applied once the surrounding transaction has committed. Each instance also broadcasts the changes
+ * it commits on a fanout exchange, and applies those of the other instances, so that a séance
+ * booked elsewhere shows up here within a message round trip. Bookings still check the database
+ * under the therapist's lock, which covers the changes still in flight.
+ * <p>
+ * Séances that started more than {@link #WARM_UP_LOOKBACK_DAYS} days before startup are not
+ * loaded, and those that ended more than that long ago are evicted every
+ * {@code seance.index.eviction-interval-ms}; {@link #covers(LocalDateTime)} tells callers when they
+ * must fall back to the database.
+ */
+@Slf4j
+@Component
+public class SeanceIntervalIndex {
+
+    static final int WARM_UP_LOOKBACK_DAYS = 1;
+
+    static final String ORIGIN_HEADER = "x-origin-instance";
+
+    private static final UUID LOWEST_ID = new UUID(Long.MIN_VALUE, Long.MIN_VALUE);
+
+    @Autowired
+    private SeanceRepository seanceRepository;
+    @Autowired
+    private AmqpTemplate amqpTemplate;
+
+    // Tells this instance's own broadcasts apart from those of the other instances
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final Map<UUID, TherapistTimeline> timelines = new ConcurrentHashMap<>();
+    private final Map<UUID, SeanceSlot> slotsBySeance = new ConcurrentHashMap<>();
+
+    // Until warm-up completes nothing is covered and every caller goes to the database.
+    private volatile LocalDateTime coveredFrom = LocalDateTime.MAX;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        LocalDateTime horizon = LocalDateTime.now().minusDays(WARM_UP_LOOKBACK_DAYS);
+        List<Seance> seances = seanceRepository
+                .findByStatutSeanceNotAndDateHeureGreaterThanEqual(StatutSeance.ANNULEE, horizon);
+        seances.forEach(this::upsert);
+        // A séance overlapping anything at or after "now" started after the horizon,
+        // as long as no séance lasts longer than the look-back window.
+        coveredFrom = horizon.plusDays(WARM_UP_LOOKBACK_DAYS);
+        log.info("Seance interval index warmed up with {} séances for {} therapists", seances.size(), timelines.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSeanceChanged(SeanceChangedEvent event) {
+        apply(event);
+        try {
+            amqpTemplate.convertAndSend(RabbitMQConfig.SEANCE_CHANGED_EXCHANGE, "", event, message -> {
+                message.getMessageProperties().setHeader(ORIGIN_HEADER, instanceId);
+                return message;
+            });
+        } catch (AmqpException ex) {
+            // The other instances fall back on the database check made under the booking lock
+            log.warn("Could not broadcast the change of séance {}: {}", event.getSeanceId(), ex.getMessage());
+        }
+    }
+
+    @RabbitListener(queues = "#{seanceChangedQueue.name}")
+    public void onRemoteSeanceChanged(SeanceChangedEvent event,
+                                      @Header(name = ORIGIN_HEADER, required = false) String origin) {
+        if (!instanceId.equals(origin)) {
+            apply(event);
+        }
+    }
+
+    /**
+     * Drops the séances that ended before the look-back window, so that the index only holds
+     * the recent past and the future.
+     */
+    @Scheduled(initialDelayString = "${seance.index.eviction-interval-ms:3600000}",
+            fixedDelayString = "${seance.index.eviction-interval-ms:3600000}")
+    public void evictEnded() {
+        evictEndedBefore(LocalDateTime.now().minusDays(WARM_UP_LOOKBACK_DAYS));
+    }
+
+    // Drops the slot only if the séance has not moved meanwhile
+    private boolean evict(SeanceSlot slot, TherapistTimeline timeline) {
+        boolean[] evicted = {false};
+        slotsBySeance.computeIfPresent(slot.seanceId(), (id, current) -> {
+            if (!current.equals(slot)) {
+                return current;
+            }
+            timeline.remove(slot);
+            evicted[0] = true;
+            return null;
+        });
+        return evicted[0];
+    }
+
+    int evictEndedBefore(LocalDateTime cutoff) {
+        int evicted = 0;
+        for (TherapistTimeline timeline : timelines.values()) {
+            for (SeanceSlot slot : timeline.startingBefore(cutoff)) {
+                if (!slot.fin().isAfter(cutoff) && evict(slot, timeline)) {
+                    evicted++;
+                }
+            }
+        }
+        // Queries starting at or after the cutoff never overlap what was evicted
+        if (coveredFrom.isBefore(cutoff)) {
+            coveredFrom = cutoff;
+        }
+        if (evicted > 0) {
+            log.info("Evicted {} ended séances from the interval index", evicted);
+        }
+        return evicted;
+    }
+
+    private void apply(SeanceChangedEvent event) {
+        if (event.isDeleted() || event.getStatut() == StatutSeance.ANNULEE) {
+            remove(event.getSeanceId());
+        } else {
+            upsert(event.getSeanceId(), event.getTherapeuteId(), event.getDateHeure(), event.getDureeMinutes());
+        }
+    }
+
+    /**
+     * Whether queries starting at {@code debut} can be answered from memory.
+     */
+    public boolean covers(LocalDateTime debut) {
+        return !debut.isBefore(coveredFrom);
+    }
+
+    public boolean hasConflict(UUID therapeuteId, LocalDateTime debut, LocalDateTime fin) {
+        TherapistTimeline timeline = timelines.get(therapeuteId);
+        if (timeline == null) {
+            return false;
+        }
+        for (SeanceSlot slot : timeline.startingBetween(debut, fin)) {
+            if (slot.fin().isAfter(debut)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Intervals of the therapist overlapping {@code [debut, fin)}, sorted by start time.
+     */
+    public List<SeanceSlot> findOverlapping(UUID therapeuteId, LocalDateTime debut, LocalDateTime fin) {
+        TherapistTimeline timeline = timelines.get(therapeuteId);
+        List<SeanceSlot> result = new ArrayList<>();
+        if (timeline == null) {
+            return result;
+        }
+        for (SeanceSlot slot : timeline.startingBetween(debut, fin)) {
+            if (slot.fin().isAfter(debut)) {
+                result.add(slot);
+            }
+        }
+        return result;
+    }
+
+    public void upsert(Seance seance) {
+        if (seance.getStatutSeance() == StatutSeance.ANNULEE) {
+            remove(seance.getSeanceId());
+            return;
+        }
+        upsert(seance.getSeanceId(), seance.getTherapeuteId(), seance.getDateHeure(), seance.getDureeMinutes());
+    }
+
+    // Runs inside compute(), which serializes the changes of one séance, so that two concurrent
+    // upserts of the same séance cannot both leave their interval in a timeline
+    private void upsert(UUID seanceId, UUID therapeuteId, LocalDateTime dateHeure, int dureeMinutes) {
+        SeanceSlot slot = new SeanceSlot(seanceId, therapeuteId, dateHeure, dateHeure.plusMinutes(dureeMinutes));
+        slotsBySeance.compute(seanceId, (id, previous) -> {
+            TherapistTimeline timeline = timelines.computeIfAbsent(therapeuteId, t -> new TherapistTimeline());
+            if (previous != null && !previous.therapeuteId().equals(therapeuteId)) {
+                TherapistTimeline oldTimeline = timelines.get(previous.therapeuteId());
+                if (oldTimeline != null) {
+                    oldTimeline.remove(previous);
+                }
+                previous = null;
+            }
+            timeline.replace(previous, slot, dureeMinutes);
+            return slot;
+        });
+    }
+
+    public void remove(UUID seanceId) {
+        slotsBySeance.computeIfPresent(seanceId, (id, previous) -> {
+            TherapistTimeline timeline = timelines.get(previous.therapeuteId());
+            if (timeline != null) {
+                timeline.remove(previous);
+            }
+            return null;
+        });
+    }
+
+    public record SeanceSlot(UUID seanceId, UUID therapeuteId, LocalDateTime debut, LocalDateTime fin)
+            implements Comparable<SeanceSlot> {
+
+        @Override
+        public int compareTo(SeanceSlot other) {
+            int byStart = debut.compareTo(other.debut);
+            return byStart != 0 ? byStart : seanceId.compareTo(other.seanceId);
+        }
+    }
+
+    private static final class TherapistTimeline {
+        private final ConcurrentSkipListSet<SeanceSlot> slots = new ConcurrentSkipListSet<>();
+        // Only ever grows: it bounds how far back an overlap scan has to start.
+        private volatile int longestMinutes;
+
+        // Swaps the interval of a séance in one step; previous is null for a séance new to this timeline
+        synchronized void replace(SeanceSlot previous, SeanceSlot slot, int dureeMinutes) {
+            if (previous != null) {
+                slots.remove(previous);
+            }
+            // Widened before the slot is visible, so a concurrent scan never starts too late for it
+            if (dureeMinutes > longestMinutes) {
+                longestMinutes = dureeMinutes;
+            }
+            slots.add(slot);
+        }
+
+        synchronized void remove(SeanceSlot slot) {
+            slots.remove(slot);
+        }
+
+        NavigableSet<SeanceSlot> startingBefore(LocalDateTime debut) {
+            return slots.headSet(new SeanceSlot(LOWEST_ID, null, debut, null), false);
+        }
+
+        NavigableSet<SeanceSlot> startingBetween(LocalDateTime debut, LocalDateTime fin) {
+            SeanceSlot from = new SeanceSlot(LOWEST_ID, null, debut.minusMinutes(longestMinutes), null);
+            SeanceSlot to = new SeanceSlot(LOWEST_ID, null, fin, null);
+            if (from.compareTo(to) > 0) {
+                return Collections.emptyNavigableSet();
+            }
+            return slots.subSet(from, true, to, false);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package micro.mentalhealth.project.service;
+
+import lombok.extern.slf4j.Slf4j;
+import micro.mentalhealth.project.model.Seance;
+import micro.mentalhealth.project.model.SeanceNote;
+import micro.mentalhealth.project.repository.SeanceNoteRepository;
+import micro.mentalhealth.project.repository.SeanceRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Moves the notes still held in the legacy {@code seances.note_therapeute} column to the compressed,
+ * indexed notes table, in short transactions. A note already written to the new table wins over
+ * the legacy one. Does nothing once the column is empty.
+ */
+@Slf4j
+@Component
+public class SeanceNoteMigration implements ApplicationRunner {
+
+    private static final int BATCH_SIZE = 200;
+
+    @Autowired
+    private SeanceRepository seanceRepository;
+    @Autowired
+    private SeanceNoteRepository noteRepository;
+    @Autowired
+    private SeanceNoteService seanceNoteService;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        long total = 0;
+        int moved;
+        do {
+            moved = transaction.execute(status -> moveChunk());
+            total += moved;
+        } while (moved == BATCH_SIZE);
+        if (total > 0) {
+            log.info("Moved {} séance notes to the notes table", total);
+        }
+    }
+
+    private int moveChunk() {
+        List<Seance> seances = seanceRepository.lockWithInlineNote(PageRequest.of(0, BATCH_SIZE));
+        if (seances.isEmpty()) {
+            return 0;
+        }
+        List<UUID> ids = seances.stream().map(Seance::getSeanceId).toList();
+        Set<UUID> alreadyMoved = noteRepository.findAllById(ids).stream()
+                .map(SeanceNote::getSeanceId)
+                .collect(Collectors.toSet());
+        for (Seance seance : seances) {
+            if (!alreadyMoved.contains(seance.getSeanceId())) {
+                seanceNoteService.enregistrerNote(seance.getSeanceId(), seance.getTherapeuteId(),
+                        seance.getNoteTherapeute());
+            }
+        }
+        seanceRepository.clearInlineNotes(ids);
+        return seances.size();
+    }
+}
@@ -0,0 +1,164 @@
+package micro.mentalhealth.project.service;
+
+import micro.mentalhealth.project.dto.NoteSearchResultDTO;
+import micro.mentalhealth.project.model.Seance;
+import micro.mentalhealth.project.model.SeanceNote;
+import micro.mentalhealth.project.model.SeanceNoteTerme;
+import micro.mentalhealth.project.repository.SeanceNoteRepository;
+import micro.mentalhealth.project.repository.SeanceNoteTermeRepository;
+import micro.mentalhealth.project.repository.SeanceRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Therapist notes, stored compressed in {@code seance_notes}, and their full-text index.
+ * <p>
+ * Each note is broken into words folded to lower case without accents, and every distinct word is
+ * a row of {@code seance_note_termes} keyed by (therapist, word, séance). A search looks up the
+ * words of the query in that key, so it reads only the index entries of the therapist's matching
+ * notes and decompresses just the notes it returns. The index lives in the database rather than on
+ * local disk, so every sessionservice instance sees the same notes.
+ */
+@Service
+public class SeanceNoteService {
+
+    public static final int DEFAULT_SEARCH_LIMIT = 20;
+    static final int MAX_SEARCH_LIMIT = 100;
+    public static final int MAX_BATCH_NOTES = 200;
+    static final int MAX_TERM_LENGTH = 64;
+    private static final int EXCERPT_RADIUS = 80;
+
+    @Autowired
+    private SeanceNoteRepository noteRepository;
+    @Autowired
+    private SeanceNoteTermeRepository termeRepository;
+    @Autowired
+    private SeanceRepository seanceRepository;
+
+    public Optional<String> getNote(UUID seanceId) {
+        return noteRepository.findById(seanceId).map(SeanceNote::getContenu);
+    }
+
+    /**
+     * The notes of several séances in one read, keyed by séance; séances without a note are absent.
+     * Notes not migrated yet are read from the legacy column.
+     */
+    public Map<UUID, String> getNotes(Collection<UUID> seanceIds) {
+        if (seanceIds.size() > MAX_BATCH_NOTES) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_NOTES + " notes per call");
+        }
+        Map<UUID, String> notes = noteRepository.findAllById(seanceIds).stream()
+                .collect(Collectors.toMap(SeanceNote::getSeanceId, SeanceNote::getContenu, (a, b) -> a, HashMap::new));
+        List<UUID> missing = seanceIds.stream().filter(id -> !notes.containsKey(id)).distinct().toList();
+        if (!missing.isEmpty()) {
+            seanceRepository.findWithInlineNote(missing)
+                    .forEach(seance -> notes.putIfAbsent(seance.getSeanceId(), seance.getNoteTherapeute()));
+        }
+        return notes;
+    }
+
+    /**
+     * Writes the note of the séance, replacing any previous one, and re-indexes it.
+     */
+    @Transactional
+    public void enregistrerNote(UUID seanceId, UUID therapeuteId, String contenu) {
+        SeanceNote note = noteRepository.findById(seanceId)
+                .orElseGet(() -> new SeanceNote(seanceId, therapeuteId));
+        note.setContenu(contenu);
+        note.setUpdatedAt(LocalDateTime.now());
+        noteRepository.save(note);
+
+        termeRepository.deleteBySeanceId(seanceId);
+        termeRepository.saveAll(termes(contenu).stream()
+                .map(terme -> new SeanceNoteTerme(therapeuteId, terme, seanceId))
+                .toList());
+    }
+
+    /**
+     * The therapist's séances whose note contains every word of {@code query}, most recent first.
+     */
+    @Transactional(readOnly = true)
+    public List<NoteSearchResultDTO> rechercher(UUID therapeuteId, String query, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        Set<String> termes = termes(query == null ? "" : query);
+        if (termes.isEmpty()) {
+            return List.of();
+        }
+        List<UUID> ids = termeRepository.findSeanceIdsMatchingAll(therapeuteId, termes, termes.size(),
+                PageRequest.of(0, Math.min(limit, MAX_SEARCH_LIMIT)));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, Seance> seances = seanceRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Seance::getSeanceId, Function.identity()));
+        Map<UUID, String> notes = noteRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(SeanceNote::getSeanceId, SeanceNote::getContenu));
+
+        List<NoteSearchResultDTO> results = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            Seance seance = seances.get(id);
+            String note = notes.get(id);
+            if (seance != null && note != null) {
+                results.add(new NoteSearchResultDTO(id, seance.getPatientId(), seance.getDateHeure(),
+                        extrait(note, termes)));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Distinct words of {@code text}, folded, in order of first appearance.
+     */
+    static Set<String> termes(String text) {
+        Set<String> termes = new LinkedHashSet<>();
+        for (String word : fold(text).split("[^\\p{L}\\p{N}]+")) {
+            if (word.length() >= 2 && word.length() <= MAX_TERM_LENGTH) {
+                termes.add(word);
+            }
+        }
+        return termes;
+    }
+
+    // Lower case without accents, one character for one so that offsets match the original text
+    private static String fold(String text) {
+        StringBuilder folded = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            String decomposed = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+            folded.append(Character.toLowerCase(decomposed.isEmpty() ? c : decomposed.charAt(0)));
+        }
+        return folded.toString();
+    }
+
+    private static String extrait(String note, Set<String> termes) {
+        String folded = fold(note);
+        int match = -1;
+        for (String terme : termes) {
+            int at = folded.indexOf(terme);
+            if (at >= 0 && (match < 0 || at < match)) {
+                match = at;
+            }
+        }
+        int start = Math.max(0, match - EXCERPT_RADIUS);
+        int end = Math.min(note.length(), Math.max(match, 0) + EXCERPT_RADIUS);
+        return (start > 0 ? "…" : "") + note.substring(start, end).strip() + (end < note.length() ? "…" : "");
+    }
+}
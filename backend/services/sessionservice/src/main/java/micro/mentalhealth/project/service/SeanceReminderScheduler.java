@@ -0,0 +1,191 @@
+package micro.mentalhealth.project.service;
+
+import lombok.extern.slf4j.Slf4j;
+import micro.mentalhealth.project.dto.NotificationRequest;
+import micro.mentalhealth.project.model.NotificationType;
+import micro.mentalhealth.project.model.Seance;
+import micro.mentalhealth.project.model.StatutSeance;
+import micro.mentalhealth.project.model.events.SeanceChangedEvent;
+import micro.mentalhealth.project.repository.SeanceParticipantRepository;
+import micro.mentalhealth.project.repository.SeanceRepository;
+import micro.mentalhealth.project.repository.SeanceRepository.UpcomingSeance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Reminds patients and therapists of their {@link StatutSeance#PLANIFIEE} séances a configurable
+ * number of minutes before they start ({@code seance.reminder.offsets-minutes}).
+ * <p>
+ * Reminders wait on an in-memory {@link TimingWheel} rather than the table being polled. The wheel
+ * holds the séances of the next {@code seance.reminder.horizon-hours}, loaded by a range scan of the
+ * {@code (statut_seance, date_heure)} index that is extended as time passes, and kept current from
+ * {@link SeanceChangedEvent}s as séances are booked, cancelled or moved.
+ * <p>
+ * Reminders that fall due together are claimed with one locking select and one bulk update, which
+ * re-checks the séance in the database so that stale wheel entries and other instances never cause a
+ * reminder to be sent twice, then queued on the outbox as one batch.
+ */
+@Slf4j
+@Component
+public class SeanceReminderScheduler {
+
+    private static final long TICK_MS = 60_000;
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    @Autowired
+    private SeanceRepository seanceRepository;
+    @Autowired
+    private SeanceParticipantRepository participantRepository;
+    @Autowired
+    private NotificationProducer notificationProducer;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${seance.reminder.offsets-minutes:1440,60}")
+    private int[] offsetsMinutes;
+
+    @Value("${seance.reminder.horizon-hours:48}")
+    private long horizonHours;
+
+    // A reminder whose time passed by more than this (e.g. while the instance was down) is dropped
+    @Value("${seance.reminder.grace-minutes:5}")
+    private long graceMinutes;
+
+    // 1-minute buckets, then 1-hour, then 60-hour ones: about 150 days ahead
+    private final TimingWheel<Reminder> wheel = new TimingWheel<>(TICK_MS, 60, 3, System.currentTimeMillis());
+    private LocalDateTime loadedUntil;
+
+    private record Reminder(UUID seanceId, int offsetMinutes) {}
+
+    @Scheduled(fixedRate = TICK_MS)
+    public void tick() {
+        LocalDateTime now = LocalDateTime.now();
+        extendWindow(now);
+        List<Reminder> due;
+        synchronized (wheel) {
+            due = wheel.advanceTo(toMillis(now));
+        }
+        if (!due.isEmpty()) {
+            send(due, now);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSeanceChanged(SeanceChangedEvent event) {
+        synchronized (wheel) {
+            if (event.getStatut() == StatutSeance.PLANIFIEE) {
+                // Also moves the reminders of a séance whose start time changed
+                schedule(event.getSeanceId(), event.getDateHeure(), null, LocalDateTime.now());
+            } else {
+                for (int offset : offsetsMinutes) {
+                    wheel.cancel(new Reminder(event.getSeanceId(), offset));
+                }
+            }
+        }
+    }
+
+    // Loads the séances that entered the horizon since the last load, all of them on the first tick
+    private void extendWindow(LocalDateTime now) {
+        LocalDateTime until = now.plusHours(horizonHours);
+        LocalDateTime after = loadedUntil != null ? loadedUntil : now;
+        if (loadedUntil != null && until.isBefore(loadedUntil.plusHours(1))) {
+            return;
+        }
+        List<UpcomingSeance> upcoming = seanceRepository
+                .findByStatutSeanceAndDateHeureGreaterThanAndDateHeureLessThanEqual(StatutSeance.PLANIFIEE, after, until);
+        synchronized (wheel) {
+            upcoming.forEach(s -> schedule(s.getSeanceId(), s.getDateHeure(), s.getDernierRappelMinutes(), now));
+        }
+        loadedUntil = until;
+        if (!upcoming.isEmpty()) {
+            log.info("Scheduled reminders for {} séances starting before {}", upcoming.size(), until);
+        }
+    }
+
+    private void schedule(UUID seanceId, LocalDateTime dateHeure, Integer dernierRappel, LocalDateTime now) {
+        if (dateHeure.isAfter(now.plusHours(horizonHours))) {
+            return; // picked up by a later load
+        }
+        for (int offset : offsetsMinutes) {
+            Reminder reminder = new Reminder(seanceId, offset);
+            LocalDateTime remindAt = dateHeure.minusMinutes(offset);
+            boolean alreadySent = dernierRappel != null && dernierRappel <= offset;
+            if (alreadySent || remindAt.isBefore(now.minusMinutes(graceMinutes))) {
+                wheel.cancel(reminder);
+            } else {
+                wheel.schedule(reminder, toMillis(remindAt));
+            }
+        }
+    }
+
+    private void send(List<Reminder> due, LocalDateTime now) {
+        Map<Integer, List<UUID>> idsByOffset = new LinkedHashMap<>();
+        for (Reminder reminder : due) {
+            idsByOffset.computeIfAbsent(reminder.offsetMinutes(), o -> new ArrayList<>()).add(reminder.seanceId());
+        }
+        // Smallest offset first: once it is marked sent, earlier reminders of the same séance no longer qualify
+        Integer[] offsets = idsByOffset.keySet().toArray(Integer[]::new);
+        Arrays.sort(offsets);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        int sent = transaction.execute(status -> {
+            List<NotificationRequest> notifications = new ArrayList<>();
+            int reminded = 0;
+            for (int offset : offsets) {
+                List<Seance> claimed = seanceRepository.lockDueForReminder(idsByOffset.get(offset), offset,
+                        now, now.plusMinutes(offset).plusMinutes(1));
+                if (claimed.isEmpty()) {
+                    continue;
+                }
+                seanceRepository.markReminderSent(claimed.stream().map(Seance::getSeanceId).toList(), offset);
+                Map<UUID, List<UUID>> participants = participantRepository.findPatientIdsBySeance(
+                        claimed.stream().filter(Seance::isGroupe).map(Seance::getSeanceId).toList());
+                for (Seance seance : claimed) {
+                    List<UUID> patientIds = seance.isGroupe()
+                            ? participants.getOrDefault(seance.getSeanceId(), List.of())
+                            : List.of(seance.getPatientId());
+                    for (UUID patientId : patientIds) {
+                        notifications.add(reminder(patientId, seance,
+                                "Reminder: your session starts at " + seance.getDateHeure()));
+                    }
+                    notifications.add(reminder(seance.getTherapeuteId(), seance,
+                            "Reminder: session with patient at " + seance.getDateHeure()));
+                }
+                reminded += claimed.size();
+            }
+            if (!notifications.isEmpty()) {
+                notificationProducer.sendNotifications(notifications);
+            }
+            return reminded;
+        });
+        if (sent > 0) {
+            log.info("Sent {} séance reminders", sent);
+        }
+    }
+
+    private static NotificationRequest reminder(UUID userId, Seance seance, String message) {
+        NotificationRequest request = new NotificationRequest();
+        request.setUserId(userId);
+        request.setMessage(message);
+        request.setType(NotificationType.SEANCE_REMINDER);
+        request.setRelatedEntityId(seance.getSeanceId());
+        return request;
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZONE).toInstant().toEpochMilli();
+    }
+}
@@ -1,49 +1,99 @@
 package micro.mentalhealth.project.service;
 
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 import jakarta.transaction.Transactional;
-import micro.mentalhealth.project.dto.DisponibiliteDTO;
-import micro.mentalhealth.project.dto.PlageHoraireDTO;
+import lombok.extern.slf4j.Slf4j;
+import micro.mentalhealth.project.dto.CursorPage;
+import micro.mentalhealth.project.dto.SeanceListFilter;
+import micro.mentalhealth.project.dto.SeanceSummaryDTO;
 import micro.mentalhealth.project.dto.SeanceDTO;
 import micro.mentalhealth.project.dto.NotificationRequest;
 import micro.mentalhealth.project.model.NotificationType;
 import micro.mentalhealth.project.service.NotificationProducer;
 import micro.mentalhealth.project.mapper.SeanceMapper;
 import micro.mentalhealth.project.model.*;
+import micro.mentalhealth.project.model.events.SeanceChangedEvent;
+import micro.mentalhealth.project.repository.SeanceParticipantRepository;
 import micro.mentalhealth.project.repository.SeanceRepository;
+import micro.mentalhealth.project.service.PaymentClient.CreateRemboursementRequest;
+import micro.mentalhealth.project.service.PaymentClient.PaymentResponse;
+import micro.mentalhealth.project.service.PaymentClient.RemboursementDTO;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.ResponseEntity;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
-import java.time.DayOfWeek;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
+@Slf4j
 @Service
 public class SeanceService {
+    public static final int DEFAULT_PAGE_SIZE = 200;
+    static final int MAX_PAGE_SIZE = 500;
+
+    // Same order as the queries: start time, then the id as the database compares its 16 bytes
+    private static final Comparator<SeanceSummaryDTO> KEYSET_ORDER = Comparator
+            .comparing(SeanceSummaryDTO::dateHeure)
+            .thenComparing(SeanceSummaryDTO::seanceId, (a, b) -> {
+                int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+                return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+            });
+
     @Autowired
     private SeanceRepository seanceRepository;
     @Autowired
     private SeanceMapper seanceMapper;
     @Autowired
-    private RestTemplate restTemplate;
+    private TherapeuteClient therapeuteClient;
+    @Autowired
+    private PaymentClient paymentClient;
     @Autowired
     private NotificationProducer notificationProducer;
+    @Autowired
+    private SeanceIntervalIndex seanceIntervalIndex;
+    @Autowired
+    private DisponibiliteReplica disponibiliteReplica;
+    @Autowired
+    private BookingLockManager bookingLockManager;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private TherapistStatsService therapistStatsService;
+    @Autowired
+    private SeanceParticipantRepository participantRepository;
+    @Autowired
+    private SeanceNoteService seanceNoteService;
 
 
     private void sendSeanceNotification(UUID seanceId, UUID patientId, UUID therapistId,
                                         String patientMessage, String therapistMessage,
                                         NotificationType type) {
-        // Send to patient
-        NotificationRequest patientRequest = new NotificationRequest();
-        patientRequest.setUserId(patientId);
-        patientRequest.setMessage(patientMessage);
-        patientRequest.setType(type);
-        patientRequest.setRelatedEntityId(seanceId);
-        notificationProducer.sendNotification(patientRequest);
+        // Send to patient, or to every participant of a group séance
+        List<UUID> patientIds = patientId != null ? List.of(patientId)
+                : participantRepository.findBySeanceIdOrderByInscritLe(seanceId).stream()
+                        .map(SeanceParticipant::getPatientId).toList();
+        List<NotificationRequest> patientRequests = new ArrayList<>();
+        for (UUID recipient : patientIds) {
+            NotificationRequest patientRequest = new NotificationRequest();
+            patientRequest.setUserId(recipient);
+            patientRequest.setMessage(patientMessage);
+            patientRequest.setType(type);
+            patientRequest.setRelatedEntityId(seanceId);
+            patientRequests.add(patientRequest);
+        }
+        if (!patientRequests.isEmpty()) {
+            notificationProducer.sendNotifications(patientRequests);
+        }
 
         // Send to therapist
         NotificationRequest therapistRequest = new NotificationRequest();
@@ -54,37 +104,150 @@ public class SeanceService {
         notificationProducer.sendNotification(therapistRequest);
     }
 
-    public List<SeanceDTO> getAllSeances() {
-        return seanceMapper.toDTOList(seanceRepository.findAll());
+    /**
+     * One page of the séances matching {@code filter}, ordered by start time then id, without the
+     * therapist's notes. {@code cursor} is the {@code nextCursor} of the previous page, or
+     * {@code null} for the first one. Pages hold {@code limit} séances, {@value #DEFAULT_PAGE_SIZE}
+     * when it is not given, and never more than {@value #MAX_PAGE_SIZE}.
+     */
+    public CursorPage<SeanceSummaryDTO> listSeances(SeanceListFilter filter, String cursor, Integer limit) {
+        SeanceCursor after = cursor == null || cursor.isBlank() ? null : SeanceCursor.decode(cursor);
+        if (limit != null && limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        int pageSize = Math.min(limit != null ? limit : DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
+
+        // One extra row tells whether another page follows, without a count query
+        List<SeanceSummaryDTO> rows = findSummaries(filter, after, pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<SeanceSummaryDTO> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            SeanceSummaryDTO last = page.get(page.size() - 1);
+            nextCursor = new SeanceCursor(last.dateHeure(), last.seanceId()).encode();
+        }
+        return new CursorPage<>(page, nextCursor);
     }
 
-    public Optional<SeanceDTO> getSeanceById(UUID id) {
-        return seanceRepository.findById(id).map(seanceMapper::toDTO);
+    /**
+     * The first {@code limit} séances matching {@code filter} after the cursor. A patient's own
+     * séances and the group séances they hold a place in are read by two queries, each walking its
+     * own index ({@code idx_seances_patient_keyset}, {@code idx_participants_patient}), then merged:
+     * an {@code OR} of the two would scan the table instead.
+     */
+    private List<SeanceSummaryDTO> findSummaries(SeanceListFilter filter, SeanceCursor after, int limit) {
+        if (filter.getPatientId() == null) {
+            return seanceRepository.findSummaries(matching(filter, after), limit);
+        }
+        List<SeanceSummaryDTO> own = seanceRepository.findSummaries(
+                matching(filter, after).and(ownedBy(filter.getPatientId())), limit);
+        List<SeanceSummaryDTO> joined = seanceRepository.findSummaries(
+                matching(filter, after).and(joinedBy(filter.getPatientId())), limit);
+        if (joined.isEmpty()) {
+            return own;
+        }
+
+        List<SeanceSummaryDTO> merged = new ArrayList<>(Math.min(limit, own.size() + joined.size()));
+        int i = 0;
+        int j = 0;
+        while (merged.size() < limit && (i < own.size() || j < joined.size())) {
+            int order = i == own.size() ? 1 : j == joined.size() ? -1 : KEYSET_ORDER.compare(own.get(i), joined.get(j));
+            if (order == 0) {
+                j++; // a séance found by both queries is listed once
+            }
+            merged.add(order <= 0 ? own.get(i++) : joined.get(j++));
+        }
+        return merged;
     }
 
-    public List<SeanceDTO> getSeancesByTherapeuteId(UUID therapeuteId) {
-        return seanceMapper.toDTOList(seanceRepository.findByTherapeuteId(therapeuteId));
+    private static Specification<Seance> ownedBy(UUID patientId) {
+        return (root, query, cb) -> cb.equal(root.get("patientId"), patientId);
+    }
+
+    // The group séances the patient holds a place in
+    private static Specification<Seance> joinedBy(UUID patientId) {
+        return (root, query, cb) -> {
+            Subquery<UUID> joined = query.subquery(UUID.class);
+            Root<SeanceParticipant> participant = joined.from(SeanceParticipant.class);
+            joined.select(participant.get("seanceId"))
+                    .where(cb.equal(participant.get("patientId"), patientId));
+            return root.get("seanceId").in(joined);
+        };
+    }
+
+    // Every criterion of the filter but the patient, which findSummaries applies
+    private static Specification<Seance> matching(SeanceListFilter filter, SeanceCursor after) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (filter.getTherapeuteId() != null) {
+                predicates.add(cb.equal(root.get("therapeuteId"), filter.getTherapeuteId()));
+            }
+            if (filter.getStatut() != null) {
+                predicates.add(cb.equal(root.get("statutSeance"), filter.getStatut()));
+            }
+            Path<LocalDateTime> dateHeure = root.get("dateHeure");
+            if (filter.getFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(dateHeure, filter.getFrom()));
+            }
+            if (filter.getTo() != null) {
+                predicates.add(cb.lessThan(dateHeure, filter.getTo()));
+            }
+            if (after != null) {
+                Path<UUID> seanceId = root.get("seanceId");
+                predicates.add(cb.or(
+                        cb.greaterThan(dateHeure, after.dateHeure()),
+                        cb.and(cb.equal(dateHeure, after.dateHeure()), cb.greaterThan(seanceId, after.seanceId()))));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
     }
 
-    public List<SeanceDTO> getSeancesByPatientId(UUID patientId) {
-        return seanceMapper.toDTOList(seanceRepository.findByPatientId(patientId));
+    public Optional<SeanceDTO> getSeanceById(UUID id) {
+        return seanceRepository.findById(id).map(seance -> {
+            SeanceDTO dto = seanceMapper.toDTO(seance);
+            // Notes not migrated yet are still in the legacy column
+            dto.setNoteTherapeute(seanceNoteService.getNote(id).orElse(seance.getNoteTherapeute()));
+            return dto;
+        });
     }
 
     public SeanceDTO createSeance(SeanceDTO dto) {
         Seance seance = seanceMapper.toEntity(dto);
-        return seanceMapper.toDTO(seanceRepository.save(seance));
+        Seance saved = seanceRepository.save(seance);
+        eventPublisher.publishEvent(new SeanceChangedEvent(saved, null));
+        if (dto.getNoteTherapeute() != null) {
+            seanceNoteService.enregistrerNote(saved.getSeanceId(), saved.getTherapeuteId(), dto.getNoteTherapeute());
+        }
+        return seanceMapper.toDTO(saved);
     }
 
     public void deleteSeance(UUID id) {
+        seanceRepository.findById(id)
+                .ifPresent(seance -> eventPublisher.publishEvent(SeanceChangedEvent.deleted(seance)));
         seanceRepository.deleteById(id);
     }
 
     public SeanceDTO updateSeance(UUID id, SeanceDTO dto) {
         Seance existing = seanceRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Seance not found"));
+        StatutSeance previousStatut = existing.getStatutSeance();
         Seance updated = seanceMapper.toEntity(dto);
         updated.setSeanceId(existing.getSeanceId());
-        return seanceMapper.toDTO(seanceRepository.save(updated));
+        updated.setPlacesReservees(existing.getPlacesReservees()); // only sign-ups move the counter
+        updated.setSerieId(existing.getSerieId()); // series occurrences keep their longer hold
+        // Reminders already sent stay sent, unless the séance moves and they start over
+        if (Objects.equals(updated.getDateHeure(), existing.getDateHeure())) {
+            updated.setDernierRappelMinutes(existing.getDernierRappelMinutes());
+        }
+        // The DTO never carries the legacy column: keep a note not migrated yet, unless it is replaced below
+        updated.setNoteTherapeute(dto.getNoteTherapeute() == null ? existing.getNoteTherapeute() : null);
+        Seance saved = seanceRepository.save(updated);
+        eventPublisher.publishEvent(new SeanceChangedEvent(saved, previousStatut));
+        if (dto.getNoteTherapeute() != null) {
+            seanceNoteService.enregistrerNote(id, saved.getTherapeuteId(), dto.getNoteTherapeute());
+        }
+        return seanceMapper.toDTO(saved);
     }
 
     public SeanceDTO ajouterNote(UUID seanceId, String note) {
@@ -95,56 +258,36 @@ public class SeanceService {
             throw new RuntimeException("La séance n'a pas encore commencé");
         }
 
-        seance.setNoteTherapeute(note);
-        Seance updated = seanceRepository.save(seance);
-        return seanceMapper.toDTO(updated);
+        // Written to the notes table only: the séance row itself is left alone
+        seanceNoteService.enregistrerNote(seanceId, seance.getTherapeuteId(), note);
+        SeanceDTO dto = seanceMapper.toDTO(seance);
+        dto.setNoteTherapeute(note);
+        return dto;
     }
 
 
     // -------------- Price preview ----------------
     public float calculateAmount(UUID therapistId, int dureeMinutes) {
-        Float prixParHeure = restTemplate.getForObject(
-                "http://therapeute-service/api/therapeutes/profiles/" + therapistId + "/price", Float.class);
-        if (prixParHeure == null) throw new RuntimeException("Prix non disponible");
+        Float prixParHeure = therapeuteClient.getPrixParHeure(therapistId);
+        if (prixParHeure == null) throw new IllegalArgumentException("Prix non disponible");
         return prixParHeure * (dureeMinutes / 60.0f);
     }
 
     // -------------- Check therapist availability -------------
     public boolean isTherapistAvailable(UUID therapistId, LocalDateTime dateTime, int dureeMinutes) {
-        // 1. Récupérer disponibilités du thérapeute via REST
-        System.out.println("Checking availability for therapist: " + therapistId);
-        System.out.println("Requested time: " + dateTime);
-        System.out.println("Duration: " + dureeMinutes + " minutes");
-
-        String url = "http://therapeute-service/api/therapeutes/" + therapistId + "/disponibilites";
-        DisponibiliteDTO[] disponibilites = restTemplate.getForObject(url, DisponibiliteDTO[].class);
+        // 1-2. Vérifier si la séance est dans une plage horaire dispo
+        log.debug("Checking availability of therapist {} at {} for {} minutes", therapistId, dateTime, dureeMinutes);
 
-        if (disponibilites == null || disponibilites.length == 0) {
-            return false; // Pas de disponibilités => pas dispo
-        }
-
-        DayOfWeek jourSeance = dateTime.getDayOfWeek();
-        LocalTime heureDebutSeance = dateTime.toLocalTime();
-        LocalTime heureFinSeance = heureDebutSeance.plusMinutes(dureeMinutes);
-
-        // 2. Vérifier si la séance est dans une plage horaire dispo
-        boolean dansPlage = false;
-        for (DisponibiliteDTO dispo : disponibilites) {
-            if (dispo.getJour().equals(jourSeance)) {
-                PlageHoraireDTO plage = dispo.getPlageHoraire();
-                LocalTime debutPlage = plage.getHeureDebut();
-                LocalTime finPlage = plage.getHeureFin();
-
-                if (!heureDebutSeance.isBefore(debutPlage) && !heureFinSeance.isAfter(finPlage)) {
-                    dansPlage = true;
-                    break;
-                }
-            }
+        // Disponibilités lues depuis la réplique locale, tenue à jour par les événements de therapeute-service
+        if (!disponibiliteReplica.getSchedule(therapistId).contains(dateTime, dureeMinutes)) {
+            return false; // Pas dans les plages horaires du thérapeute
         }
-        if (!dansPlage) return false; // Pas dans les plages horaires du thérapeute
 
         // 3. Vérifier conflits avec les séances déjà planifiées du thérapeute
         LocalDateTime finSeance = dateTime.plusMinutes(dureeMinutes);
+        if (seanceIntervalIndex.covers(dateTime)) {
+            return !seanceIntervalIndex.hasConflict(therapistId, dateTime, finSeance);
+        }
         List<Seance> seancesConflit = seanceRepository.findConflictingSeances(therapistId, dateTime, finSeance);
 
         // Si une séance existe et chevauche, le thérapeute n'est pas disponible
@@ -154,43 +297,98 @@ public class SeanceService {
 
         return true; // Pas de conflit et dans plage dispo
     }
-    @Transactional
     public SeanceDTO createPendingSeance(UUID therapistId, UUID patientId, LocalDateTime dateTime, int dureeMinutes, TypeSeance typeSeance) {
-        System.out.println("Checking therapist availability...");
+        // Fast rejection from memory, without taking any lock
         if (!isTherapistAvailable(therapistId, dateTime, dureeMinutes)) {
-            System.out.println("Therapist not available");
-            throw new RuntimeException("Therapist not available");
+            log.debug("Therapist {} not available at {}", therapistId, dateTime);
+            throw new IllegalArgumentException("Therapist not available");
         }
-        System.out.println("Creating new seance...");
-        Seance seance = Seance.builder()
-                .therapeuteId(therapistId)
-                .patientId(patientId)
-                .dateHeure(dateTime)
-                .dureeMinutes(dureeMinutes)
-                .typeSeance(typeSeance)
-                .statutSeance(StatutSeance.EN_ATTENTE_PAIEMENT) // waiting payment
-                .build();
-        System.out.println("Saving seance to repository...");
-        Seance saved = seanceRepository.save(seance);
-        if (typeSeance == TypeSeance.EN_LIGNE) {
-            saved.setLienVisio(new LienVisio("https://meet.jit.si/seance-" + saved.getSeanceId()));
-            saved = seanceRepository.save(saved); // save again to persist the link
+        return bookingLockManager.executeLocked(therapistId, () -> {
+            // Authoritative check: other nodes may have booked since, so ask the database under the lock
+            if (!seanceRepository.findConflictingSeances(therapistId, dateTime, dateTime.plusMinutes(dureeMinutes)).isEmpty()) {
+                log.debug("Therapist {} booked at {} by another request", therapistId, dateTime);
+                throw new IllegalArgumentException("Therapist not available");
+            }
+            Seance seance = Seance.builder()
+                    .therapeuteId(therapistId)
+                    .patientId(patientId)
+                    .dateHeure(dateTime)
+                    .dureeMinutes(dureeMinutes)
+                    .typeSeance(typeSeance)
+                    .statutSeance(StatutSeance.EN_ATTENTE_PAIEMENT) // waiting payment
+                    .build();
+            Seance saved = seanceRepository.save(seance);
+            if (typeSeance == TypeSeance.EN_LIGNE) {
+                saved.setLienVisio(new LienVisio("https://meet.jit.si/seance-" + saved.getSeanceId()));
+                saved = seanceRepository.save(saved); // save again to persist the link
+            }
+            log.debug("Pending séance {} created for therapist {}", saved.getSeanceId(), therapistId);
+            eventPublisher.publishEvent(new SeanceChangedEvent(saved, null));
+            return seanceMapper.toDTO(saved);
+        });
+    }
+
+    /**
+     * Moves a planned séance to {@code nouvelleDate} in one transaction under the therapist's booking
+     * lock. The payment is left as it is, and both parties get a single notification of the move.
+     */
+    public SeanceDTO replanifierSeance(UUID seanceId, LocalDateTime nouvelleDate) {
+        Seance current = seanceRepository.findById(seanceId)
+                .orElseThrow(() -> new RuntimeException("Séance introuvable"));
+        UUID therapistId = current.getTherapeuteId();
+        int duree = current.getDureeMinutes();
+        if (!nouvelleDate.isAfter(LocalDateTime.now())) {
+            throw new RuntimeException("La nouvelle date doit être dans le futur");
         }
-        System.out.println("Seance saved with id: " + saved.getSeanceId());
-        return seanceMapper.toDTO(saved);
+        // Fast rejection from memory, without taking any lock
+        if (!disponibiliteReplica.getSchedule(therapistId).contains(nouvelleDate, duree)) {
+            throw new RuntimeException("Therapist not available");
+        }
+
+        return bookingLockManager.executeLocked(therapistId, () -> {
+            Seance seance = seanceRepository.findByIdForUpdate(seanceId)
+                    .orElseThrow(() -> new RuntimeException("Séance introuvable"));
+            if (seance.getStatutSeance() != StatutSeance.PLANIFIEE) {
+                throw new RuntimeException("Seule une séance planifiée peut être replanifiée");
+            }
+            // The séance may overlap its own current slot, which is about to be freed
+            boolean conflict = seanceRepository
+                    .findConflictingSeances(therapistId, nouvelleDate, nouvelleDate.plusMinutes(duree))
+                    .stream()
+                    .anyMatch(other -> !other.getSeanceId().equals(seanceId));
+            if (conflict) {
+                throw new RuntimeException("Therapist not available");
+            }
+
+            LocalDateTime ancienneDate = seance.getDateHeure();
+            seance.setDateHeure(nouvelleDate);
+            seance.setDernierRappelMinutes(null); // reminders start over for the new date
+            Seance updated = seanceRepository.save(seance);
+            eventPublisher.publishEvent(new SeanceChangedEvent(updated, StatutSeance.PLANIFIEE));
+
+            sendSeanceNotification(seanceId, updated.getPatientId(), therapistId,
+                    "Your session of " + ancienneDate + " has been moved to " + nouvelleDate,
+                    "Session with patient moved from " + ancienneDate + " to " + nouvelleDate,
+                    NotificationType.SEANCE_RESCHEDULED);
+            return seanceMapper.toDTO(updated);
+        });
     }
 
     // -------------- Confirm booking after payment --------------
     @Transactional
     public SeanceDTO confirmSeanceAfterPayment(UUID seanceId, UUID paymentId) {
+        // Start the payment check first so it runs while the séance is loaded
+        CompletableFuture<PaymentResponse> payment = paymentClient.getPayment(paymentId);
+
         // Retrieve the séance by ID, throw if not found
-        Seance seance = seanceRepository.findById(seanceId)
-                .orElseThrow(() -> new RuntimeException("Séance non trouvée"));
+        if (!seanceRepository.existsById(seanceId)) {
+            throw new RuntimeException("Séance non trouvée");
+        }
 
         // Validate payment status via payment microservice
-        PaymentResponse response = null;
+        PaymentResponse response;
         try {
-            response = getPaymentStatus(paymentId);
+            response = PaymentClient.await(payment);
         } catch (Exception e) {
             throw new RuntimeException("Erreur lors de la vérification du paiement : " + e.getMessage());
         }
@@ -199,9 +397,22 @@ public class SeanceService {
             throw new RuntimeException("Paiement échoué ou statut inconnu");
         }
 
+        // Lock the row only now, so the expiry job cannot release the hold while it is being confirmed
+        Seance seance = seanceRepository.findByIdForUpdate(seanceId)
+                .orElseThrow(() -> new RuntimeException("Séance non trouvée"));
+        if (seance.getStatutSeance() == StatutSeance.ANNULEE) {
+            throw new RuntimeException("La réservation a expiré ou a été annulée");
+        }
+        if (seance.getStatutSeance() != StatutSeance.EN_ATTENTE_PAIEMENT) {
+            // Already confirmed, most likely by the payment event
+            return seanceMapper.toDTO(seance);
+        }
+
         // Update séance status to confirmed
+        StatutSeance previousStatut = seance.getStatutSeance();
         seance.setStatutSeance(StatutSeance.PLANIFIEE);
         Seance updated = seanceRepository.save(seance);
+        eventPublisher.publishEvent(new SeanceChangedEvent(updated, previousStatut));
 
         String patientMsg = "Your session is confirmed for " + updated.getDateHeure();
         String therapistMsg = "Session confirmed with patient for " + updated.getDateHeure();
@@ -212,31 +423,38 @@ public class SeanceService {
         return seanceMapper.toDTO(updated);
     }
 
-    public PaymentResponse getPaymentStatus(UUID paymentId) {
-        String url = "http://payment-service/api/payments/" + paymentId;
-
-        try {
-            PaymentResponse response = restTemplate.getForObject(url, PaymentResponse.class);
-            if (response == null) {
-                throw new RuntimeException("Aucune réponse du service de paiement pour l'ID : " + paymentId);
+    /**
+     * Confirms the séances whose payment has succeeded. Safe to call again with the same ids: only
+     * séances still awaiting payment are confirmed, so redelivered events change nothing.
+     *
+     * @return the séances that were already cancelled, typically holds that expired before the
+     * payment came through, and whose payment must therefore be refunded
+     */
+    @Transactional
+    public List<UUID> confirmPaidSeances(List<UUID> seanceIds) {
+        // Locked so neither the expiry job nor a direct confirmation can change them meanwhile
+        List<Seance> pending = new ArrayList<>();
+        List<UUID> annulees = new ArrayList<>();
+        for (Seance seance : seanceRepository.findAllByIdForUpdate(seanceIds)) {
+            if (seance.getStatutSeance() == StatutSeance.EN_ATTENTE_PAIEMENT) {
+                pending.add(seance);
+            } else if (seance.getStatutSeance() == StatutSeance.ANNULEE) {
+                annulees.add(seance.getSeanceId());
             }
-            return response;
-        } catch (Exception ex) {
-            throw new RuntimeException("Erreur lors de l'appel au service de paiement : " + ex.getMessage());
         }
-    }
-
-    public float getMontantFromPayment(UUID paymentId) {
-        String url = "http://payment-service/api/payments/" + paymentId;
-        try {
-            PaymentResponse response = restTemplate.getForObject(url, PaymentResponse.class);
-            if (response == null) {
-                throw new RuntimeException("Paiement non trouvé pour ID : " + paymentId);
-            }
-            return response.getAmount();
-        } catch (Exception ex) {
-            throw new RuntimeException("Erreur lors de la récupération du montant du paiement : " + ex.getMessage());
+        if (pending.isEmpty()) {
+            return annulees;
         }
+        seanceRepository.updateStatutSeance(pending.stream().map(Seance::getSeanceId).toList(),
+                StatutSeance.EN_ATTENTE_PAIEMENT, StatutSeance.PLANIFIEE, LocalDateTime.now());
+        for (Seance seance : pending) {
+            eventPublisher.publishEvent(SeanceChangedEvent.transitioned(seance, StatutSeance.PLANIFIEE));
+            sendSeanceNotification(seance.getSeanceId(), seance.getPatientId(), seance.getTherapeuteId(),
+                    "Your session is confirmed for " + seance.getDateHeure(),
+                    "Session confirmed with patient for " + seance.getDateHeure(),
+                    NotificationType.PAYMENT_CONFIRMED);
+        }
+        return annulees;
     }
 
     @Transactional
@@ -248,29 +466,41 @@ public class SeanceService {
             throw new RuntimeException("Seule une séance planifiée peut être annulée");
         }
 
-        // 1. Get the payment related to this seance
-        UUID paymentId = getPaymentIdBySeanceId(seanceId);
-        if (paymentId == null) {
+        if (seance.isGroupe()) {
+            // Places in a group séance are not paid through payment-service: nothing to refund
+            seance.setStatutSeance(StatutSeance.ANNULEE);
+            seanceRepository.save(seance);
+            eventPublisher.publishEvent(new SeanceChangedEvent(seance, StatutSeance.PLANIFIEE));
+            sendSeanceNotification(seanceId, null, seance.getTherapeuteId(),
+                    "Your group session has been cancelled. Reason: " + motif,
+                    "Group session cancelled. Reason: " + motif,
+                    NotificationType.SEANCE_CANCELLED);
+            return seanceMapper.toDTO(seance);
+        }
+
+        // 1. Look up the payment of this seance (id and montant), only once a refund is known to be due
+        PaymentResponse paymentResponse;
+        try {
+            paymentResponse = PaymentClient.await(paymentClient.getPaymentBySeanceId(seanceId));
+        } catch (Exception ex) {
+            throw new RuntimeException("Erreur lors de la récupération du paiement : " + ex.getMessage());
+        }
+        if (paymentResponse == null || paymentResponse.getId() == null) {
             throw new RuntimeException("Paiement introuvable pour cette séance");
         }
 
-        // 2. Get the montant from payment service
-        float montant = getMontantFromPayment(paymentId);
+        // 2. Create remboursement with montant included
+        CompletableFuture<RemboursementDTO> remboursement = paymentClient.createRemboursement(
+                new CreateRemboursementRequest(paymentResponse.getId(), motif, paymentResponse.getAmount()));
 
-        // 3. Cancel the seance locally
+        // 3. Cancel the seance locally while the refund request is in flight
         seance.setStatutSeance(StatutSeance.ANNULEE);
         seanceRepository.save(seance);
 
-        // 4. Create remboursement with montant included
-        CreateRemboursementRequest remboursementRequest = new CreateRemboursementRequest(paymentId, motif, montant);
-        ResponseEntity<RemboursementDTO> response = restTemplate.postForEntity(
-                "http://payment-service/api/remboursements",
-                remboursementRequest,
-                RemboursementDTO.class);
+        // Waiting here keeps the cancellation rolled back if the refund fails
+        PaymentClient.await(remboursement);
+        eventPublisher.publishEvent(new SeanceChangedEvent(seance, StatutSeance.PLANIFIEE));
 
-        if (!response.getStatusCode().is2xxSuccessful()) {
-            throw new RuntimeException("Échec du remboursement");
-        }
         String patientMsg = "Your session has been cancelled. Reason: " + motif;
         String therapistMsg = "Session cancelled. Reason: " + motif;
         sendSeanceNotification(seanceId, seance.getPatientId(), seance.getTherapeuteId(),
@@ -279,21 +509,8 @@ public class SeanceService {
         return seanceMapper.toDTO(seance);
     }
 
-    public UUID getPaymentIdBySeanceId(UUID seanceId) {
-        String url = "http://payment-service/api/payments/byseance/" + seanceId;
-
-        try {
-            PaymentResponse response = restTemplate.getForObject(url, PaymentResponse.class);
-            if (response == null) {
-                return null;
-            }
-            return response.getId();
-        } catch (Exception ex) {
-            throw new RuntimeException("Erreur lors de la récupération du paiement : " + ex.getMessage());
-        }
-    }
     public long getPatientCountForTherapist(UUID therapistId) {
-        return seanceRepository.countDistinctPatientsByTherapistId(therapistId);
+        return therapistStatsService.getStats(therapistId).distinctPatients();
     }
 
     @Transactional
@@ -311,6 +528,7 @@ public class SeanceService {
 
         seance.setStatutSeance(StatutSeance.TERMINEE);
         Seance updatedSeance = seanceRepository.save(seance);
+        eventPublisher.publishEvent(new SeanceChangedEvent(updatedSeance, StatutSeance.PLANIFIEE));
 
         // Send notifications
         String patientMsg = "Your session has been completed. Please provide feedback.";
@@ -321,69 +539,4 @@ public class SeanceService {
 
         return seanceMapper.toDTO(updatedSeance);
     }
-
-    // ---- Replaced Lombok by standard constructors and getters/setters ----
-
-
-
-    static class PaymentResponse {
-        private UUID id;
-        private UUID seanceId;
-        private String paymentStatus;
-        private float amount;  // add montant here
-
-        // getters and setters
-        public UUID getId() { return id; }
-        public void setId(UUID id) { this.id = id; }
-
-        public UUID getSeanceId() { return seanceId; }
-        public void setSeanceId(UUID seanceId) { this.seanceId = seanceId; }
-
-        public String getPaymentStatus() { return paymentStatus; }
-        public void setPaymentStatus(String paymentStatus) { this.paymentStatus = paymentStatus; }
-
-        public float getAmount() { return amount; }
-        public void setAmount(float amount) { this.amount = amount; }
-    }
-
-
-    static class CreateRemboursementRequest {
-        private UUID paiementId;
-        private String motif;
-        private float montant;
-
-        public CreateRemboursementRequest(UUID paiementId, String motif,float montant) {
-            this.paiementId = paiementId;
-            this.motif = motif;
-            this.montant = montant;
-        }
-
-        public UUID getPaiementId() { return paiementId; }
-        public void setPaiementId(UUID paiementId) { this.paiementId = paiementId; }
-
-        public String getMotif() { return motif; }
-        public void setMotif(String motif) { this.motif = motif; }
-
-        public float getMontant() { return montant; }
-        public void setMontant(float montant) { this.montant = montant; }
-    }
-
-    static class RemboursementDTO {
-        private UUID id;
-        private UUID paiementId;
-        private String motif;
-        private String statut;
-
-        public UUID getId() { return id; }
-        public void setId(UUID id) { this.id = id; }
-
-        public UUID getPaiementId() { return paiementId; }
-        public void setPaiementId(UUID paiementId) { this.paiementId = paiementId; }
-
-        public String getMotif() { return motif; }
-        public void setMotif(String motif) { this.motif = motif; }
-
-        public String getStatut() { return statut; }
-        public void setStatut(String statut) { this.statut = statut; }
-    }
 }
@@ -0,0 +1,144 @@
+package micro.mentalhealth.project.service;
+
+import micro.mentalhealth.project.dto.SeriesBookingRequest;
+import micro.mentalhealth.project.dto.SeriesOccurrenceResult;
+import micro.mentalhealth.project.model.LienVisio;
+import micro.mentalhealth.project.model.Seance;
+import micro.mentalhealth.project.model.StatutSeance;
+import micro.mentalhealth.project.model.TypeSeance;
+import micro.mentalhealth.project.model.events.SeanceChangedEvent;
+import micro.mentalhealth.project.repository.SeanceRepository;
+import micro.mentalhealth.project.service.DisponibiliteReplica.WeeklySchedule;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Reserves a weekly (or every-n-weeks) series of séances at once.
+ * <p>
+ * Every occurrence is checked in a single pass against the therapist's availability, read once from
+ * the replica, and against the séances returned by one conflict query spanning the whole series.
+ * The accepted occurrences are then inserted together, which Hibernate sends as JDBC batches.
+ * <p>
+ * Each occurrence is then paid on its own, with a quote for that séance. The occurrences share a
+ * {@code serieId}, which keeps their holds from expiring until they start within
+ * {@code seance.hold.series-lead-hours} (see {@link PendingSeanceExpiryJob}).
+ */
+@Service
+public class SeriesBookingService {
+
+    static final int MAX_OCCURRENCES = 52;
+
+    @Autowired
+    private SeanceRepository seanceRepository;
+    @Autowired
+    private DisponibiliteReplica disponibiliteReplica;
+    @Autowired
+    private BookingLockManager bookingLockManager;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Reserves every free occurrence as {@link StatutSeance#EN_ATTENTE_PAIEMENT}, like a single
+     * pending booking, and reports the outcome of each occurrence in chronological order. Unpaid
+     * occurrences are released {@code seance.hold.series-lead-hours} before they start.
+     */
+    public List<SeriesOccurrenceResult> bookSeries(SeriesBookingRequest request) {
+        validate(request);
+        List<LocalDateTime> dates = new ArrayList<>();
+        for (int i = 0; i < request.getOccurrences(); i++) {
+            dates.add(request.getFirstDateTime().plusWeeks((long) i * request.getIntervalWeeks()));
+        }
+        int duree = request.getDureeMinutes();
+        WeeklySchedule schedule = disponibiliteReplica.getSchedule(request.getTherapistId());
+
+        UUID serieId = UUID.randomUUID();
+
+        return bookingLockManager.executeLocked(request.getTherapistId(), () -> {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime windowEnd = dates.get(dates.size() - 1).plusMinutes(duree);
+            List<Seance> existing = new ArrayList<>(seanceRepository.findConflictingSeances(
+                    request.getTherapistId(), dates.get(0), windowEnd));
+            existing.sort(Comparator.comparing(Seance::getDateHeure));
+
+            Map<LocalDateTime, String> refused = new LinkedHashMap<>();
+            List<Seance> toInsert = new ArrayList<>();
+            int next = 0;
+            for (LocalDateTime debut : dates) {
+                LocalDateTime fin = debut.plusMinutes(duree);
+                // Both lists are sorted: skip the séances that end before this occurrence starts
+                while (next < existing.size() && !existing.get(next).getDateFin().isAfter(debut)) {
+                    next++;
+                }
+                if (debut.isBefore(now)) {
+                    refused.put(debut, "Date passée");
+                } else if (!schedule.contains(debut, duree)) {
+                    refused.put(debut, "Hors des disponibilités du thérapeute");
+                } else if (overlapsFrom(existing, next, debut, fin)) {
+                    refused.put(debut, "Créneau déjà réservé");
+                } else {
+                    toInsert.add(Seance.builder()
+                            .therapeuteId(request.getTherapistId())
+                            .patientId(request.getPatientId())
+                            .serieId(serieId)
+                            .dateHeure(debut)
+                            .dureeMinutes(duree)
+                            .typeSeance(request.getTypeSeance())
+                            .statutSeance(StatutSeance.EN_ATTENTE_PAIEMENT)
+                            .build());
+                }
+            }
+
+            List<Seance> saved = seanceRepository.saveAll(toInsert);
+            if (request.getTypeSeance() == TypeSeance.EN_LIGNE) {
+                // Ids exist once persisted; the links are written by one batch of updates at flush
+                saved.forEach(s -> s.setLienVisio(new LienVisio("https://meet.jit.si/seance-" + s.getSeanceId())));
+            }
+            saved.forEach(s -> eventPublisher.publishEvent(new SeanceChangedEvent(s, null)));
+
+            List<SeriesOccurrenceResult> results = new ArrayList<>();
+            int inserted = 0;
+            for (LocalDateTime debut : dates) {
+                String motif = refused.get(debut);
+                results.add(motif != null
+                        ? SeriesOccurrenceResult.refused(debut, motif)
+                        : SeriesOccurrenceResult.reserved(debut, saved.get(inserted++).getSeanceId()));
+            }
+            return results;
+        });
+    }
+
+    private static boolean overlapsFrom(List<Seance> sortedExisting, int from, LocalDateTime debut, LocalDateTime fin) {
+        for (int i = from; i < sortedExisting.size(); i++) {
+            Seance seance = sortedExisting.get(i);
+            if (!seance.getDateHeure().isBefore(fin)) {
+                return false;
+            }
+            if (seance.getDateFin().isAfter(debut)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void validate(SeriesBookingRequest request) {
+        if (request.getTherapistId() == null || request.getPatientId() == null
+                || request.getFirstDateTime() == null || request.getTypeSeance() == null) {
+            throw new IllegalArgumentException("Therapist, patient, first date and type are required");
+        }
+        if (request.getOccurrences() < 1 || request.getOccurrences() > MAX_OCCURRENCES) {
+            throw new IllegalArgumentException("Between 1 and " + MAX_OCCURRENCES + " occurrences are required");
+        }
+        if (request.getDureeMinutes() <= 0 || request.getIntervalWeeks() <= 0) {
+            throw new IllegalArgumentException("Duration and interval must be positive");
+        }
+    }
+}
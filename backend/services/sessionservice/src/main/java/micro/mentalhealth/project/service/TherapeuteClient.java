@@ -0,0 +1,65 @@
+package micro.mentalhealth.project.service;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import micro.mentalhealth.project.dto.DisponibiliteDTO;
+import micro.mentalhealth.project.dto.DisponibilitesChangedMessage;
+import micro.mentalhealth.project.dto.ProfilChangedMessage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Calls to therapeute-service, behind its bulkhead and circuit breaker.
+ */
+@Component
+public class TherapeuteClient {
+
+    static final String SERVICE = "therapeute-service";
+    private static final String THERAPEUTE_SERVICE = "http://therapeute-service/api/therapeutes";
+
+    private final RestTemplate restTemplate;
+    private final DownstreamGuard guard;
+
+    @Autowired
+    public TherapeuteClient(@Qualifier("therapeuteRestTemplate") RestTemplate restTemplate,
+                            CircuitBreakerRegistry circuitBreakerRegistry,
+                            BulkheadRegistry bulkheadRegistry) {
+        this.restTemplate = restTemplate;
+        this.guard = new DownstreamGuard(SERVICE, circuitBreakerRegistry, bulkheadRegistry);
+    }
+
+    public List<DisponibiliteDTO> getDisponibilites(UUID therapeuteId) {
+        DisponibiliteDTO[] disponibilites = guard.call(() -> restTemplate.getForObject(
+                THERAPEUTE_SERVICE + "/" + therapeuteId + "/disponibilites", DisponibiliteDTO[].class));
+        return disponibilites == null ? List.of() : Arrays.asList(disponibilites);
+    }
+
+    public Float getPrixParHeure(UUID therapeuteId) {
+        return guard.call(() -> restTemplate.getForObject(
+                THERAPEUTE_SERVICE + "/profiles/" + therapeuteId + "/price", Float.class));
+    }
+
+    /**
+     * Matching attributes of every validated therapist.
+     */
+    public List<ProfilChangedMessage> getMatchingProfiles() {
+        ProfilChangedMessage[] profils = guard.call(() -> restTemplate.getForObject(
+                THERAPEUTE_SERVICE + "/search/matching-profiles", ProfilChangedMessage[].class));
+        return profils == null ? List.of() : Arrays.asList(profils);
+    }
+
+    /**
+     * Weekly schedule of every therapist, in one call.
+     */
+    public List<DisponibilitesChangedMessage> getAllDisponibilites() {
+        DisponibilitesChangedMessage[] schedules = guard.call(() -> restTemplate.getForObject(
+                THERAPEUTE_SERVICE + "/disponibilites", DisponibilitesChangedMessage[].class));
+        return schedules == null ? List.of() : Arrays.asList(schedules);
+    }
+}
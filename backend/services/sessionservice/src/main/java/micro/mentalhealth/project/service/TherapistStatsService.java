@@ -0,0 +1,231 @@
+package micro.mentalhealth.project.service;
+
+import lombok.extern.slf4j.Slf4j;
+import micro.mentalhealth.project.dto.TherapistStatsDTO;
+import micro.mentalhealth.project.model.StatutSeance;
+import micro.mentalhealth.project.model.TherapistPatientStats;
+import micro.mentalhealth.project.model.TherapistSessionStats;
+import micro.mentalhealth.project.model.events.SeanceChangedEvent;
+import micro.mentalhealth.project.repository.SeanceRepository;
+import micro.mentalhealth.project.repository.SeanceRepository.StatutTotals;
+import micro.mentalhealth.project.repository.TherapistPatientStatsRepository;
+import micro.mentalhealth.project.repository.TherapistSessionStatsRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maintains the {@code therapist_session_stats} read model behind the therapist dashboard.
+ * <p>
+ * Every {@link SeanceChangedEvent} is turned into counter deltas that are added, in the transaction
+ * that changed the séances, just before it commits. Deltas of a transaction are summed per
+ * therapist first, so a bulk transition costs one update per therapist, and applied in therapist
+ * order so concurrent transactions always lock the counter rows in the same order.
+ * <p>
+ * The first time a therapist is seen, their row is seeded from the committed séances, so the
+ * counters are right from the start without a separate migration.
+ */
+@Slf4j
+@Service
+public class TherapistStatsService {
+
+    private static final Comparator<TherapistPatientStats.Key> PAIR_ORDER = Comparator
+            .comparing(TherapistPatientStats.Key::getTherapeuteId)
+            .thenComparing(TherapistPatientStats.Key::getPatientId);
+    // Slots of a therapist's delta array after the one-per-status counts
+    private static final int DISTINCT_PATIENTS = StatutSeance.values().length;
+    private static final int MINUTES_DELIVERED = DISTINCT_PATIENTS + 1;
+
+    private final SeanceRepository seanceRepository;
+    private final TherapistSessionStatsRepository statsRepository;
+    private final TherapistPatientStatsRepository pairRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate seedTemplate;
+
+    // Rows known to exist, so they are only looked for once per node
+    private final Set<UUID> seededTherapists = ConcurrentHashMap.newKeySet();
+    private final Set<TherapistPatientStats.Key> seededPairs = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public TherapistStatsService(SeanceRepository seanceRepository,
+                                 TherapistSessionStatsRepository statsRepository,
+                                 TherapistPatientStatsRepository pairRepository,
+                                 PlatformTransactionManager transactionManager) {
+        this.seanceRepository = seanceRepository;
+        this.statsRepository = statsRepository;
+        this.pairRepository = pairRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.seedTemplate = new TransactionTemplate(transactionManager);
+        this.seedTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public TherapistStatsDTO getStats(UUID therapeuteId) {
+        ensureSeeded(therapeuteId);
+        TherapistSessionStats stats = statsRepository.findById(therapeuteId)
+                .orElseThrow(() -> new IllegalStateException("Statistiques introuvables pour le thérapeute " + therapeuteId));
+        return new TherapistStatsDTO(therapeuteId, stats.getEnAttentePaiement(), stats.getPlanifiees(),
+                stats.getTerminees(), stats.getAnnulees(), stats.getDistinctPatients(), stats.getPlanifiees(),
+                stats.getMinutesDelivered());
+    }
+
+    @EventListener
+    public void onSeanceChanged(SeanceChangedEvent event) {
+        if (event.getPreviousStatut() == event.getStatut()) {
+            return;
+        }
+        // Seeded before this transaction's change is counted, so the seed never includes it
+        ensureSeeded(event.getTherapeuteId());
+        boolean touchesTerminee = event.getPreviousStatut() == StatutSeance.TERMINEE
+                || event.getStatut() == StatutSeance.TERMINEE;
+        if (touchesTerminee && event.getPatientId() != null) {
+            ensurePairSeeded(event.getTherapeuteId(), event.getPatientId());
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            PendingDeltas deltas = new PendingDeltas();
+            deltas.add(event);
+            transactionTemplate.executeWithoutResult(status -> apply(deltas));
+            return;
+        }
+        PendingDeltas deltas = (PendingDeltas) TransactionSynchronizationManager.getResource(this);
+        if (deltas == null) {
+            PendingDeltas created = new PendingDeltas();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    apply(created);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(TherapistStatsService.this);
+                }
+            });
+            deltas = created;
+        }
+        deltas.add(event);
+    }
+
+    private void apply(PendingDeltas deltas) {
+        LocalDateTime now = LocalDateTime.now();
+        // Pairs first, since a pair going from 0 to 1 TERMINEE séance (or back) moves the distinct patient count
+        deltas.pairs.forEach((pair, delta) -> {
+            if (delta == 0) {
+                return;
+            }
+            pairRepository.addTerminees(pair.getTherapeuteId(), pair.getPatientId(), delta);
+            long after = pairRepository.findTerminees(pair.getTherapeuteId(), pair.getPatientId());
+            long before = after - delta;
+            if (before == 0 && after > 0) {
+                deltas.therapist(pair.getTherapeuteId())[DISTINCT_PATIENTS]++;
+            } else if (before > 0 && after == 0) {
+                deltas.therapist(pair.getTherapeuteId())[DISTINCT_PATIENTS]--;
+            }
+        });
+        deltas.therapists.forEach((therapeuteId, d) -> {
+            int updated = statsRepository.addDeltas(therapeuteId, d[StatutSeance.EN_ATTENTE_PAIEMENT.ordinal()],
+                    d[StatutSeance.PLANIFIEE.ordinal()], d[StatutSeance.TERMINEE.ordinal()],
+                    d[StatutSeance.ANNULEE.ordinal()], d[DISTINCT_PATIENTS], d[MINUTES_DELIVERED], now);
+            if (updated == 0) {
+                log.warn("No session stats row for therapist {}; deltas dropped", therapeuteId);
+            }
+        });
+    }
+
+    private void ensureSeeded(UUID therapeuteId) {
+        if (seededTherapists.contains(therapeuteId)) {
+            return;
+        }
+        if (!statsRepository.existsById(therapeuteId)) {
+            try {
+                seedTemplate.executeWithoutResult(status -> statsRepository.saveAndFlush(seed(therapeuteId)));
+            } catch (DataIntegrityViolationException ex) {
+                // Another transaction seeded the row first
+            }
+        }
+        seededTherapists.add(therapeuteId);
+    }
+
+    private void ensurePairSeeded(UUID therapeuteId, UUID patientId) {
+        TherapistPatientStats.Key key = new TherapistPatientStats.Key(therapeuteId, patientId);
+        if (seededPairs.contains(key)) {
+            return;
+        }
+        if (!pairRepository.existsById(key)) {
+            try {
+                seedTemplate.executeWithoutResult(status -> pairRepository.saveAndFlush(new TherapistPatientStats(
+                        therapeuteId, patientId, seanceRepository.countByTherapeuteIdAndPatientIdAndStatutSeance(
+                                therapeuteId, patientId, StatutSeance.TERMINEE))));
+            } catch (DataIntegrityViolationException ex) {
+                // Another transaction seeded the row first
+            }
+        }
+        seededPairs.add(key);
+    }
+
+    private TherapistSessionStats seed(UUID therapeuteId) {
+        TherapistSessionStats stats = new TherapistSessionStats(therapeuteId);
+        for (StatutTotals totals : seanceRepository.sumByStatutForTherapeute(therapeuteId)) {
+            switch (totals.getStatut()) {
+                case EN_ATTENTE_PAIEMENT -> stats.setEnAttentePaiement(totals.getCount());
+                case PLANIFIEE -> stats.setPlanifiees(totals.getCount());
+                case ANNULEE -> stats.setAnnulees(totals.getCount());
+                case TERMINEE -> {
+                    stats.setTerminees(totals.getCount());
+                    stats.setMinutesDelivered(totals.getMinutes());
+                }
+            }
+        }
+        stats.setDistinctPatients(seanceRepository.countDistinctPatientsByTherapistId(therapeuteId));
+        return stats;
+    }
+
+    /**
+     * Counter deltas of one transaction: per therapist, one slot per status then distinct patients
+     * and minutes delivered; per therapist and patient, TERMINEE séances.
+     */
+    private static final class PendingDeltas {
+        final Map<UUID, long[]> therapists = new TreeMap<>();
+        final Map<TherapistPatientStats.Key, Long> pairs = new TreeMap<>(PAIR_ORDER);
+
+        long[] therapist(UUID therapeuteId) {
+            return therapists.computeIfAbsent(therapeuteId, id -> new long[MINUTES_DELIVERED + 1]);
+        }
+
+        void add(SeanceChangedEvent event) {
+            long[] d = therapist(event.getTherapeuteId());
+            move(d, event, event.getPreviousStatut(), -1);
+            move(d, event, event.getStatut(), 1);
+        }
+
+        private void move(long[] d, SeanceChangedEvent event, StatutSeance statut, int sign) {
+            if (statut == null) {
+                return;
+            }
+            d[statut.ordinal()] += sign;
+            if (statut == StatutSeance.TERMINEE) {
+                d[MINUTES_DELIVERED] += (long) sign * event.getDureeMinutes();
+                if (event.getPatientId() == null) {
+                    return; // group séance: no single patient to count
+                }
+                pairs.merge(new TherapistPatientStats.Key(event.getTherapeuteId(), event.getPatientId()),
+                        (long) sign, Long::sum);
+            }
+        }
+    }
+}
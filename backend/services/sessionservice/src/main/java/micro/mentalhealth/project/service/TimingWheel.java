@@ -0,0 +1,145 @@
+package micro.mentalhealth.project.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hierarchical timing wheel: keys scheduled at a deadline (epoch millis) and handed back by
+ * {@link #advanceTo} once that deadline has passed, at most one tick late.
+ * <p>
+ * Level 0 has {@code wheelSize} buckets of {@code tickMs}; each higher level has buckets as wide as
+ * the whole level below. A key sits in the lowest level that covers its deadline and is moved down
+ * a level whenever the bucket it sits in comes round, so scheduling, cancelling and advancing by one
+ * tick are all constant time whatever the number of keys.
+ * <p>
+ * Scheduling a key that is already scheduled moves it. Not thread-safe.
+ */
+final class TimingWheel<K> {
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final long[] levelTickMs;
+    private final List<List<Set<K>>> levels = new ArrayList<>();
+    private final Map<K, Entry> entries = new HashMap<>();
+    private final Set<K> overdue = new LinkedHashSet<>();
+
+    // Start of the first level-0 bucket that has not expired yet
+    private long currentTime;
+
+    TimingWheel(long tickMs, int wheelSize, int levelCount, long startMs) {
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.levelTickMs = new long[levelCount];
+        long levelTick = tickMs;
+        for (int level = 0; level < levelCount; level++) {
+            levelTickMs[level] = levelTick;
+            List<Set<K>> buckets = new ArrayList<>(wheelSize);
+            for (int slot = 0; slot < wheelSize; slot++) {
+                buckets.add(new LinkedHashSet<>());
+            }
+            levels.add(buckets);
+            levelTick = Math.multiplyExact(levelTick, wheelSize);
+        }
+        this.currentTime = startMs - Math.floorMod(startMs, tickMs);
+    }
+
+    /**
+     * Latest deadline that can be scheduled right now.
+     */
+    long horizonMs() {
+        int top = levelTickMs.length - 1;
+        return base(top) + levelTickMs[top] * wheelSize - 1;
+    }
+
+    void schedule(K key, long deadlineMs) {
+        if (deadlineMs > horizonMs()) {
+            throw new IllegalArgumentException("Deadline beyond the wheel horizon: " + deadlineMs);
+        }
+        cancel(key);
+        Entry entry = new Entry(deadlineMs);
+        entries.put(key, entry);
+        place(key, entry);
+    }
+
+    boolean cancel(K key) {
+        Entry entry = entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        if (entry.level < 0) {
+            overdue.remove(key);
+        } else {
+            levels.get(entry.level).get(entry.slot).remove(key);
+        }
+        return true;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Moves the wheel to {@code nowMs} and returns the keys whose deadline has passed, in deadline order
+     * bucket by bucket. They are no longer scheduled.
+     */
+    List<K> advanceTo(long nowMs) {
+        List<K> expired = new ArrayList<>(overdue);
+        overdue.clear();
+        while (currentTime + tickMs <= nowMs) {
+            Set<K> bucket = levels.get(0).get(slot(0, currentTime));
+            expired.addAll(bucket);
+            bucket.clear();
+            currentTime += tickMs;
+            // Pull down, top level first, the buckets that now fall within reach of the level below
+            for (int level = levelTickMs.length - 1; level > 0; level--) {
+                if (currentTime % levelTickMs[level] == 0) {
+                    Set<K> cascading = levels.get(level).get(slot(level, currentTime));
+                    List<K> keys = new ArrayList<>(cascading);
+                    cascading.clear();
+                    keys.forEach(key -> place(key, entries.get(key)));
+                }
+            }
+        }
+        expired.forEach(entries::remove);
+        return expired;
+    }
+
+    private void place(K key, Entry entry) {
+        if (entry.deadlineMs < currentTime) {
+            entry.level = -1;
+            overdue.add(key);
+            return;
+        }
+        for (int level = 0; level < levelTickMs.length; level++) {
+            if (entry.deadlineMs < base(level) + levelTickMs[level] * wheelSize) {
+                entry.level = level;
+                entry.slot = slot(level, entry.deadlineMs);
+                levels.get(level).get(entry.slot).add(key);
+                return;
+            }
+        }
+        throw new IllegalStateException("Deadline beyond the wheel horizon: " + entry.deadlineMs);
+    }
+
+    private long base(int level) {
+        return currentTime - Math.floorMod(currentTime, levelTickMs[level]);
+    }
+
+    private int slot(int level, long timeMs) {
+        return (int) Math.floorMod(Math.floorDiv(timeMs, levelTickMs[level]), (long) wheelSize);
+    }
+
+    private static final class Entry {
+        final long deadlineMs;
+        int level;
+        int slot;
+
+        Entry(long deadlineMs) {
+            this.deadlineMs = deadlineMs;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package micro.mentalhealth.project.service;
+
+import lombok.extern.slf4j.Slf4j;
+import micro.mentalhealth.project.dto.NotificationRequest;
+import micro.mentalhealth.project.dto.SeanceDTO;
+import micro.mentalhealth.project.dto.WaitlistEntryDTO;
+import micro.mentalhealth.project.dto.WaitlistRequest;
+import micro.mentalhealth.project.model.NotificationType;
+import micro.mentalhealth.project.model.StatutAttente;
+import micro.mentalhealth.project.model.StatutSeance;
+import micro.mentalhealth.project.model.TypeSeance;
+import micro.mentalhealth.project.model.WaitlistEntry;
+import micro.mentalhealth.project.model.events.SeanceChangedEvent;
+import micro.mentalhealth.project.repository.WaitlistEntryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Waitlists for fully booked therapists.
+ * <p>
+ * A patient joins the waitlist of a therapist with the window in which they would like a séance.
+ * The waiting entries are kept in memory per therapist, sorted by window start. When a planned
+ * séance is cancelled, or an unpaid hold expires, the freed interval is matched against that index
+ * and offered to the patient who has waited longest among those whose window contains it. The offer
+ * is an {@link StatutSeance#EN_ATTENTE_PAIEMENT} hold created in the patient's name, announced with a
+ * {@link NotificationType#WAITLIST_OFFER} notification. If it is not paid within
+ * {@code seance.hold.ttl-minutes}, it expires like any other hold, and the interval is offered to the
+ * next patient.
+ * <p>
+ * Entries are stored in the database and each offer is claimed there with a conditional update, so
+ * that instances never offer the same entry twice. Each instance rebuilds its index from the database
+ * every {@code waitlist.index.refresh-interval-ms}, which is when entries added on other instances
+ * become visible to it.
+ */
+@Slf4j
+@Service
+public class WaitlistService {
+
+    @Autowired
+    private WaitlistEntryRepository waitlistRepository;
+    @Autowired
+    private SeanceService seanceService;
+    @Autowired
+    private NotificationProducer notificationProducer;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${seance.hold.ttl-minutes:15}")
+    private long holdTtlMinutes;
+
+    private static final Comparator<Waiting> BY_WINDOW = Comparator
+            .comparing(Waiting::fenetreDebut)
+            .thenComparing(Waiting::createdAt)
+            .thenComparing(Waiting::entryId);
+
+    private static final UUID LOWEST_ID = new UUID(Long.MIN_VALUE, Long.MIN_VALUE);
+
+    private volatile Map<UUID, NavigableSet<Waiting>> index = new ConcurrentHashMap<>();
+
+    // Offers run off the thread that freed the slot, after its transaction has committed
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private record Waiting(UUID entryId, UUID patientId, LocalDateTime fenetreDebut, LocalDateTime fenetreFin,
+                           int dureeMinutes, TypeSeance typeSeance, LocalDateTime createdAt) {
+
+        static Waiting of(WaitlistEntry entry) {
+            return new Waiting(entry.getEntryId(), entry.getPatientId(), entry.getFenetreDebut(),
+                    entry.getFenetreFin(), entry.getDureeMinutes(), entry.getTypeSeance(), entry.getCreatedAt());
+        }
+    }
+
+    public WaitlistEntryDTO inscrire(WaitlistRequest request) {
+        if (request.getTherapeuteId() == null || request.getPatientId() == null) {
+            throw new IllegalArgumentException("Le thérapeute et le patient sont obligatoires");
+        }
+        FreeSlotService.validateWindow(request.getFrom(), request.getTo(), request.getDureeMinutes(),
+                FreeSlotService.DEFAULT_STEP_MINUTES);
+        if (request.getFrom().plusMinutes(request.getDureeMinutes()).isAfter(request.getTo())) {
+            throw new IllegalArgumentException("La fenêtre est plus courte que la séance");
+        }
+        if (!request.getTo().isAfter(LocalDateTime.now())) {
+            throw new IllegalArgumentException("La fenêtre doit être dans le futur");
+        }
+        WaitlistEntry saved = waitlistRepository.save(new WaitlistEntry(request.getPatientId(),
+                request.getTherapeuteId(), request.getFrom(), request.getTo(), request.getDureeMinutes(),
+                request.getTypeSeance() != null ? request.getTypeSeance() : TypeSeance.EN_LIGNE));
+        index.computeIfAbsent(saved.getTherapeuteId(), id -> new ConcurrentSkipListSet<>(BY_WINDOW))
+                .add(Waiting.of(saved));
+        return toDTO(saved);
+    }
+
+    /**
+     * Takes the patient off the waitlist, as long as no slot has been offered yet.
+     */
+    public void quitter(UUID entryId) {
+        WaitlistEntry entry = waitlistRepository.findById(entryId)
+                .orElseThrow(() -> new IllegalArgumentException("Inscription introuvable"));
+        Integer left = new TransactionTemplate(transactionManager).execute(status -> waitlistRepository
+                .transition(entryId, StatutAttente.EN_ATTENTE, StatutAttente.ANNULEE, null, LocalDateTime.now()));
+        if (left == null || left == 0) {
+            throw new IllegalArgumentException("Cette inscription n'est plus en attente");
+        }
+        removeFromIndex(entry.getTherapeuteId(), entryId);
+    }
+
+    public List<WaitlistEntryDTO> getEntriesForPatient(UUID patientId) {
+        return waitlistRepository.findByPatientIdOrderByCreatedAtDesc(patientId).stream()
+                .map(WaitlistService::toDTO)
+                .toList();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSeanceChanged(SeanceChangedEvent event) {
+        boolean wasHoldingSlot = event.getPreviousStatut() == StatutSeance.PLANIFIEE
+                || event.getPreviousStatut() == StatutSeance.EN_ATTENTE_PAIEMENT;
+        boolean freed = event.isDeleted() || event.getStatut() == StatutSeance.ANNULEE;
+        if (!wasHoldingSlot || !freed || !event.getDateHeure().isAfter(LocalDateTime.now())) {
+            return;
+        }
+        NavigableSet<Waiting> waiting = index.get(event.getTherapeuteId());
+        if (waiting == null || waiting.isEmpty()) {
+            return;
+        }
+        executor.execute(() -> offrirCreneau(event.getTherapeuteId(), event.getPatientId(), event.getDateHeure(),
+                event.getDateHeure().plusMinutes(event.getDureeMinutes())));
+    }
+
+    /**
+     * Expires the entries whose window has passed and rebuilds the index from the database.
+     */
+    @Scheduled(fixedDelayString = "${waitlist.index.refresh-interval-ms:60000}")
+    public void refreshIndex() {
+        LocalDateTime now = LocalDateTime.now();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> waitlistRepository.expirePassed(now));
+        List<WaitlistEntry> entries = waitlistRepository.findByStatutAndFenetreFinAfter(StatutAttente.EN_ATTENTE, now);
+
+        Map<UUID, NavigableSet<Waiting>> rebuilt = new ConcurrentHashMap<>();
+        for (WaitlistEntry entry : entries) {
+            rebuilt.computeIfAbsent(entry.getTherapeuteId(), id -> new ConcurrentSkipListSet<>(BY_WINDOW))
+                    .add(Waiting.of(entry));
+        }
+        // Entries added here while the database was being read are not in it yet
+        index.forEach((therapeuteId, waiting) -> waiting.stream()
+                .filter(w -> !w.createdAt().isBefore(now))
+                .forEach(w -> rebuilt.computeIfAbsent(therapeuteId, id -> new ConcurrentSkipListSet<>(BY_WINDOW)).add(w)));
+        index = rebuilt;
+    }
+
+    // Offers [debut, fin) to the longest-waiting patient it suits, then to the next if that offer cannot be claimed
+    private void offrirCreneau(UUID therapeuteId, UUID ancienPatientId, LocalDateTime debut, LocalDateTime fin) {
+        NavigableSet<Waiting> waiting = index.get(therapeuteId);
+        if (waiting == null) {
+            return;
+        }
+        // Only entries whose window starts before the freed interval ends can fit in it
+        Waiting bound = new Waiting(LOWEST_ID, null, fin, null, 0, null, LocalDateTime.MIN);
+        List<Waiting> eligible = new ArrayList<>();
+        Map<UUID, LocalDateTime> starts = new HashMap<>();
+        for (Waiting w : waiting.headSet(bound, false)) {
+            LocalDateTime start = max(debut, w.fenetreDebut());
+            LocalDateTime end = w.fenetreFin().isBefore(fin) ? w.fenetreFin() : fin;
+            if (!start.plusMinutes(w.dureeMinutes()).isAfter(end) && !w.patientId().equals(ancienPatientId)) {
+                eligible.add(w);
+                starts.put(w.entryId(), start);
+            }
+        }
+        eligible.sort(Comparator.comparing(Waiting::createdAt));
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        for (Waiting w : eligible) {
+            Integer claimed = transaction.execute(status -> waitlistRepository.transition(
+                    w.entryId(), StatutAttente.EN_ATTENTE, StatutAttente.OFFRE, null, LocalDateTime.now()));
+            waiting.remove(w);
+            if (claimed == null || claimed == 0) {
+                continue; // left the waitlist, or offered a slot by another instance
+            }
+            LocalDateTime start = starts.get(w.entryId());
+            SeanceDTO hold;
+            try {
+                hold = seanceService.createPendingSeance(therapeuteId, w.patientId(), start, w.dureeMinutes(), w.typeSeance());
+            } catch (RuntimeException ex) {
+                // Someone booked the interval first: the patient keeps their place in line
+                transaction.execute(status -> waitlistRepository.transition(
+                        w.entryId(), StatutAttente.OFFRE, StatutAttente.EN_ATTENTE, null, LocalDateTime.now()));
+                waiting.add(w);
+                log.info("Freed slot of therapist {} at {} was taken before it could be offered: {}",
+                        therapeuteId, start, ex.getMessage());
+                return;
+            }
+            transaction.execute(status -> waitlistRepository.transition(
+                    w.entryId(), StatutAttente.OFFRE, StatutAttente.OFFRE, hold.getSeanceId(), LocalDateTime.now()));
+
+            NotificationRequest request = new NotificationRequest();
+            request.setUserId(w.patientId());
+            request.setMessage("A session opened on " + start + " and is held for you for " + holdTtlMinutes
+                    + " minutes: complete the payment to confirm it");
+            request.setType(NotificationType.WAITLIST_OFFER);
+            request.setRelatedEntityId(hold.getSeanceId());
+            notificationProducer.sendNotification(request);
+            log.info("Offered slot {} of therapist {} to waitlisted patient {}", start, therapeuteId, w.patientId());
+            return;
+        }
+    }
+
+    private void removeFromIndex(UUID therapeuteId, UUID entryId) {
+        NavigableSet<Waiting> waiting = index.get(therapeuteId);
+        if (waiting != null) {
+            waiting.removeIf(w -> w.entryId().equals(entryId));
+        }
+    }
+
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static WaitlistEntryDTO toDTO(WaitlistEntry entry) {
+        return new WaitlistEntryDTO(entry.getEntryId(), entry.getPatientId(), entry.getTherapeuteId(),
+                entry.getFenetreDebut(), entry.getFenetreFin(), entry.getDureeMinutes(), entry.getTypeSeance(),
+                entry.getStatut(), entry.getSeanceOffertId(), entry.getCreatedAt());
+    }
+}
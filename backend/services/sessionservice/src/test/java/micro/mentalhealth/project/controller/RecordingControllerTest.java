@@ -0,0 +1,62 @@
+package micro.mentalhealth.project.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * {@code Range} headers of recording playback: the three forms of a single byte range, clamped to
+ * the file, and everything that must be answered with 416.
+ */
+class RecordingControllerTest {
+
+    private static final long SIZE = 1_000;
+
+    @Test
+    void aClosedRangeIsServedAsIs() {
+        assertArrayEquals(new long[]{0, 99}, RecordingController.parseRange("bytes=0-99", SIZE));
+        assertArrayEquals(new long[]{500, 500}, RecordingController.parseRange("bytes=500-500", SIZE));
+        assertArrayEquals(new long[]{0, 999}, RecordingController.parseRange("bytes=0-999", SIZE));
+    }
+
+    @Test
+    void anOpenRangeRunsToTheEndOfTheFile() {
+        assertArrayEquals(new long[]{100, 999}, RecordingController.parseRange("bytes=100-", SIZE));
+        assertArrayEquals(new long[]{999, 999}, RecordingController.parseRange("bytes=999-", SIZE));
+    }
+
+    @Test
+    void aSuffixRangeIsTheLastBytesOfTheFile() {
+        assertArrayEquals(new long[]{950, 999}, RecordingController.parseRange("bytes=-50", SIZE));
+        assertArrayEquals(new long[]{0, 999}, RecordingController.parseRange("bytes=-5000", SIZE));
+        assertNull(RecordingController.parseRange("bytes=-0", SIZE));
+    }
+
+    @Test
+    void anEndPastTheFileIsClampedToItsLastByte() {
+        assertArrayEquals(new long[]{900, 999}, RecordingController.parseRange("bytes=900-5000", SIZE));
+    }
+
+    @Test
+    void aRangeStartingAtOrPastTheEndCannotBeServed() {
+        assertNull(RecordingController.parseRange("bytes=1000-", SIZE));
+        assertNull(RecordingController.parseRange("bytes=1000-1100", SIZE));
+        assertNull(RecordingController.parseRange("bytes=0-0", 0));
+    }
+
+    @Test
+    void malformedAndMultipleRangesAreRefused() {
+        assertNull(RecordingController.parseRange("bytes=99-0", SIZE));
+        assertNull(RecordingController.parseRange("bytes=abc-", SIZE));
+        assertNull(RecordingController.parseRange("bytes=100", SIZE));
+        assertNull(RecordingController.parseRange("bytes=-", SIZE));
+        assertNull(RecordingController.parseRange("items=0-99", SIZE));
+        assertNull(RecordingController.parseRange("bytes=0-9,20-29", SIZE));
+    }
+
+    @Test
+    void whitespaceAroundTheBoundsIsTolerated() {
+        assertArrayEquals(new long[]{10, 19}, RecordingController.parseRange("bytes= 10 - 19 ", SIZE));
+    }
+}
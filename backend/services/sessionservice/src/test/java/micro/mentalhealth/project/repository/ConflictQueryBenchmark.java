@@ -0,0 +1,133 @@
+package micro.mentalhealth.project.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Conflict-check latency on a 1M-row copy of the seances table, with the former
+ * {@code DATE_ADD(date_heure, INTERVAL duree_minutes MINUTE) > :debut} predicate and with the stored
+ * {@code date_fin} column behind the {@code (therapeute_id, date_heure, date_fin)} index.
+ * <p>
+ * Needs a disposable MySQL schema, so it only runs when asked for:
+ * <pre>
+ * mvn test -Dtest=ConflictQueryBenchmark -Dbenchmark.jdbc-url=jdbc:mysql://localhost:3307/bench \
+ *     -Dbenchmark.user=asmaa -Dbenchmark.password=asmaa
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark.jdbc-url", matches = ".+")
+class ConflictQueryBenchmark {
+
+    private static final int ROWS = 1_000_000;
+    private static final int THERAPISTS = 2_000;
+    private static final int QUERIES = 2_000;
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2024, 1, 1, 8, 0);
+
+    private static final String BEFORE = "SELECT seance_id FROM seances_bench WHERE therapeute_id = ? AND " +
+            "statut_seance <> 'ANNULEE' AND date_heure < ? AND " +
+            "DATE_ADD(date_heure, INTERVAL duree_minutes MINUTE) > ?";
+    private static final String AFTER = "SELECT seance_id FROM seances_bench WHERE therapeute_id = ? AND " +
+            "statut_seance <> 'ANNULEE' AND date_heure < ? AND date_fin > ?";
+
+    @Test
+    void compareConflictChecks() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(
+                System.getProperty("benchmark.jdbc-url") + "?rewriteBatchedStatements=true",
+                System.getProperty("benchmark.user"), System.getProperty("benchmark.password"))) {
+            UUID[] therapists = new UUID[THERAPISTS];
+            for (int i = 0; i < THERAPISTS; i++) {
+                therapists[i] = UUID.randomUUID();
+            }
+            populate(connection, therapists);
+
+            // Before: no composite index, end time computed per row
+            report("DATE_ADD, no index", measure(connection, BEFORE, therapists));
+
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE INDEX idx_bench_interval ON seances_bench (therapeute_id, date_heure, date_fin)");
+            }
+            // The index alone does not help the DATE_ADD form beyond the therapist prefix
+            report("DATE_ADD, with index", measure(connection, BEFORE, therapists));
+            report("date_fin, with index", measure(connection, AFTER, therapists));
+        }
+    }
+
+    private static void populate(Connection connection, UUID[] therapists) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS seances_bench");
+            statement.execute("CREATE TABLE seances_bench (seance_id BINARY(16) PRIMARY KEY, " +
+                    "therapeute_id BINARY(16) NOT NULL, date_heure DATETIME(6) NOT NULL, " +
+                    "duree_minutes INT NOT NULL, date_fin DATETIME(6), statut_seance VARCHAR(32) NOT NULL)");
+        }
+        connection.setAutoCommit(false);
+        Random random = new Random(42);
+        int perTherapist = ROWS / THERAPISTS;
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO seances_bench VALUES (?, ?, ?, ?, ?, ?)")) {
+            for (int t = 0; t < THERAPISTS; t++) {
+                for (int n = 0; n < perTherapist; n++) {
+                    // One séance per hour slot, spread over working hours of successive days
+                    LocalDateTime debut = EPOCH.plusDays(n / 8).plusHours(n % 8);
+                    int duree = random.nextBoolean() ? 45 : 50;
+                    insert.setBytes(1, bytes(UUID.randomUUID()));
+                    insert.setBytes(2, bytes(therapists[t]));
+                    insert.setTimestamp(3, Timestamp.valueOf(debut));
+                    insert.setInt(4, duree);
+                    insert.setTimestamp(5, Timestamp.valueOf(debut.plusMinutes(duree)));
+                    insert.setString(6, random.nextInt(10) == 0 ? "ANNULEE" : "PLANIFIEE");
+                    insert.addBatch();
+                }
+                if (t % 20 == 19) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+        connection.setAutoCommit(true);
+    }
+
+    private static long[] measure(Connection connection, String sql, UUID[] therapists) throws SQLException {
+        Random random = new Random(7);
+        long[] nanos = new long[QUERIES];
+        try (PreparedStatement query = connection.prepareStatement(sql)) {
+            for (int i = 0; i < QUERIES; i++) {
+                LocalDateTime debut = EPOCH.plusDays(random.nextInt(ROWS / THERAPISTS / 8)).plusHours(random.nextInt(8));
+                query.setBytes(1, bytes(therapists[random.nextInt(THERAPISTS)]));
+                query.setTimestamp(2, Timestamp.valueOf(debut.plusMinutes(50)));
+                query.setTimestamp(3, Timestamp.valueOf(debut));
+                long start = System.nanoTime();
+                try (ResultSet rows = query.executeQuery()) {
+                    while (rows.next()) {
+                        rows.getBytes(1);
+                    }
+                }
+                nanos[i] = System.nanoTime() - start;
+            }
+        }
+        return nanos;
+    }
+
+    private static void report(String label, long[] nanos) {
+        Arrays.sort(nanos);
+        System.out.printf("%-22s p50=%7.3f ms  p99=%7.3f ms  max=%7.3f ms%n", label,
+                nanos[nanos.length / 2] / 1e6, nanos[nanos.length * 99 / 100] / 1e6, nanos[nanos.length - 1] / 1e6);
+    }
+
+    private static byte[] bytes(UUID id) {
+        return ByteBuffer.allocate(16).putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits()).array();
+    }
+}
@@ -0,0 +1,185 @@
+package micro.mentalhealth.project.service;
+
+import micro.mentalhealth.project.mapper.SeanceMapper;
+import micro.mentalhealth.project.model.TypeSeance;
+import micro.mentalhealth.project.model.events.SeanceChangedEvent;
+import micro.mentalhealth.project.repository.SeanceRepository;
+import micro.mentalhealth.project.repository.TherapeuteBookingGuardRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.AmqpTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Books against a real database from two simulated nodes, each with its own striped locks and
+ * interval index, so that only the database guard row keeps them from double-booking a slot.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:booking;MODE=MySQL;LOCK_TIMEOUT=20000;DB_CLOSE_DELAY=-1",
+        "spring.datasource.hikari.maximum-pool-size=40",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false"
+})
+class BookingConcurrencyTest {
+
+    private static final int THREADS = 64;
+
+    @Autowired
+    private SeanceRepository seanceRepository;
+    @Autowired
+    private TherapeuteBookingGuardRepository guardRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private BookingLockManager lockManagerA;
+    private SeanceService nodeA;
+    private SeanceService nodeB;
+    private ExecutorService pool;
+
+    @BeforeEach
+    void setUp() {
+        lockManagerA = new BookingLockManager(256, guardRepository, transactionManager);
+        nodeA = node(lockManagerA);
+        nodeB = node(new BookingLockManager(256, guardRepository, transactionManager));
+        pool = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+        seanceRepository.deleteAll();
+        guardRepository.deleteAll();
+    }
+
+    @Test
+    void onlyOneOfManyConcurrentBookingsOfTheSameSlotSucceedsAcrossNodes() throws Exception {
+        UUID therapistId = UUID.randomUUID();
+        LocalDateTime slot = nextMondayAt(10);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger successes = new AtomicInteger();
+
+        List<Future<?>> bookings = IntStream.range(0, THREADS)
+                .<Future<?>>mapToObj(i -> pool.submit(() -> {
+                    start.await();
+                    try {
+                        (i % 2 == 0 ? nodeA : nodeB).createPendingSeance(therapistId, UUID.randomUUID(), slot, 60,
+                                TypeSeance.PRESENTIEL);
+                        successes.incrementAndGet();
+                    } catch (IllegalArgumentException ex) {
+                        // Slot already taken
+                    }
+                    return null;
+                }))
+                .toList();
+        start.countDown();
+        for (Future<?> booking : bookings) {
+            booking.get(60, TimeUnit.SECONDS);
+        }
+
+        assertEquals(1, successes.get());
+        assertEquals(1, seanceRepository.findConflictingSeances(therapistId, slot, slot.plusMinutes(60)).size());
+    }
+
+    @Test
+    void aHeldLockBlocksItsTherapistOnEveryNodeButNoOtherTherapist() throws Exception {
+        UUID held = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        while (lockManagerA.stripeFor(other) == lockManagerA.stripeFor(held)) {
+            other = UUID.randomUUID();
+        }
+        LocalDateTime slot = nextMondayAt(10);
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<?> holder = pool.submit(() -> lockManagerA.executeLocked(held, () -> {
+            locked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }));
+        assertTrue(locked.await(10, TimeUnit.SECONDS));
+
+        // Another therapist books on the same node while the lock is held
+        UUID otherTherapist = other;
+        pool.submit(() -> nodeA.createPendingSeance(otherTherapist, UUID.randomUUID(), slot, 60, TypeSeance.PRESENTIEL))
+                .get(10, TimeUnit.SECONDS);
+        // The held therapist waits on the other node, on the database row alone
+        Future<?> blocked = pool.submit(() ->
+                nodeB.createPendingSeance(held, UUID.randomUUID(), slot, 60, TypeSeance.PRESENTIEL));
+        assertThrows(TimeoutException.class, () -> blocked.get(500, TimeUnit.MILLISECONDS));
+        assertFalse(blocked.isDone());
+
+        release.countDown();
+        holder.get(10, TimeUnit.SECONDS);
+        blocked.get(10, TimeUnit.SECONDS);
+        assertEquals(1, seanceRepository.findConflictingSeances(held, slot, slot.plusMinutes(60)).size());
+        assertEquals(1, seanceRepository.findConflictingSeances(otherTherapist, slot, slot.plusMinutes(60)).size());
+    }
+
+    // One sessionservice instance: its own stripes and index, sharing only the database
+    private SeanceService node(BookingLockManager lockManager) {
+        SeanceIntervalIndex index = new SeanceIntervalIndex();
+        ReflectionTestUtils.setField(index, "coveredFrom", LocalDateTime.MIN);
+        ReflectionTestUtils.setField(index, "amqpTemplate", mock(AmqpTemplate.class));
+
+        DisponibiliteReplica replica = mock(DisponibiliteReplica.class);
+        DisponibiliteReplica.WeeklySchedule alwaysOpen = mock(DisponibiliteReplica.WeeklySchedule.class);
+        when(alwaysOpen.contains(any(), anyInt())).thenReturn(true);
+        when(replica.getSchedule(any())).thenReturn(alwaysOpen);
+
+        ApplicationEventPublisher publisher = event -> index.onSeanceChanged((SeanceChangedEvent) event);
+
+        SeanceService seanceService = new SeanceService();
+        ReflectionTestUtils.setField(seanceService, "seanceRepository", seanceRepository);
+        ReflectionTestUtils.setField(seanceService, "seanceMapper", new SeanceMapper());
+        ReflectionTestUtils.setField(seanceService, "seanceIntervalIndex", index);
+        ReflectionTestUtils.setField(seanceService, "disponibiliteReplica", replica);
+        ReflectionTestUtils.setField(seanceService, "bookingLockManager", lockManager);
+        ReflectionTestUtils.setField(seanceService, "eventPublisher", publisher);
+        return seanceService;
+    }
+
+    private static LocalDateTime nextMondayAt(int hour) {
+        return LocalDateTime.now().with(TemporalAdjusters.next(DayOfWeek.MONDAY)).with(LocalTime.of(hour, 0));
+    }
+}
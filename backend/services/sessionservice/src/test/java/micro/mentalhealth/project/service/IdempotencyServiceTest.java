@@ -0,0 +1,205 @@
+package micro.mentalhealth.project.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import micro.mentalhealth.project.model.IdempotencyRecord;
+import micro.mentalhealth.project.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Keys claimed, completed and replayed against a real database, with a fresh service standing in for
+ * each node so that replays come from the table and not from the in-memory cache.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:idempotency;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false"
+})
+class IdempotencyServiceTest {
+
+    private static final String KEY = "3f1c9a";
+
+    @Autowired
+    private IdempotencyRecordRepository recordRepository;
+
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        recordRepository.deleteAll();
+    }
+
+    @Test
+    void aRetryReplaysTheStoredResponseWithoutRunningAgain() {
+        ResponseEntity<String> first = node().execute("pending", KEY, String.class, this::ok, "a", 60);
+        ResponseEntity<String> retry = node().execute("pending", KEY, String.class, this::ok, "a", 60);
+
+        assertEquals(1, runs.get());
+        assertEquals(HttpStatus.OK, retry.getStatusCode());
+        assertEquals(first.getBody(), retry.getBody());
+        assertEquals("true", retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+    }
+
+    @Test
+    void clientErrorsAreReplayedToo() {
+        node().execute("pending", KEY, String.class, this::badRequest, "a");
+        ResponseEntity<String> retry = node().execute("pending", KEY, String.class, this::ok, "a");
+
+        assertEquals(HttpStatus.BAD_REQUEST, retry.getStatusCode());
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void aRetryWhileTheFirstRequestRunsGetsConflict() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<ResponseEntity<String>> first = pool.submit(() ->
+                    node().execute("pending", KEY, String.class, () -> {
+                        running.countDown();
+                        try {
+                            finish.await();
+                        } catch (InterruptedException ex) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return ok();
+                    }, "a"));
+            assertTrue(running.await(10, TimeUnit.SECONDS));
+
+            assertEquals(HttpStatus.CONFLICT,
+                    node().execute("pending", KEY, String.class, this::ok, "a").getStatusCode());
+
+            finish.countDown();
+            assertEquals(HttpStatus.OK, first.get(10, TimeUnit.SECONDS).getStatusCode());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        ResponseEntity<String> retry = node().execute("pending", KEY, String.class, this::ok, "a");
+        assertEquals("true", retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void aKeyReusedWithOtherParametersIsRefused() {
+        IdempotencyService node = node();
+        node.execute("pending", KEY, String.class, this::ok, "a", 60);
+
+        // From the cache of the node that ran it and from the table on any other
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY,
+                node.execute("pending", KEY, String.class, this::ok, "a", 90).getStatusCode());
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY,
+                node().execute("pending", KEY, String.class, this::ok, "b", 60).getStatusCode());
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void theSameKeyOnAnotherEndpointIsAnotherRequest() {
+        node().execute("pending", KEY, String.class, this::ok, "a");
+        ResponseEntity<String> confirm = node().execute("confirm", KEY, String.class, this::ok, "a");
+
+        assertNull(confirm.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        assertEquals(2, runs.get());
+    }
+
+    @Test
+    void aStaleClaimIsTakenOver() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        // Left behind by a node that died while running the request
+        recordRepository.saveAndFlush(new IdempotencyRecord("pending:" + KEY, "whatever",
+                now.minusMinutes(5), now.plusHours(24)));
+
+        ResponseEntity<String> response = node().execute("pending", KEY, String.class, this::ok, "a");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, runs.get());
+        assertEquals(200, recordRepository.findById("pending:" + KEY).orElseThrow().getStatusCode());
+    }
+
+    @Test
+    void aRecentClaimIsNotTakenOver() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        recordRepository.saveAndFlush(new IdempotencyRecord("pending:" + KEY, "whatever",
+                now.minusSeconds(5), now.plusHours(24)));
+
+        assertEquals(HttpStatus.CONFLICT,
+                node().execute("pending", KEY, String.class, this::ok, "a").getStatusCode());
+        assertEquals(0, runs.get());
+    }
+
+    @Test
+    void serverErrorsAndExceptionsReleaseTheKeyForARetry() {
+        ResponseEntity<String> unavailable = node().execute("pending", KEY, String.class, () -> {
+            runs.incrementAndGet();
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).<String>body(null);
+        }, "a");
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, unavailable.getStatusCode());
+        assertTrue(recordRepository.findById("pending:" + KEY).isEmpty());
+
+        assertThrows(IllegalStateException.class, () -> node().execute("pending", KEY, String.class, () -> {
+            throw new IllegalStateException("Service therapeute-service indisponible");
+        }, "a"));
+        assertTrue(recordRepository.findById("pending:" + KEY).isEmpty());
+
+        ResponseEntity<String> retry = node().execute("pending", KEY, String.class, this::ok, "a");
+        assertEquals(HttpStatus.OK, retry.getStatusCode());
+        assertNull(retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        assertEquals(2, runs.get());
+    }
+
+    @Test
+    void requestsWithoutAKeyAlwaysRun() {
+        node().execute("pending", null, String.class, this::ok, "a");
+        node().execute("pending", " ", String.class, this::ok, "a");
+
+        assertEquals(2, runs.get());
+        assertEquals(0, recordRepository.count());
+    }
+
+    // One sessionservice instance, with its own cache in front of the shared table
+    private IdempotencyService node() {
+        IdempotencyService service = new IdempotencyService(100);
+        ReflectionTestUtils.setField(service, "recordRepository", recordRepository);
+        ReflectionTestUtils.setField(service, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(service, "ttlHours", 24L);
+        ReflectionTestUtils.setField(service, "claimTimeoutSeconds", 60L);
+        return service;
+    }
+
+    private ResponseEntity<String> ok() {
+        return ResponseEntity.ok("run " + runs.incrementAndGet());
+    }
+
+    private ResponseEntity<String> badRequest() {
+        runs.incrementAndGet();
+        return ResponseEntity.badRequest().body(null);
+    }
+}
@@ -0,0 +1,93 @@
+package micro.mentalhealth.project.service;
+
+import micro.mentalhealth.project.model.RecordingUpload;
+import micro.mentalhealth.project.model.StatutEnregistrement;
+import micro.mentalhealth.project.repository.RecordingUploadRepository;
+import micro.mentalhealth.project.repository.SeanceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * An instance whose storage directory lacks files the database knows of refuses to serve them, instead
+ * of restarting the upload at offset 0 or answering that there is no recording.
+ */
+class RecordingServiceTest {
+
+    @TempDir
+    Path storage;
+
+    private final UUID uploadId = UUID.randomUUID();
+    private final UUID seanceId = UUID.randomUUID();
+    private final RecordingUploadRepository uploadRepository = mock(RecordingUploadRepository.class);
+    private RecordingService recordingService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        recordingService = new RecordingService();
+        ReflectionTestUtils.setField(recordingService, "uploadRepository", uploadRepository);
+        ReflectionTestUtils.setField(recordingService, "seanceRepository", mock(SeanceRepository.class));
+        ReflectionTestUtils.setField(recordingService, "storageDir", storage.toString());
+        recordingService.init();
+        when(uploadRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void theFirstChunkStartsTheFile() throws Exception {
+        upload(0);
+
+        assertEquals(3, recordingService.ecrireMorceau(uploadId, 0, body(3)).receivedBytes());
+        assertEquals(3, Files.size(storage.resolve(uploadId + ".part")));
+    }
+
+    @Test
+    void aLaterChunkOnAnInstanceWithoutThePartialFileIsRefused() {
+        upload(4);
+
+        assertThrows(IllegalStateException.class, () -> recordingService.ecrireMorceau(uploadId, 4, body(3)));
+        assertFalse(Files.exists(storage.resolve(uploadId + ".part")));
+    }
+
+    @Test
+    void playbackOfARecordingThisInstanceCannotSeeIsRefused() {
+        RecordingUpload done = new RecordingUpload(seanceId, 10, "video/webm");
+        done.setStatut(StatutEnregistrement.TERMINE);
+        when(uploadRepository.findFirstBySeanceIdAndStatutOrderByUpdatedAtDesc(seanceId, StatutEnregistrement.TERMINE))
+                .thenReturn(Optional.of(done));
+
+        assertThrows(IllegalStateException.class, () -> recordingService.ouvrirEnregistrement(seanceId));
+    }
+
+    @Test
+    void aSeanceWithoutRecordingIsStillUnknown() {
+        when(uploadRepository.findFirstBySeanceIdAndStatutOrderByUpdatedAtDesc(seanceId, StatutEnregistrement.TERMINE))
+                .thenReturn(Optional.empty());
+
+        assertThrows(IllegalArgumentException.class, () -> recordingService.ouvrirEnregistrement(seanceId));
+    }
+
+    private void upload(long receivedBytes) {
+        RecordingUpload upload = new RecordingUpload(seanceId, 10, "video/webm");
+        upload.setUploadId(uploadId);
+        upload.setReceivedBytes(receivedBytes);
+        when(uploadRepository.findById(uploadId)).thenReturn(Optional.of(upload));
+    }
+
+    private static ByteArrayInputStream body(int size) {
+        return new ByteArrayInputStream(new byte[size]);
+    }
+}
@@ -0,0 +1,197 @@
+package micro.mentalhealth.project.service;
+
+import micro.mentalhealth.project.model.Seance;
+import micro.mentalhealth.project.model.StatutSeance;
+import micro.mentalhealth.project.model.TypeSeance;
+import micro.mentalhealth.project.model.events.SeanceChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.AmqpTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Overlap queries on the interval index at the edges of half-open intervals, and the changes that
+ * reach it: local and remote events, and the eviction of ended séances.
+ */
+class SeanceIntervalIndexTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2030, 3, 4, 0, 0);
+
+    private final UUID therapist = UUID.randomUUID();
+    private SeanceIntervalIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new SeanceIntervalIndex();
+        ReflectionTestUtils.setField(index, "coveredFrom", LocalDateTime.MIN);
+        ReflectionTestUtils.setField(index, "amqpTemplate", mock(AmqpTemplate.class));
+    }
+
+    @Test
+    void touchingIntervalsDoNotOverlap() {
+        book(therapist, at(10, 0), 60);
+
+        assertFalse(index.hasConflict(therapist, at(9, 0), at(10, 0)));
+        assertFalse(index.hasConflict(therapist, at(11, 0), at(12, 0)));
+        assertTrue(index.hasConflict(therapist, at(10, 59), at(11, 30)));
+        assertTrue(index.hasConflict(therapist, at(9, 30), at(10, 1)));
+    }
+
+    @Test
+    void containedAndContainingIntervalsOverlap() {
+        book(therapist, at(10, 0), 60);
+
+        assertTrue(index.hasConflict(therapist, at(10, 15), at(10, 45)));
+        assertTrue(index.hasConflict(therapist, at(9, 0), at(12, 0)));
+        assertTrue(index.hasConflict(therapist, at(10, 0), at(11, 0)));
+    }
+
+    @Test
+    void aLongSeanceStartingWellBeforeTheQueryIsFound() {
+        UUID longOne = book(therapist, at(8, 0), 180);
+        book(therapist, at(12, 0), 30);
+
+        assertTrue(index.hasConflict(therapist, at(10, 30), at(10, 45)));
+        assertEquals(List.of(longOne), ids(index.findOverlapping(therapist, at(10, 30), at(10, 45))));
+    }
+
+    @Test
+    void overlappingSeancesComeBackSortedByStart() {
+        UUID third = book(therapist, at(14, 0), 60);
+        UUID first = book(therapist, at(9, 0), 60);
+        UUID second = book(therapist, at(11, 0), 60);
+        book(therapist, at(16, 0), 60);
+
+        assertEquals(List.of(first, second, third), ids(index.findOverlapping(therapist, at(9, 30), at(14, 30))));
+    }
+
+    @Test
+    void otherTherapistsDoNotConflict() {
+        book(therapist, at(10, 0), 60);
+
+        assertFalse(index.hasConflict(UUID.randomUUID(), at(10, 0), at(11, 0)));
+    }
+
+    @Test
+    void cancelledAndMovedSeancesFreeTheirOldInterval() {
+        Seance cancelled = seance(therapist, at(10, 0), 60);
+        Seance moved = seance(therapist, at(14, 0), 60);
+        index.onSeanceChanged(new SeanceChangedEvent(cancelled, null));
+        index.onSeanceChanged(new SeanceChangedEvent(moved, null));
+
+        index.onSeanceChanged(SeanceChangedEvent.transitioned(cancelled, StatutSeance.ANNULEE));
+        moved.setDateHeure(at(16, 0));
+        index.onSeanceChanged(new SeanceChangedEvent(moved, StatutSeance.PLANIFIEE));
+
+        assertFalse(index.hasConflict(therapist, at(10, 0), at(11, 0)));
+        assertFalse(index.hasConflict(therapist, at(14, 0), at(15, 0)));
+        assertTrue(index.hasConflict(therapist, at(16, 30), at(17, 30)));
+    }
+
+    @Test
+    void remoteChangesApplyButOwnBroadcastsAreIgnored() {
+        Seance remote = seance(therapist, at(10, 0), 60);
+        index.onRemoteSeanceChanged(new SeanceChangedEvent(remote, null), "another-instance");
+        assertTrue(index.hasConflict(therapist, at(10, 0), at(11, 0)));
+
+        String self = (String) ReflectionTestUtils.getField(index, "instanceId");
+        index.onRemoteSeanceChanged(SeanceChangedEvent.deleted(remote), self);
+        assertTrue(index.hasConflict(therapist, at(10, 0), at(11, 0)));
+
+        index.onRemoteSeanceChanged(SeanceChangedEvent.deleted(remote), "another-instance");
+        assertFalse(index.hasConflict(therapist, at(10, 0), at(11, 0)));
+    }
+
+    @Test
+    void evictionDropsOnlySeancesEndedBeforeTheCutoffAndNarrowsCoverage() {
+        book(therapist, at(8, 0), 60);
+        book(therapist, at(9, 0), 60); // ends exactly at the cutoff
+        UUID spansCutoff = book(therapist, at(9, 30), 60);
+        UUID later = book(therapist, at(12, 0), 60);
+
+        assertEquals(2, index.evictEndedBefore(at(10, 0)));
+
+        assertFalse(index.covers(at(9, 59)));
+        assertTrue(index.covers(at(10, 0)));
+        assertEquals(List.of(spansCutoff, later), ids(index.findOverlapping(therapist, at(0, 0), at(23, 0))));
+    }
+
+    @Test
+    void concurrentMovesOfOneSeanceLeaveASingleInterval() throws Exception {
+        Seance seance = seance(therapist, at(8, 0), 30);
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> moves = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int hour = 8 + t;
+                moves.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 200; i++) {
+                        Seance copy = seance(therapist, at(hour, 0), 30);
+                        copy.setSeanceId(seance.getSeanceId());
+                        index.upsert(copy);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> move : moves) {
+                move.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(1, index.findOverlapping(therapist, at(0, 0), at(23, 0)).size());
+    }
+
+    @Test
+    void nothingIsCoveredBeforeWarmUp() {
+        SeanceIntervalIndex cold = new SeanceIntervalIndex();
+
+        assertFalse(cold.covers(LocalDateTime.now().plusYears(1)));
+    }
+
+    private UUID book(UUID therapeuteId, LocalDateTime debut, int dureeMinutes) {
+        Seance seance = seance(therapeuteId, debut, dureeMinutes);
+        index.upsert(seance);
+        return seance.getSeanceId();
+    }
+
+    private static Seance seance(UUID therapeuteId, LocalDateTime debut, int dureeMinutes) {
+        return Seance.builder()
+                .seanceId(UUID.randomUUID())
+                .therapeuteId(therapeuteId)
+                .patientId(UUID.randomUUID())
+                .dateHeure(debut)
+                .dureeMinutes(dureeMinutes)
+                .typeSeance(TypeSeance.EN_LIGNE)
+                .statutSeance(StatutSeance.PLANIFIEE)
+                .build();
+    }
+
+    private static LocalDateTime at(int hour, int minute) {
+        return DAY.withHour(hour).withMinute(minute);
+    }
+
+    private static List<UUID> ids(List<SeanceIntervalIndex.SeanceSlot> slots) {
+        return slots.stream().map(SeanceIntervalIndex.SeanceSlot::seanceId).toList();
+    }
+}
@@ -0,0 +1,113 @@
+package micro.mentalhealth.project.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Deadlines on every level of the wheel come back in order, never early and at most one tick late.
+ */
+class TimingWheelTest {
+
+    private static final long TICK = 1_000;
+    private static final int SIZE = 8;
+    private static final int LEVELS = 3;
+
+    // Level 0 spans 8 s, level 1 64 s, level 2 512 s
+    private final TimingWheel<String> wheel = new TimingWheel<>(TICK, SIZE, LEVELS, 0);
+
+    @Test
+    void keysCascadeDownAndExpireWithinOneTickOfTheirDeadline() {
+        long[] deadlines = {300_500, 2_500, 70_000, 9_999, 63_999, 64_000, 511_999, 7_999};
+        for (long deadline : deadlines) {
+            wheel.schedule("k" + deadline, deadline);
+        }
+
+        List<String> order = new ArrayList<>();
+        long end = wheel.horizonMs() + TICK;
+        for (long now = 0; now <= end; now += TICK) {
+            for (String key : wheel.advanceTo(now)) {
+                long deadline = Long.parseLong(key.substring(1));
+                assertTrue(now > deadline, key + " expired early, at " + now);
+                assertTrue(now - deadline <= TICK, key + " expired late, at " + now);
+                order.add(key);
+            }
+        }
+
+        assertEquals(List.of("k2500", "k7999", "k9999", "k63999", "k64000", "k70000", "k300500", "k511999"), order);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void aSingleLargeAdvanceReturnsEveryDueKeyInDeadlineOrder() {
+        wheel.schedule("upper", 200_000);
+        wheel.schedule("middle", 20_000);
+        wheel.schedule("lower", 2_000);
+        wheel.schedule("later", 400_000);
+
+        assertEquals(List.of("lower", "middle", "upper"), wheel.advanceTo(300_000));
+        assertEquals(1, wheel.size());
+        assertEquals(List.of("later"), wheel.advanceTo(401_000));
+    }
+
+    @Test
+    void aKeyOnAnUpperLevelIsNotReturnedBeforeItsBucketCascades() {
+        wheel.schedule("k", 67_500);
+
+        assertTrue(wheel.advanceTo(64_000).isEmpty());
+        assertTrue(wheel.advanceTo(67_000).isEmpty());
+        assertTrue(wheel.advanceTo(68_000 - 1).isEmpty());
+        assertEquals(List.of("k"), wheel.advanceTo(68_000));
+    }
+
+    @Test
+    void deadlinesAlreadyPastAreReturnedOnTheNextAdvance() {
+        wheel.advanceTo(10_000);
+        wheel.schedule("late", 4_000);
+        wheel.schedule("gone", 5_000);
+        wheel.schedule("due", 10_500);
+
+        assertTrue(wheel.cancel("gone"));
+        assertEquals(List.of("late"), wheel.advanceTo(10_000));
+        assertEquals(List.of("due"), wheel.advanceTo(11_000));
+    }
+
+    @Test
+    void reschedulingMovesTheKeyAndCancellingDropsIt() {
+        wheel.schedule("moved", 3_000);
+        wheel.schedule("moved", 50_000);
+        wheel.schedule("cancelled", 4_000);
+
+        assertEquals(2, wheel.size());
+        assertTrue(wheel.cancel("cancelled"));
+        assertFalse(wheel.cancel("cancelled"));
+        assertTrue(wheel.advanceTo(10_000).isEmpty());
+        assertEquals(List.of("moved"), wheel.advanceTo(51_000));
+    }
+
+    @Test
+    void horizonIsTheEndOfTheTopLevelAndMovesWithTheWheel() {
+        assertEquals(511_999, wheel.horizonMs());
+        wheel.schedule("last", 511_999);
+        assertThrows(IllegalArgumentException.class, () -> wheel.schedule("beyond", 512_000));
+
+        wheel.advanceTo(64_000);
+        assertEquals(64_000 + 511_999, wheel.horizonMs());
+        wheel.schedule("beyond", 512_000);
+        assertEquals(2, wheel.size());
+    }
+
+    @Test
+    void startIsRoundedDownToATick() {
+        TimingWheel<String> unaligned = new TimingWheel<>(TICK, SIZE, LEVELS, 1_500);
+        unaligned.schedule("k", 1_200);
+
+        assertEquals(List.of("k"), unaligned.advanceTo(2_000));
+    }
+}
@@ -0,0 +1,34 @@
+package micro.mentalhealth.project.config;
+
+import org.springframework.amqp.core.AmqpTemplate;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RabbitMQConfig {
+    public static final String THERAPEUTE_EXCHANGE = "therapeute.exchange";
+    public static final String DISPONIBILITE_ROUTING_KEY = "therapeute.disponibilite.changed";
+    public static final String PROFIL_ROUTING_KEY = "therapeute.profil.changed";
+
+    @Bean
+    public TopicExchange therapeuteExchange() {
+        return new TopicExchange(THERAPEUTE_EXCHANGE);
+    }
+
+    @Bean
+    public MessageConverter messageConverter() {
+        return new Jackson2JsonMessageConverter();
+    }
+
+    @Bean
+    public AmqpTemplate template(ConnectionFactory connectionFactory) {
+        RabbitTemplate template = new RabbitTemplate(connectionFactory);
+        template.setMessageConverter(messageConverter());
+        return template;
+    }
+}
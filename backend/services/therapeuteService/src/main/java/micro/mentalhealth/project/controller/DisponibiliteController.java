@@ -2,6 +2,7 @@ package micro.mentalhealth.project.controller;
 
 import micro.mentalhealth.project.dto.disponibilite.DisponibiliteRequest;
 import micro.mentalhealth.project.dto.disponibilite.DisponibiliteResponse;
+import micro.mentalhealth.project.dto.disponibilite.DisponibilitesChangedMessage;
 import micro.mentalhealth.project.service.DisponibiliteService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -78,4 +79,9 @@ public class DisponibiliteController {
             return new ResponseEntity<>(null, HttpStatus.NOT_FOUND);
         }
     }
+
+    @GetMapping("/disponibilites")
+    public ResponseEntity<List<DisponibilitesChangedMessage>> getAllSchedules() {
+        return new ResponseEntity<>(disponibiliteService.getAllSchedules(), HttpStatus.OK);
+    }
 }
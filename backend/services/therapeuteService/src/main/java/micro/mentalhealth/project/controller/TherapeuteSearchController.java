@@ -1,5 +1,6 @@
 package micro.mentalhealth.project.controller;
 
+import micro.mentalhealth.project.dto.profiltherapeute.ProfilChangedMessage;
 import micro.mentalhealth.project.dto.profiltherapeute.ProfilTherapeuteResponse;
 import micro.mentalhealth.project.dto.profiltherapeute.TherapeuteSearchRequest;
 import micro.mentalhealth.project.service.TherapeuteSearchService;
@@ -42,4 +43,10 @@ public class TherapeuteSearchController {
         List<ProfilTherapeuteResponse> response = therapeuteSearchService.getAllValidatedTherapeutes();
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
+
+    @GetMapping("/matching-profiles")
+    public ResponseEntity<List<ProfilChangedMessage>> getMatchingProfiles() {
+        List<ProfilChangedMessage> response = therapeuteSearchService.getMatchingProfiles();
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
 }
@@ -0,0 +1,22 @@
+package micro.mentalhealth.project.dto.disponibilite;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Full weekly schedule of a therapist, broadcast after each availability change so that
+ * other services can keep a local replica without calling back.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DisponibilitesChangedMessage {
+    private UUID therapeuteId;
+    private List<DisponibiliteResponse> disponibilites;
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,27 @@
+package micro.mentalhealth.project.dto.profiltherapeute;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The attributes of a therapist profile that other services match patients on, broadcast after
+ * each profile change. {@code actif} is false while the profile is not validated or the therapist
+ * is unavailable.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProfilChangedMessage {
+    private UUID therapeuteId;
+    private List<String> specialites;
+    private List<String> languesParlees;
+    private Double prixParHeure;
+    private Integer anneesExperience;
+    private boolean actif;
+    private LocalDateTime changedAt;
+}
@@ -2,11 +2,14 @@ package micro.mentalhealth.project.mapper;
 
 import micro.mentalhealth.project.model.ProfilTherapeute;
 import micro.mentalhealth.project.model.valueobjects.StatutProfil;
+import micro.mentalhealth.project.dto.profiltherapeute.ProfilChangedMessage;
 import micro.mentalhealth.project.dto.profiltherapeute.ProfilTherapeuteRequest;
 import micro.mentalhealth.project.dto.profiltherapeute.ProfilTherapeuteResponse;
 import org.springframework.stereotype.Component;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.UUID;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -63,4 +66,16 @@ public class ProfilTherapeuteMapper {
         }
         return entityList.stream().map(this::toDto).collect(Collectors.toList());
     }
+
+    public ProfilChangedMessage toChangedMessage(ProfilTherapeute entity, LocalDateTime changedAt) {
+        return new ProfilChangedMessage(
+                entity.getUserId(),
+                new ArrayList<>(entity.getSpecialites()),
+                new ArrayList<>(entity.getLanguesParlees()),
+                entity.getPrixParHeure(),
+                entity.getAnneesExperience(),
+                entity.getStatutProfil() == StatutProfil.VALIDE && !Boolean.FALSE.equals(entity.getAvailable()),
+                changedAt
+        );
+    }
 }
@@ -0,0 +1,48 @@
+package micro.mentalhealth.project.service;
+
+import micro.mentalhealth.project.config.RabbitMQConfig;
+import micro.mentalhealth.project.dto.disponibilite.DisponibilitesChangedMessage;
+import micro.mentalhealth.project.mapper.DisponibiliteMapper;
+import micro.mentalhealth.project.model.events.TherapistAvailabilityChangedEvent;
+import micro.mentalhealth.project.repository.DisponibiliteRepository;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Relays {@link TherapistAvailabilityChangedEvent}s to RabbitMQ once the change is committed.
+ * The message carries the therapist's whole schedule, so consumers never need to call back.
+ */
+@Service
+public class AvailabilityEventPublisher {
+
+    private final DisponibiliteRepository disponibiliteRepository;
+    private final DisponibiliteMapper disponibiliteMapper;
+    private final RabbitTemplate rabbitTemplate;
+
+    @Autowired
+    public AvailabilityEventPublisher(DisponibiliteRepository disponibiliteRepository,
+                                      DisponibiliteMapper disponibiliteMapper,
+                                      RabbitTemplate rabbitTemplate) {
+        this.disponibiliteRepository = disponibiliteRepository;
+        this.disponibiliteMapper = disponibiliteMapper;
+        this.rabbitTemplate = rabbitTemplate;
+    }
+
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onAvailabilityChanged(TherapistAvailabilityChangedEvent event) {
+        DisponibilitesChangedMessage message = new DisponibilitesChangedMessage(
+                event.getTherapeuteId(),
+                disponibiliteMapper.toDtoList(disponibiliteRepository.findByTherapeuteId(event.getTherapeuteId())),
+                event.getChangedAt());
+        rabbitTemplate.convertAndSend(
+                RabbitMQConfig.THERAPEUTE_EXCHANGE,
+                RabbitMQConfig.DISPONIBILITE_ROUTING_KEY,
+                message
+        );
+    }
+}
@@ -7,6 +7,7 @@ import micro.mentalhealth.project.repository.DisponibiliteRepository;
 import micro.mentalhealth.project.repository.ProfilTherapeuteRepository;
 import micro.mentalhealth.project.dto.disponibilite.DisponibiliteRequest;
 import micro.mentalhealth.project.dto.disponibilite.DisponibiliteResponse;
+import micro.mentalhealth.project.dto.disponibilite.DisponibilitesChangedMessage;
 import micro.mentalhealth.project.mapper.DisponibiliteMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationEventPublisher;
@@ -15,8 +16,11 @@ import jakarta.persistence.EntityNotFoundException;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.DayOfWeek;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 public class DisponibiliteService {
@@ -90,4 +94,17 @@ public class DisponibiliteService {
                 .orElseThrow(() -> new EntityNotFoundException("Availability not found with id: " + id));
         return disponibiliteMapper.toDto(disponibilite);
     }
+
+    /**
+     * The weekly schedule of every therapist, in one read, for services that keep a replica of them.
+     */
+    @Transactional(readOnly = true)
+    public List<DisponibilitesChangedMessage> getAllSchedules() {
+        LocalDateTime snapshotAt = LocalDateTime.now();
+        Map<UUID, List<Disponibilite>> byTherapeute = disponibiliteRepository.findAll().stream()
+                .collect(Collectors.groupingBy(Disponibilite::getTherapeuteId));
+        return byTherapeute.entrySet().stream()
+                .map(e -> new DisponibilitesChangedMessage(e.getKey(), disponibiliteMapper.toDtoList(e.getValue()), snapshotAt))
+                .collect(Collectors.toList());
+    }
 }
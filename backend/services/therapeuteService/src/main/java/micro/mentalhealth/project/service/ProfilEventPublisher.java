@@ -0,0 +1,72 @@
+package micro.mentalhealth.project.service;
+
+import micro.mentalhealth.project.config.RabbitMQConfig;
+import micro.mentalhealth.project.mapper.ProfilTherapeuteMapper;
+import micro.mentalhealth.project.model.ProfilTherapeute;
+import micro.mentalhealth.project.model.events.TherapistProfileCreatedEvent;
+import micro.mentalhealth.project.model.events.TherapistProfileUpdatedEvent;
+import micro.mentalhealth.project.model.events.TherapistRejectedEvent;
+import micro.mentalhealth.project.model.events.TherapistValidatedEvent;
+import micro.mentalhealth.project.repository.ProfilTherapeuteRepository;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Relays profile changes to RabbitMQ once they are committed, with the attributes patients are
+ * matched on, so that session-service can rank therapists without calling back.
+ */
+@Service
+public class ProfilEventPublisher {
+
+    private final ProfilTherapeuteRepository profilTherapeuteRepository;
+    private final ProfilTherapeuteMapper profilTherapeuteMapper;
+    private final RabbitTemplate rabbitTemplate;
+
+    @Autowired
+    public ProfilEventPublisher(ProfilTherapeuteRepository profilTherapeuteRepository,
+                                ProfilTherapeuteMapper profilTherapeuteMapper,
+                                RabbitTemplate rabbitTemplate) {
+        this.profilTherapeuteRepository = profilTherapeuteRepository;
+        this.profilTherapeuteMapper = profilTherapeuteMapper;
+        this.rabbitTemplate = rabbitTemplate;
+    }
+
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onProfileCreated(TherapistProfileCreatedEvent event) {
+        publish(profilTherapeuteRepository.findByUserId(event.getUserId()), event.getCreatedAt());
+    }
+
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onProfileUpdated(TherapistProfileUpdatedEvent event) {
+        publish(profilTherapeuteRepository.findById(event.getProfileId()), event.getUpdatedAt());
+    }
+
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onProfileValidated(TherapistValidatedEvent event) {
+        publish(profilTherapeuteRepository.findById(event.getProfileId()), event.getValidatedAt());
+    }
+
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onProfileRejected(TherapistRejectedEvent event) {
+        publish(profilTherapeuteRepository.findById(event.getProfileId()), event.getRejectedAt());
+    }
+
+    private void publish(Optional<ProfilTherapeute> profil, LocalDateTime changedAt) {
+        profil.ifPresent(p -> rabbitTemplate.convertAndSend(
+                RabbitMQConfig.THERAPEUTE_EXCHANGE,
+                RabbitMQConfig.PROFIL_ROUTING_KEY,
+                profilTherapeuteMapper.toChangedMessage(p, changedAt)
+        ));
+    }
+}
@@ -3,6 +3,7 @@ package micro.mentalhealth.project.service;
 import micro.mentalhealth.project.model.ProfilTherapeute;
 import micro.mentalhealth.project.model.valueobjects.StatutProfil;
 import micro.mentalhealth.project.repository.ProfilTherapeuteRepository;
+import micro.mentalhealth.project.dto.profiltherapeute.ProfilChangedMessage;
 import micro.mentalhealth.project.dto.profiltherapeute.ProfilTherapeuteResponse;
 import micro.mentalhealth.project.dto.profiltherapeute.TherapeuteSearchRequest;
 import micro.mentalhealth.project.mapper.ProfilTherapeuteMapper;
@@ -10,6 +11,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -64,4 +66,15 @@ public class TherapeuteSearchService {
         List<ProfilTherapeute> therapeutes = profilTherapeuteRepository.findByStatutProfil(StatutProfil.VALIDE);
         return profilTherapeuteMapper.toDtoList(therapeutes);
     }
+
+    /**
+     * Matching attributes of every validated therapist, for services that keep a replica of them.
+     */
+    @Transactional(readOnly = true)
+    public List<ProfilChangedMessage> getMatchingProfiles() {
+        LocalDateTime snapshotAt = LocalDateTime.now();
+        return profilTherapeuteRepository.findByStatutProfil(StatutProfil.VALIDE).stream()
+                .map(p -> profilTherapeuteMapper.toChangedMessage(p, snapshotAt))
+                .collect(Collectors.toList());
+    }
 }
@@ -1,9 +1,42 @@
-import React from 'react';
+import React, { useEffect, useState } from 'react';
 import { useParams, Link } from 'react-router-dom';
 import { CheckCircle, Calendar, Clock, Video } from 'lucide-react';
 
+const POLL_INTERVAL_MS = 1000;
+const MAX_POLLS = 30;
+
 const BookingConfirmationPage: React.FC = () => {
   const { id } = useParams<{ id: string }>();
+  const [confirmed, setConfirmed] = useState(false);
+
+  // The séance is confirmed by session-service once the payment event reaches it: poll until then
+  useEffect(() => {
+    let cancelled = false;
+    let attempts = 0;
+    let timer: ReturnType<typeof setTimeout>;
+
+    const poll = async () => {
+      try {
+        const response = await fetch(`http://localhost:8070/api/seances/${id}`);
+        if (response.ok && (await response.json()).statutSeance === 'PLANIFIEE') {
+          if (!cancelled) setConfirmed(true);
+          return;
+        }
+      } catch (err) {
+        console.error('Error checking booking status:', err);
+      }
+      attempts += 1;
+      if (!cancelled && attempts < MAX_POLLS) {
+        timer = setTimeout(poll, POLL_INTERVAL_MS);
+      }
+    };
+
+    poll();
+    return () => {
+      cancelled = true;
+      clearTimeout(timer);
+    };
+  }, [id]);
 
   return (
     <div className="max-w-2xl mx-auto px-4 sm:px-6 lg:px-8 py-12 text-center">
@@ -12,9 +45,13 @@ const BookingConfirmationPage: React.FC = () => {
           <CheckCircle className="h-6 w-6 text-green-600" />
         </div>
         
-        <h1 className="text-3xl font-bold text-slate-900 mb-2">Booking Confirmed!</h1>
+        <h1 className="text-3xl font-bold text-slate-900 mb-2">
+          {confirmed ? 'Booking Confirmed!' : 'Payment Received'}
+        </h1>
         <p className="text-lg text-slate-600 mb-8">
-          Your therapy session has been successfully booked.
+          {confirmed
+            ? 'Your therapy session has been successfully booked.'
+            : 'We are confirming your session, this only takes a moment...'}
         </p>
         
         <div className="bg-slate-50 rounded-lg p-6 mb-8 text-left space-y-4">
@@ -9,11 +9,12 @@ interface PaymentModalProps {
     patientId: string;
   };
   amount: number;
+  quoteToken: string;
   onSuccess: (paymentId: string) => void;
   onClose: () => void;
 }
 
-const PaymentModal: React.FC<PaymentModalProps> = ({ session, amount, onSuccess, onClose }) => {
+const PaymentModal: React.FC<PaymentModalProps> = ({ session, amount, quoteToken, onSuccess, onClose }) => {
   const [paymentMethod, setPaymentMethod] = useState<'CARTE' | 'PAYPAL'>('CARTE');
   const [cardDetails, setCardDetails] = useState({
     number: '',
@@ -40,15 +41,12 @@ if (!session.therapeuteId || !session.patientId) {
         patientId: session.patientId,
         therapistId: session.therapeuteId,
         amount: amount,
+        quoteToken: quoteToken,
         paymentMethod: paymentMethod,
         paymentStatus: 'REUSSI' // In a real app, this would come from the payment processor
       });
 
-      // Confirm session
-      await axios.post(
-        `http://localhost:8070/api/seances/confirm?seanceId=${session.seanceId}&paymentId=${paymentResponse.data.id}`
-      );
-
+      // session-service confirms the séance when payment-service reports the payment
       onSuccess(paymentResponse.data.id);
     } catch (err) {
       console.error('Payment error:', err);
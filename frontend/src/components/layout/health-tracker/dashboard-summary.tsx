@@ -5,6 +5,7 @@ import {jwtDecode} from 'jwt-decode'
 
 import { BarChart2, Activity, Calendar, Clock, TrendingUp, TrendingDown } from "lucide-react"
 import { api, MoodEntry } from "../../../lib/api"
+import { fetchAllSeances } from "../../../lib/seances"
 
 interface JwtPayload {
   userId: string
@@ -96,11 +97,8 @@ export default function DashboardSummary() {
 
   const fetchNextSession = async (patientId: string) => {
     try {
-      const response = await fetch(`http://localhost:8070/api/seances/patient/${patientId}`)
-      if (!response.ok) {
-        throw new Error("Failed to fetch sessions")
-      }
-      const sessions: Seance[] = await response.json()
+      const today = new Date().toISOString().split("T")[0]
+      const sessions = await fetchAllSeances<Seance>(`/patient/${patientId}?from=${today}T00:00:00`)
 
       // Filter only future sessions and non-cancelled ones
       const now = new Date()
@@ -0,0 +1,21 @@
+const SEANCES_API = "http://localhost:8070/api/seances";
+
+/**
+ * Every séance of a session-service listing, page after page. `path` is relative to /api/seances
+ * and may carry filters; the cursor of the next page comes in the X-Next-Cursor header.
+ */
+export async function fetchAllSeances<T>(path: string): Promise<T[]> {
+  const items: T[] = [];
+  let cursor: string | null = null;
+  do {
+    const separator = path.includes("?") ? "&" : "?";
+    const url = cursor ? `${SEANCES_API}${path}${separator}cursor=${encodeURIComponent(cursor)}` : `${SEANCES_API}${path}`;
+    const response = await fetch(url);
+    if (!response.ok) {
+      throw new Error("Failed to fetch sessions");
+    }
+    items.push(...(await response.json()));
+    cursor = response.headers.get("X-Next-Cursor");
+  } while (cursor);
+  return items;
+}
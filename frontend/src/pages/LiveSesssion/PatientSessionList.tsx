@@ -3,6 +3,7 @@ import { useNavigate } from 'react-router-dom';
 import { Calendar, Clock, Video, User, MapPin, Clipboard, MessageSquare } from 'lucide-react';
 import VideoCall from './VideoCall';
 import toast from 'react-hot-toast';
+import { fetchAllSeances } from '../../lib/seances';
 
 interface UserInfo {
   id: string;
@@ -69,10 +70,7 @@ const PatientSessionList: React.FC = () => {
     const fetchSessions = async () => {
       try {
         // Fetch patient's sessions
-        const response = await fetch(`http://localhost:8070/api/seances/patient/${patientId}`);
-        if (!response.ok) throw new Error('Failed to fetch sessions');
-        
-        const data: Seance[] = await response.json();
+        const data = await fetchAllSeances<Seance>(`/patient/${patientId}`);
         
         // Filter only upcoming sessions
         const now = new Date();
@@ -164,9 +162,21 @@ const PatientSessionList: React.FC = () => {
     return `${mins}:${secs < 10 ? '0' : ''}${secs}`;
   };
 
-  const handleSessionSelect = (session: Seance) => {
+  const handleSessionSelect = async (session: Seance) => {
     setSelectedSession(session);
     setShowVideoCall(false);
+
+    // The session list omits notes: load the therapist's note with the full session
+    try {
+      const response = await fetch(`http://localhost:8070/api/seances/${session.seanceId}`);
+      if (!response.ok) return;
+      const seance: Seance = await response.json();
+      setSelectedSession(prev =>
+        prev && prev.seanceId === session.seanceId ? { ...prev, noteTherapeute: seance.noteTherapeute } : prev
+      );
+    } catch (error) {
+      console.error('Error loading session notes:', error);
+    }
   };
 
   const startVideoCall = () => {
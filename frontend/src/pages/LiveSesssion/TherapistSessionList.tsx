@@ -3,6 +3,7 @@ import { useNavigate } from 'react-router-dom';
 import { Calendar, Clock, Video, User, MapPin, Clipboard, MessageSquare, Mail, Phone } from 'lucide-react';
 import VideoCall from './VideoCall';
 import toast from 'react-hot-toast';
+import { fetchAllSeances } from '../../lib/seances';
 
 interface UserInfo {
   id: string;
@@ -59,6 +60,8 @@ const TherapistSessionList: React.FC = () => {
   const [selectedSession, setSelectedSession] = useState<Seance | null>(null);
   const [showVideoCall, setShowVideoCall] = useState(false);
   const [notes, setNotes] = useState('');
+  // The session list omits notes: the editor stays locked until the stored note has been loaded
+  const [notesLoaded, setNotesLoaded] = useState(false);
   const [loading, setLoading] = useState(true);
   const [timeRemaining, setTimeRemaining] = useState<number | null>(null);
   const timerRef = useRef<NodeJS.Timeout | null>(null);
@@ -69,11 +72,8 @@ const TherapistSessionList: React.FC = () => {
   useEffect(() => {
     const fetchSessions = async () => {
       try {
-        const response = await fetch(`http://localhost:8070/api/seances/therapeute/${therapistId}`);
-        if (!response.ok) throw new Error('Failed to fetch sessions');
-        
-        const data: Seance[] = await response.json();
         const today = new Date().toISOString().split('T')[0];
+        const data = await fetchAllSeances<Seance>(`/therapeute/${therapistId}?statut=PLANIFIEE&from=${today}T00:00:00`);
         const filteredSessions = data.filter(s => 
           s.statutSeance === 'PLANIFIEE' && 
           s.dateHeure.startsWith(today)
@@ -147,10 +147,25 @@ const TherapistSessionList: React.FC = () => {
     };
   }, [selectedSession]);
 
-  const handleSessionSelect = (session: Seance) => {
+  const handleSessionSelect = async (session: Seance) => {
     setSelectedSession(session);
-    setNotes(session.noteTherapeute || '');
+    setNotes('');
+    setNotesLoaded(false);
     setShowVideoCall(false);
+
+    try {
+      const response = await fetch(`http://localhost:8070/api/seances/${session.seanceId}`);
+      if (!response.ok) throw new Error('Failed to load notes');
+      const seance: Seance = await response.json();
+      setNotes(seance.noteTherapeute || '');
+      setSelectedSession(prev =>
+        prev && prev.seanceId === session.seanceId ? { ...prev, noteTherapeute: seance.noteTherapeute } : prev
+      );
+      setNotesLoaded(true);
+    } catch (error) {
+      console.error('Error loading notes:', error);
+      toast.error('Failed to load session notes');
+    }
   };
 
   const startVideoCall = () => {
@@ -179,7 +194,7 @@ const TherapistSessionList: React.FC = () => {
   };
 
   const saveSessionNotes = async () => {
-  if (!selectedSession) return;
+  if (!selectedSession || !notesLoaded) return;
 
   try {
     const response = await fetch(
@@ -456,13 +471,15 @@ const TherapistSessionList: React.FC = () => {
                 <textarea
                   value={notes}
                   onChange={(e) => setNotes(e.target.value)}
+                  disabled={!notesLoaded}
                   className="w-full px-3 py-2 border border-gray-300 rounded-lg focus:ring-blue-500 focus:border-blue-500"
                   rows={6}
                   placeholder="Add your notes about this session..."
                 />
                 <button
                   onClick={saveSessionNotes}
-                  className="mt-3 bg-blue-600 hover:bg-blue-700 text-white px-4 py-2 rounded-lg"
+                  disabled={!notesLoaded}
+                  className="mt-3 bg-blue-600 hover:bg-blue-700 disabled:opacity-50 text-white px-4 py-2 rounded-lg"
                 >
                   Save Notes
                 </button>
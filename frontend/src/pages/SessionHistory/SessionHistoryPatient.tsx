@@ -4,6 +4,7 @@ import { SessionType, SessionStatus } from '../../types/entities';
 import axios from 'axios';
 import { Toaster } from 'react-hot-toast';
 import SessionRatingForm from '../../components/SessionRatingForm';
+import { fetchAllSeances } from '../../lib/seances';
 
 interface User {
   id: string;
@@ -49,8 +50,7 @@ const SessionHistoryPatient: React.FC = () => {
 
   const fetchSessions = async () => {
     try {
-      const response = await axios.get(`http://localhost:8070/api/seances/patient/${userId}`);
-      const completedSessions = response.data.filter((session: Session) => session.statutSeance === 'TERMINEE');
+      const completedSessions = await fetchAllSeances<Session>(`/patient/${userId}?statut=TERMINEE`);
       setSessions(completedSessions);
       
       const therapistIds = [...new Set(completedSessions.map((session: Session) => session.therapeuteId))];
@@ -2,6 +2,7 @@ import React, { useEffect, useState } from 'react';
 import { Calendar, Clock, MapPin, Video, FileText, User } from 'lucide-react';
 import { SessionType, SessionStatus } from '../../types/entities';
 import axios from 'axios';
+import { fetchAllSeances } from '../../lib/seances';
 
 interface User {
   id: string;
@@ -32,6 +33,9 @@ interface Session {
   updatedAt: string;
 }
 
+// Largest number of notes the session service returns per batch call
+const NOTES_BATCH_SIZE = 200;
+
 const SessionHistoryTherapist: React.FC = () => {
   const [sessions, setSessions] = useState<Session[]>([]);
   const [loading, setLoading] = useState(true);
@@ -43,8 +47,21 @@ const SessionHistoryTherapist: React.FC = () => {
   useEffect(() => {
     const fetchSessions = async () => {
       try {
-        const response = await axios.get(`http://localhost:8070/api/seances/therapeute/${userId}`);
-        const completedSessions = response.data.filter((session: Session) => session.statutSeance === 'TERMINEE');
+        const sessions = await fetchAllSeances<Session>(`/therapeute/${userId}?statut=TERMINEE`);
+        // The list omits notes: fetch them in batches rather than one session at a time
+        const ids: string[] = sessions.map((session: Session) => session.seanceId);
+        const notes: Record<string, string> = {};
+        for (let i = 0; i < ids.length; i += NOTES_BATCH_SIZE) {
+          const notesResponse = await axios.post(
+            'http://localhost:8070/api/seances/notes/batch',
+            ids.slice(i, i + NOTES_BATCH_SIZE)
+          );
+          Object.assign(notes, notesResponse.data);
+        }
+        const completedSessions: Session[] = sessions.map((session: Session) => ({
+          ...session,
+          noteTherapeute: notes[session.seanceId] ?? null,
+        }));
         setSessions(completedSessions);
         
         // Fetch patient info for each session
@@ -1,6 +1,7 @@
 import React, { useEffect, useState } from 'react';
 import { Calendar, Clock, MapPin, Video, User, X, AlertTriangle } from 'lucide-react';
 import { UserRole, SessionType, Session } from '../../types/entities';
+import { fetchAllSeances } from '../../lib/seances';
 
 interface UserInfo {
   id: string;
@@ -56,12 +57,11 @@ const UpcomingSessions: React.FC = () => {
   const fetchSessions = async () => {
     try {
       setLoading(true);
-      const endpoint = userRole === 'THERAPIST'
-        ? `http://localhost:8070/api/seances/therapeute/${userId}`
-        : `http://localhost:8070/api/seances/patient/${userId}`;
+      const path = userRole === 'THERAPIST'
+        ? `/therapeute/${userId}?statut=PLANIFIEE`
+        : `/patient/${userId}?statut=PLANIFIEE`;
 
-      const res = await fetch(endpoint);
-      const data = await res.json();
+      const data = await fetchAllSeances<any>(path);
 
       const upcoming = data
         .filter((s: any) => s.statutSeance === 'PLANIFIEE')
@@ -2,6 +2,7 @@ import React, { useState, useEffect } from 'react';
 import { Users, Calendar, DollarSign, Clock, Video, Phone, MessageSquare, TrendingUp, Bell, Star } from 'lucide-react';
 import TherapistRedirector from "../../components/TherapistRedirector";
 import { Link } from 'react-router-dom';
+import { fetchAllSeances } from '../../lib/seances';
 
 interface DashboardData {
   totalPatients: number;
@@ -45,30 +46,27 @@ const TherapistDashboard: React.FC = () => {
   useEffect(() => {
     const fetchDashboardData = async () => {
       try {
+        // Only today's planned sessions are listed; the counters come from the stats endpoint
+        const today = new Date().toISOString().split('T')[0];
+        const tomorrow = new Date(Date.now() + 24 * 60 * 60 * 1000).toISOString().split('T')[0];
+
         // Fetch all data in parallel
-        const [userDataRes, feedbackRes, earningsRes, sessionsRes, patientCountRes] = await Promise.all([
+        const [userDataRes, feedbackRes, earningsRes, todaySessions, statsRes] = await Promise.all([
           fetch(`http://localhost:8090/api/user/${userId}`),
           fetch(`http://localhost:8030/api/feedbacks/therapist/${userId}/average`),
           fetch(`http://localhost:8060/api/payments/therapists/${userId}/earnings`),
-          fetch(`http://localhost:8070/api/seances/therapeute/${userId}`),
-          fetch(`http://localhost:8070/api/seances/therapeute/${userId}/patient-count`)
+          fetchAllSeances<any>(`/therapeute/${userId}?statut=PLANIFIEE&from=${today}T00:00:00&to=${tomorrow}T00:00:00`),
+          fetch(`http://localhost:8070/api/seances/therapeute/${userId}/stats`)
         ]);
 
-        if (!userDataRes.ok || !feedbackRes.ok || !earningsRes.ok || !sessionsRes.ok || !patientCountRes.ok) {
+        if (!userDataRes.ok || !feedbackRes.ok || !earningsRes.ok || !statsRes.ok) {
           throw new Error('Failed to fetch dashboard data');
         }
 
         const userData = await userDataRes.json();
         const avgRating = await feedbackRes.json();
         const monthlyEarnings = await earningsRes.json();
-        const sessions = await sessionsRes.json();
-        const patientCount = await patientCountRes.json();
-
-        // Process sessions data
-        const today = new Date().toISOString().split('T')[0];
-        const todaySessions = sessions.filter((s: any) => 
-          s.dateHeure.startsWith(today) && s.statutSeance === 'PLANIFIEE'
-        );
+        const stats = await statsRes.json();
 
         // Format upcoming sessions
         const formattedSessions = todaySessions.map((session: any) => ({
@@ -108,7 +106,7 @@ const TherapistDashboard: React.FC = () => {
         }));
 
         setDashboardData({
-          totalPatients: patientCount || 0,
+          totalPatients: stats.distinctPatients || 0,
           sessionsToday: todaySessions.length,
           monthlyEarnings: monthlyEarnings || 0,
           avgRating: avgRating || 0
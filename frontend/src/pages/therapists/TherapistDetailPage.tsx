@@ -68,6 +68,7 @@ const TherapistDetailPage: React.FC = () => {
   const [error, setError] = useState<string | null>(null);
   const [showPaymentModal, setShowPaymentModal] = useState(false);
   const [pendingSession, setPendingSession] = useState<any>(null);
+  const [priceQuote, setPriceQuote] = useState<{ amount: number; token: string } | null>(null);
   const navigate = useNavigate();
   const patient = JSON.parse(localStorage.getItem("user") || "{}");
 
@@ -190,7 +191,8 @@ const TherapistDetailPage: React.FC = () => {
     const response = await axios.post(
       `http://localhost:8070/api/seances/pending?therapistId=${id}&patientId=${patient.id}&dateTime=${encodeURIComponent(dateTime)}&dureeMinutes=${duration}&typeSeance=${sessionType}`
     );
-    
+    // The quote comes with the séance, signed by session-service; payment-service charges the amount it states
+    setPriceQuote(response.data.quote);
     setPendingSession({
       ...response.data});
     setShowPaymentModal(true);
@@ -504,11 +506,12 @@ const TherapistDetailPage: React.FC = () => {
         </div>
       </div>
 
-      {showPaymentModal && pendingSession && (
+      {showPaymentModal && pendingSession && priceQuote && (
         <>{console.log('Pending session data:', pendingSession)}
         <PaymentModal
           session={pendingSession}
-          amount={therapist?.prixParHeure || 0}
+          amount={priceQuote.amount}
+          quoteToken={priceQuote.token}
           onSuccess={handlePaymentSuccess}
           onClose={() => setShowPaymentModal(false)}
         />